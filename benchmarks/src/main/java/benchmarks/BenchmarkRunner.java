@@ -0,0 +1,163 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs every benchmark but the scaling ones with the GC profiler (for gc.alloc.rate.norm, the bytes
+ * allocated per operation) and compares the results to the checked-in baseline.
+ *
+ * Usage:
+ * <pre>
+ * java -jar target/benchmarks.jar [results.csv]     run and compare to baseline.csv
+ * java -jar target/benchmarks.jar --baseline        run and overwrite baseline.csv
+ * java -jar target/benchmarks.jar --compare a.csv b.csv
+ * </pre>
+ *
+ * A score more than THRESHOLD worse than the baseline (fewer ops/s, more time/op
+ * or more bytes/op) is reported as a regression and the exit code is 1.
+ *
+ */
+public class BenchmarkRunner {
+
+	private final static String BASELINE = "baseline.csv";
+
+	/**
+	 * Relative change of a score that is reported as a regression
+	 */
+	private final static double THRESHOLD = 0.10;
+
+	/**
+	 * Allocation changes smaller than this many bytes per operation are ignored
+	 */
+	private final static double ALLOC_NOISE = 16;
+
+	/**
+	 * Benchmarks left out of the regression run, they take minutes, have no
+	 * baseline and only mean something on a machine with enough cores
+	 */
+	private final static String SCALING_BENCHMARKS = "benchmarks\\.(SearchScaling|Tablebase)Benchmark";
+
+	public static void main(String[] args) throws RunnerException, IOException {
+		if (args.length == 3 && args[0].equals("--compare")) {
+			System.exit(compare(Paths.get(args[1]), Paths.get(args[2])) ? 0 : 1);
+			return;
+		}
+
+		boolean baseline = args.length > 0 && args[0].equals("--baseline");
+		String results = baseline ? BASELINE : (args.length > 0) ? args[0] : "results.csv";
+		Options options = new OptionsBuilder()
+				.include("benchmarks\\..*Benchmark")
+				.exclude(SCALING_BENCHMARKS)
+				.addProfiler(GCProfiler.class)
+				.resultFormat(ResultFormatType.CSV)
+				.result(results)
+				.build();
+		new Runner(options).run();
+
+		if (!baseline && Files.exists(Paths.get(BASELINE)))
+			System.exit(compare(Paths.get(BASELINE), Paths.get(results)) ? 0 : 1);
+	}
+
+	/**
+	 * Prints the change of every score in results that is also in the baseline
+	 *
+	 * @return true if there are no regressions
+	 */
+	public static boolean compare(Path baselineFile, Path resultsFile) throws IOException {
+		Map<String, Score> baseline = readScores(baselineFile);
+		Map<String, Score> results = readScores(resultsFile);
+
+		boolean passed = true;
+		System.out.println(String.format("%-80s %14s %14s %8s", "Benchmark", "Baseline", "Result", "Change"));
+		for (Map.Entry<String, Score> entry : results.entrySet()) {
+			Score before = baseline.get(entry.getKey());
+			if (before == null)
+				continue;
+
+			Score after = entry.getValue();
+			double change = (after.value - before.value) / before.value;
+			boolean regression;
+			if (after.unit.equals("B/op"))
+				regression = after.value - before.value > ALLOC_NOISE && change > THRESHOLD;
+			else if (after.unit.endsWith("/op"))
+				regression = change > THRESHOLD; //time per operation
+			else
+				regression = change < -THRESHOLD; //operations per time
+
+			passed &= !regression;
+			System.out.println(String.format("%-80s %14.2f %14.2f %+7.1f%% %s %s", entry.getKey(), before.value,
+					after.value, change * 100, after.unit, regression ? "REGRESSION" : ""));
+		}
+		return passed;
+	}
+
+	private static class Score {
+
+		double value;
+		String unit;
+
+		Score(double _value, String _unit) {
+			value = _value;
+			unit = _unit;
+		}
+
+	}
+
+	/**
+	 * Reads the primary scores and the gc.alloc.rate.norm scores of a JMH
+	 * CSV result file, keyed by benchmark name and parameters
+	 */
+	private static Map<String, Score> readScores(Path file) throws IOException {
+		List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+		List<String> header = splitCsv(lines.get(0));
+		Map<String, Score> scores = new LinkedHashMap<String, Score>();
+		for (int i = 1;i < lines.size();i ++) {
+			List<String> row = splitCsv(lines.get(i));
+			String name = row.get(0);
+			if (name.contains(":") && !name.endsWith(":gc.alloc.rate.norm"))
+				continue;
+
+			StringBuilder key = new StringBuilder(name);
+			for (int col = 7;col < row.size();col ++)
+				if (!row.get(col).isEmpty())
+					key.append(' ').append(header.get(col).replace("Param: ", "")).append('=').append(row.get(col));
+
+			scores.put(key.toString(), new Score(Double.parseDouble(row.get(4)), row.get(6)));
+		}
+		return scores;
+	}
+
+	private static List<String> splitCsv(String line) {
+		List<String> fields = new ArrayList<String>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0;i < line.length();i ++) {
+			char c = line.charAt(i);
+			if (c == '"')
+				quoted = !quoted;
+			else if (c == ',' && !quoted) {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else
+				field.append(c);
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+
+}
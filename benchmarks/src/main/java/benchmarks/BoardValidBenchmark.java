@@ -0,0 +1,64 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import model.ChessMove;
+import model.board.Board;
+import model.game_modes.LosersGameMode;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import controller.Player;
+
+/**
+ * LosersGameMode.boardValid() for every possible move of the middle
+ * game position, simulated the same way as Board.isValidMove()
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardValidBenchmark {
+
+	private LosersGameMode gameMode;
+	private Board board;
+	private Player player;
+	private ArrayList<ChessMove> moves;
+
+	@Setup
+	public void setup() {
+		gameMode = new LosersGameMode();
+		Player[] players = Positions.newPlayers();
+		board = Positions.middleGame(gameMode, players);
+		player = players[0];
+
+		moves = new ArrayList<ChessMove>();
+		for (int i = 0;i < player.getPieces().size();i ++)
+			moves.addAll(player.getPieces().get(i).getPossibleMoves());
+	}
+
+	@Benchmark
+	public void losersBoardValid(Blackhole blackhole) {
+		for (int i = 0;i < moves.size();i ++) {
+			ChessMove move = moves.get(i);
+			move.executeMove(false);
+			blackhole.consume(gameMode.boardValid(board, player, move));
+			move.undoMove();
+		}
+	}
+
+}
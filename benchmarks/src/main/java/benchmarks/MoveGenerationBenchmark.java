@@ -0,0 +1,97 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import model.ChessMove;
+import model.ChessPiece;
+import model.MoveList;
+import model.board.Board;
+import model.game_modes.GameMode;
+import model.game_modes.LosersGameMode;
+import model.game_modes.StandardGame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import controller.Player;
+
+/**
+ * Move generation and attack queries on the middle game position of
+ * each game mode and board implementation
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark {
+
+	@Param({ "standard", "losers" })
+	public String gameMode;
+
+	@Param({ "true", "false" })
+	public boolean bitboard;
+
+	private Board board;
+	private Player player;
+	private ChessPiece queen;
+	private MoveList moves;
+
+	@Setup
+	public void setup() {
+		GameMode mode = gameMode.equals("losers") ? new LosersGameMode(bitboard) : new StandardGame(bitboard);
+		Player[] players = Positions.newPlayers();
+		board = Positions.middleGame(mode, players);
+		player = players[0];
+		queen = board.getTile(4, 0);
+		moves = new MoveList();
+	}
+
+	@Benchmark
+	public ArrayList<ChessMove> getAllMoves() {
+		return board.getAllMoves(player);
+	}
+
+	@Benchmark
+	public int getAllMovesPacked() {
+		moves.clear();
+		board.getAllMoves(player, moves);
+		return moves.size();
+	}
+
+	/**
+	 * Stops at the first valid move, compare with getAllMovesPacked
+	 */
+	@Benchmark
+	public boolean hasAnyLegalMove() {
+		return board.hasAnyLegalMove(player);
+	}
+
+	@Benchmark
+	public ArrayList<ChessMove> getValidMoves() {
+		return queen.getValidMoves();
+	}
+
+	/**
+	 * Asks if each of the player's pieces is attacked
+	 */
+	@Benchmark
+	public void locationPressured(Blackhole blackhole) {
+		for (int i = 0;i < player.getPieces().size();i ++)
+			blackhole.consume(board.locationPressured(player.getPieces().get(i).getLocation(), player));
+	}
+
+}
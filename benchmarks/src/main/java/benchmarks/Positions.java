@@ -0,0 +1,64 @@
+package benchmarks;
+
+import java.awt.Point;
+
+import model.ChessMove;
+import model.board.Board;
+import model.game_modes.GameMode;
+import controller.Player;
+
+/**
+ * Positions shared by the benchmarks. Each position is played out from the
+ * starting position of the game mode with validated moves.
+ *
+ */
+public final class Positions {
+
+	/**
+	 * Opening moves (xs, ys, xe, ye) that develop the minor pieces of both
+	 * players without allowing a capture, so they are valid in every game mode
+	 */
+	private final static int[][] OPENING = {
+		{ 4, 1, 4, 2 }, { 4, 6, 4, 5 },
+		{ 3, 1, 3, 2 }, { 3, 6, 3, 5 },
+		{ 6, 0, 5, 2 }, { 6, 7, 5, 5 },
+		{ 1, 0, 2, 2 }, { 1, 7, 2, 5 },
+		{ 2, 0, 3, 1 }, { 2, 7, 3, 6 }
+	};
+
+	private Positions() { }
+
+	/**
+	 * @return two new players that are set as each other's opponent, [0] moves first
+	 */
+	public static Player[] newPlayers() {
+		Player player1 = new Player(1, false, null);
+		Player player2 = new Player(-1, false, null);
+		player1.setOtherPlayer(player2);
+		player2.setOtherPlayer(player1);
+		return new Player[] { player1, player2 };
+	}
+
+	/**
+	 * @param gameMode
+	 * @param players players from {@link #newPlayers()}
+	 * @return the starting position of the game mode
+	 */
+	public static Board start(GameMode gameMode, Player[] players) {
+		return gameMode.initPieces(players[0], players[1]);
+	}
+
+	/**
+	 * @param gameMode
+	 * @param players players from {@link #newPlayers()}
+	 * @return the middle game position, with players[0] to move
+	 */
+	public static Board middleGame(GameMode gameMode, Player[] players) {
+		Board board = start(gameMode, players);
+		for (int[] move : OPENING)
+			new ChessMove(new Point(move[2], move[3]), board.getTile(move[0], move[1])).executeMove(true);
+
+		return board;
+	}
+
+}
@@ -0,0 +1,63 @@
+package benchmarks;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import model.board.RectangularBoard;
+import model.game_modes.StandardGame;
+import view.loaders.AssetLoader;
+import view.loaders.structures.Model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Building the rendering data without an opengl context, the generated
+ * board mesh and the parsing of a piece model. The model file is read
+ * from the chess.models directory (../src/view/Models by default) into
+ * memory once, so only the parsing is measured.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderDataBenchmark {
+
+	private RectangularBoard board;
+	private byte[] modelFile;
+
+	@Setup
+	public void setup() throws IOException {
+		board = new RectangularBoard(new StandardGame());
+		String dir = System.getProperty("chess.models", "../src/view/Models");
+		modelFile = Files.readAllBytes(Paths.get(dir, "Queen.mdl"));
+	}
+
+	@Benchmark
+	public Model generateBoardModel() {
+		return board.generateBoardModel();
+	}
+
+	@Benchmark
+	public Model parseModel() throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(modelFile)));
+		return AssetLoader.parseModel(null, reader);
+	}
+
+}
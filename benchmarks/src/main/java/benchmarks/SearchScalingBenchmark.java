@@ -0,0 +1,71 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import model.board.Board;
+import model.game_modes.StandardGame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import controller.Player;
+import controller.engine.ParallelSearch;
+import controller.engine.SearchLimits;
+import controller.engine.TranspositionTable;
+
+/**
+ * Time to depth of the Lazy SMP search from the middle game position, for 1
+ * to 8 search threads. Each operation starts from an empty transposition table.
+ * The speedup of N threads is the score of 1 thread divided by the score of N.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchScalingBenchmark {
+
+	private final static int DEPTH = 5;
+
+	private final static int TABLE_MB = 16;
+
+	@Param({ "1", "2", "4", "8" })
+	public int threads;
+
+	private Board board;
+	private Player player;
+	private TranspositionTable table;
+	private ParallelSearch search;
+
+	@Setup
+	public void setup() {
+		Player[] players = Positions.newPlayers();
+		board = Positions.middleGame(new StandardGame(), players);
+		player = players[0];
+		table = new TranspositionTable(TABLE_MB);
+	}
+
+	@Setup(Level.Invocation)
+	public void newSearch() {
+		table.clear();
+		search = new ParallelSearch(board, player, threads, table);
+	}
+
+	@Benchmark
+	public int timeToDepth() {
+		return search.search(SearchLimits.depth(DEPTH));
+	}
+
+}
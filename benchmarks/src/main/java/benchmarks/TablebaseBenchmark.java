@@ -0,0 +1,59 @@
+package benchmarks;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import model.Move;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import controller.engine.TablebaseGenerator;
+
+/**
+ * Time to generate the KRK tables (listing the successors and the retrograde
+ * sweeps, without writing the files) with a pool of 1 to 4 threads. Each
+ * operation generates the tables from scratch.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class TablebaseBenchmark {
+
+	@Param({ "1", "2", "4" })
+	public int threads;
+
+	private ForkJoinPool pool;
+
+	@Setup
+	public void setup() {
+		pool = new ForkJoinPool(threads);
+	}
+
+	@TearDown
+	public void tearDown() {
+		pool.shutdown();
+	}
+
+	@Benchmark
+	public int generateKRK() {
+		TablebaseGenerator generator = new TablebaseGenerator(Move.ROOK, pool);
+		generator.generate();
+		return generator.getSweeps();
+	}
+
+}
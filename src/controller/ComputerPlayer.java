@@ -0,0 +1,214 @@
+package controller;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import model.board.Board;
+import model.game_modes.StandardGame;
+import controller.engine.OpeningBook;
+import controller.engine.ParallelSearch;
+import controller.engine.Search;
+import controller.engine.SearchLimits;
+import controller.engine.Tablebases;
+import controller.engine.TranspositionTable;
+
+/**
+ * Player whose moves are chosen by the alpha-beta {@link Search}. When it is
+ * this player's turn the game's board is copied for each search thread (see
+ * {@link ParallelSearch}), and the copies are searched on background threads, so the GameLoop and the render loop are never blocked.
+ * The move found is then passed back to the GameLoop, which only executes it
+ * if the game is still in the position the search started from.
+ * 
+ * In a standard game the opening book is probed before any search is started,
+ * a book is loaded from the file named by -Dchess.book, or set with
+ * {@link #setOpeningBook(OpeningBook)}. Endgame tablebases are loaded from the
+ * directory named by -Dchess.tablebases, or set with {@link #setTablebases(Tablebases)}.
+ *
+ */
+public class ComputerPlayer extends Player {
+
+	/**
+	 * Size of the transposition table kept between moves
+	 */
+	private final static int TABLE_MB = 32;
+
+	private SearchLimits limits;
+	private int threads;
+
+	/**
+	 * Results of earlier searches, kept for the rest of the game
+	 */
+	private TranspositionTable table;
+
+	/**
+	 * Book of StandardGame openings, null if there is none
+	 */
+	private OpeningBook book;
+
+	/**
+	 * Endgame tables the searches score positions from, null if there are none
+	 */
+	private Tablebases tablebases;
+
+	/**
+	 * The search currently running, null if this player isn't thinking
+	 */
+	private ParallelSearch search;
+
+	/**
+	 * Creates a computer player that searches with ParallelSearch.DEFAULT_THREADS threads
+	 * 
+	 * @param _direction
+	 * @param _limits the budget of each move's search
+	 */
+	public ComputerPlayer(int _direction, SearchLimits _limits) {
+		this(_direction, _limits, ParallelSearch.DEFAULT_THREADS);
+	}
+
+	/**
+	 * @param _direction
+	 * @param _limits the budget of each move's search
+	 * @param _threads number of search threads
+	 */
+	public ComputerPlayer(int _direction, SearchLimits _limits, int _threads) {
+		super(_direction, "Computer");
+		limits = _limits;
+		threads = _threads;
+		table = new TranspositionTable(TABLE_MB);
+		book = loadDefaultBook();
+		tablebases = loadDefaultTablebases();
+	}
+
+	/**
+	 * @return the book named by the chess.book property, null if there is none
+	 */
+	private static OpeningBook loadDefaultBook() {
+		String file = System.getProperty("chess.book");
+		if (file == null)
+			return null;
+
+		try {
+			return OpeningBook.open(Paths.get(file));
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * @return the tables in the directory named by the chess.tablebases property,
+	 *  null if there are none
+	 */
+	private static Tablebases loadDefaultTablebases() {
+		String directory = System.getProperty("chess.tablebases");
+		if (directory == null)
+			return null;
+
+		try {
+			return Tablebases.open(Paths.get(directory));
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	@Override
+	public synchronized void requestMove(final GameLoop game) {
+		cancelMove();
+
+		final Board board = game.getBoard();
+		final long positionKey = board.positionKey();
+
+		//the book was built from standard games only
+		final int bookMove = (book != null && board.getGameMode() instanceof StandardGame) 
+				? book.probe(board, this) : Search.NO_MOVE;
+
+		//the board is copied here, while the GameLoop isn't changing it
+		final ParallelSearch current = (bookMove == Search.NO_MOVE) ? new ParallelSearch(board, this, threads, table) : null;
+		if (current != null)
+			current.setTablebases(tablebases);
+		search = current;
+
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				if (bookMove != Search.NO_MOVE) {
+					game.postMove(ComputerPlayer.this, board, positionKey, bookMove);
+					return;
+				}
+
+				int move = current.search(limits);
+				if (move != Search.NO_MOVE && !current.isStopped())
+					game.postMove(ComputerPlayer.this, board, positionKey, move);
+			}
+		}, "ComputerPlayer search");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	@Override
+	public synchronized void cancelMove() {
+		if (search != null)
+			search.stop();
+		search = null;
+	}
+
+	@Override
+	public boolean isComputer() {
+		return true;
+	}
+
+	@Override
+	public void reset() {
+		cancelMove();
+		table.clear();
+		super.reset();
+	}
+
+	/**
+	 * @return the budget of each move's search
+	 */
+	public SearchLimits getLimits() {
+		return limits;
+	}
+
+	public OpeningBook getOpeningBook() {
+		return book;
+	}
+
+	/**
+	 * @param _book book probed before searching in a standard game, null
+	 *  to always search
+	 */
+	public void setOpeningBook(OpeningBook _book) {
+		book = _book;
+	}
+
+	public Tablebases getTablebases() {
+		return tablebases;
+	}
+
+	/**
+	 * @param _tablebases endgame tables the searches score positions from, null for none
+	 */
+	public void setTablebases(Tablebases _tablebases) {
+		tablebases = _tablebases;
+	}
+
+	/**
+	 * @return the number of search threads
+	 */
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Sets the number of search threads, used from the next move
+	 * 
+	 * @param _threads
+	 */
+	public void setThreads(int _threads) {
+		threads = _threads;
+	}
+
+}
@@ -1,9 +1,7 @@
 package controller;
 //sfddf
 import java.awt.geom.Point2D;
-import java.util.ArrayList;
 import java.util.Stack;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.swing.JFrame;
 import javax.swing.JOptionPane;
@@ -11,18 +9,28 @@ import javax.swing.JOptionPane;
 import com.jogamp.opengl.awt.GLCanvas;
 
 import model.ChessMove;
+import model.ChessPiece;
+import model.PositionStatus;
+import model.SnapshotExchange;
 import model.board.Board;
 import model.game_modes.GameMode;
 import view.GameCamera;
 import view.Renderer;
 import view.loaders.AssetLoader;
-import controller.util.Animation;
+import controller.util.Animator;
+import controller.util.CommandQueue;
+import controller.util.Easing;
+import controller.util.FrameScheduler;
 
 /**
  * This class will control the gameflow of the program. This class
  * implements the maintaining running loop for this application, and has basic functions
  * that control chess gameflow, such as execute move, cancel game, and setupNewGame
  * 
+ * Only the game thread changes the game. Other threads, such as the input handler,
+ * the menu and the computer players, post the changes as commands, which the game 
+ * thread runs once every frame before rendering.
+ * 
  * @author Nicholas
  *
  */
@@ -37,14 +45,14 @@ public class GameLoop implements Runnable {
 	/**
 	 * The players that in this game
 	 */
-	private Player player1;
-	private Player player2;
-	private Player currentPlayer;
+	private volatile Player player1;
+	private volatile Player player2;
+	private volatile Player currentPlayer;
 	
 	/**
 	 * A reference to the board
 	 */
-	private Board board;
+	private volatile Board board;
 	
 	/**
 	 * The type of game played
@@ -56,17 +64,39 @@ public class GameLoop implements Runnable {
 	 */
 	private Stack<ChessMove> allMoves;
 	
+	/**
+	 * The legal moves and result of the current position, updated
+	 * after every move executed or undone
+	 */
+	private PositionStatus status;
+	
 	/**
 	 * Flags used to determine if the game is over
 	 */
 	private Player winner;
-	private boolean running;
+	private volatile boolean running;
+	
+	/**
+	 * Seconds taken to animate a piece's move, and to turn the camera
+	 */
+	private final static float PIECE_MOVE_TIME = 1;
+	private final static float CAMERA_TURN_TIME = 2;
 	
 	/**
 	 * Variables used for animations
 	 */
-	private float lastRenderTime;
-	private CopyOnWriteArrayList<Animation> animations;
+	private Animator animator;
+	private FrameScheduler scheduler;
+	
+	/**
+	 * Changes to the game posted by other threads, run by the game thread
+	 */
+	private CommandQueue commands;
+	
+	/**
+	 * Hands a snapshot of every frame to the renderer, which never reads the board
+	 */
+	private SnapshotExchange snapshots;
 	
 	/**
 	 * Constructs a new gameloop, with the given canvas.
@@ -76,6 +106,11 @@ public class GameLoop implements Runnable {
 	 */
 	public GameLoop(GLCanvas _canvas, JFrame frame) {
 		canvas = _canvas;
+		animator = new Animator();
+		scheduler = new FrameScheduler();
+		commands = new CommandQueue();
+		snapshots = new SnapshotExchange();
+		status = new PositionStatus();
 		player1 = new Player(1, true, frame);
 		player2 = new Player(-1, true, frame);
 		player1.setOtherPlayer(player2);
@@ -85,14 +120,20 @@ public class GameLoop implements Runnable {
 	/**
 	 * Sets up the game for the given gameMode. This
 	 * method initializes the players and the board. This 
-	 * method is called automatically, when the current game ends
+	 * method is called automatically, when the current game ends,
+	 * otherwise it must be called before the first game thread is started
 	 * 
 	 * @param _gameMode The game mode to be used
 	 */
-	public synchronized void setupNewGame(GameMode _gameMode) {
+	public void setupNewGame(GameMode _gameMode) {
 		//reset all animations and moves
 		allMoves = new Stack<ChessMove>();
-		animations = new CopyOnWriteArrayList<Animation>();
+		animator.clear();
+		/* run the commands posted since the last frame, so new players chosen while
+		 * the last game ended are used for this game. The last game isn't running, 
+		 * so its moves, undos and cancels are ignored
+		 */
+		commands.drain();
 		
 		//reset current player
 		currentPlayer = player1;
@@ -100,6 +141,7 @@ public class GameLoop implements Runnable {
 		player1.reset();
 		player2.reset();
 		board = gameMode.initPieces(player1, player2);
+		status.update(board, currentPlayer);
 		
 		//Load the board models, will be ignored if already created
 		AssetLoader.getInstance().addModel(board.generateBoardModel(), board.getType());
@@ -123,24 +165,25 @@ public class GameLoop implements Runnable {
 	 */
 	@Override
 	public void run() {
-		running = true;
-		/* Every iteration this thread updates the animations and
-		 * displays the board. Since frame rates can vary, we calculate
-		 * the last running time to update the animations uniformly.
+		startGame();
+		scheduler.requestFrame();
+		/* Every frame this thread runs the commands posted since the last frame,
+		 * steps the animations by the fixed timestep, as many times as the time 
+		 * passed since the last frame, publishes a snapshot of the board and displays
+		 * it. The scheduler parks the thread while nothing changes, posting a command
+		 * wakes it.
 		 */
-		while (running || !animations.isEmpty()) {
-			long startTime = System.nanoTime();
+		while (running || !animator.isEmpty()) {
+			int steps = scheduler.awaitFrame(!animator.isEmpty());
+			if (steps < 0)
+				continue;
 			
-			ArrayList<Animation> removeList = new ArrayList<Animation>();
-			for (Animation animation : animations)
-				if (animation.stepAnimation(lastRenderTime))
-					removeList.add(animation);
-			
-			animations.removeAll(removeList);
+			commands.drain();
+			for (int i = 0;i < steps;i ++)
+				animator.step(scheduler.getTimeStep());
+			snapshots.publish(board, status);
 			canvas.display();
-				
-			long endTime = System.nanoTime();	
-			lastRenderTime = (float) ((endTime - startTime) / 1.0E9);
+			scheduler.frameRendered();
 		}
 		
 		String winnerString = (winner == null) ? "Tie" : winner.getPlayerName();
@@ -153,6 +196,91 @@ public class GameLoop implements Runnable {
 		setupNewGame(gameMode);
 	}
 		
+	/**
+	 * Marks the game as running, and asks the first player for a move
+	 */
+	private void startGame() {
+		running = true;
+		currentPlayer.requestMove(this);
+	}
+	
+	/**
+	 * Posts a move chosen by a player, by the input handler or off the game thread
+	 * by a {@link ComputerPlayer}. The move is only executed if it is still the player's
+	 * turn in the position the move was chosen for, so a move that arrives after
+	 * an undo, or after a new game was set up, is ignored.
+	 * 
+	 * @param player the player that chose the move
+	 * @param _board the board the move was chosen for
+	 * @param positionKey the key of the position the move was chosen for
+	 * @param move packed move, see {@link model.Move}
+	 */
+	public void postMove(final Player player, final Board _board, final long positionKey, final int move) {
+		post(new Runnable() {
+			@Override
+			public void run() {
+				if (running && player == currentPlayer && _board == board && board.positionKey() == positionKey)
+					executeMove(new ChessMove(board, move));
+			}
+		});
+	}
+	
+	/**
+	 * Posts an undo of the last move, see {@link #undoLastMove()}. The
+	 * undo is ignored if a new game was set up before it is run.
+	 */
+	public void postUndo() {
+		final Board _board = board;
+		post(new Runnable() {
+			@Override
+			public void run() {
+				if (_board == board)
+					undoLastMove();
+			}
+		});
+	}
+	
+	/**
+	 * Posts the end of the game, see {@link #cancelGame(Player)}. Only the
+	 * game being played when it is posted is ended, not a game set up after.
+	 * 
+	 * @param _winner The winner of the game, can be null in which case the 
+	 * game was a tie
+	 */
+	public void postCancelGame(final Player _winner) {
+		final Board _board = board;
+		post(new Runnable() {
+			@Override
+			public void run() {
+				if (running && _board == board)
+					cancelGame(_winner);
+			}
+		});
+	}
+	
+	/**
+	 * Posts new players, see {@link #setPlayers(Player, Player)}
+	 * 
+	 * @param _player1
+	 * @param _player2
+	 */
+	public void postPlayers(final Player _player1, final Player _player2) {
+		post(new Runnable() {
+			@Override
+			public void run() {
+				setPlayers(_player1, _player2);
+			}
+		});
+	}
+	
+	/**
+	 * Queues the command for the game thread and wakes it
+	 */
+	private void post(Runnable command) {
+		commands.offer(command);
+		scheduler.requestFrame();
+	}
+	
 	/**
 	 * Executes a chess move, sets up an animation,
 	 * and switches the currentPlayer. The ChessMove
@@ -164,20 +292,21 @@ public class GameLoop implements Runnable {
 	 * 
 	 * @param move ChessMove to be executed, must be a validMove
 	 */
-	public synchronized void executeMove(ChessMove move) {
+	private void executeMove(ChessMove move) {
 		if (!running) 
 			return;
 		
 		//add move
 		allMoves.push(move);
 		//actually execute the move
+		status.invalidate();
 		move.executeMove(true);
 		currentPlayer = currentPlayer.getOtherPlayer();
+		status.update(board, currentPlayer);
 		//check to see if there are any moves left
-		boolean noMoves = board.noPossibleMoves(currentPlayer);
-		if (noMoves) {
+		if (status.isGameOver()) {
 			//check the game mode to see if the player has lost
-			if (gameMode.hasPlayerLost(board, currentPlayer)) 
+			if (status.getResult() == PositionStatus.LOST) 
 				cancelGame(currentPlayer.getOtherPlayer());
 			else //or just tied
 				cancelGame(null);
@@ -187,15 +316,10 @@ public class GameLoop implements Runnable {
 		gameMode.postMoveAction(this, move);
 		
 		//create animations based on move locations
-		Point2D.Float start = board.getRenderPosition(move.getStartLocation());
-		Point2D.Float end = board.getRenderPosition(move.getMoveLocation());
+		animateMove(move.getPiece(), board.getRenderPosition(move.getStartLocation()), 
+				board.getRenderPosition(move.getMoveLocation()));
 		
-		animations.add(new Animation(move.getPiece(), "drawLocationX", start.x, end.x, 1));
-		animations.add(new Animation(move.getPiece(), "drawLocationY", start.y, end.y, 1));
-		//rotate the camera
-		GameCamera c = renderer.getCamera();
-		animations.add(new Animation(c, "horizontalRotation", c.getHorizontalRotation(), 
-				currentPlayer.getCameraDirection(), 2));
+		currentPlayer.requestMove(this);
 	}
 	
 	/**
@@ -206,32 +330,44 @@ public class GameLoop implements Runnable {
 	 * 
 	 * @param move ChessMove to be executed, must be a validMove
 	 */
-	public synchronized void undoLastMove() {
+	private void undoLastMove() {
 		if (!running) 
 			return;
 		
 		if (allMoves.empty())
 			return;
 		
+		//a move being chosen for the current position is no longer wanted
+		currentPlayer.cancelMove();
 		//get last move
 		ChessMove lastMove = allMoves.pop();
 		//undo it
+		status.invalidate();
 		lastMove.undoMove();
 		//swap players
 		currentPlayer = currentPlayer.getOtherPlayer();
+		status.update(board, currentPlayer);
 		if (!allMoves.isEmpty())
 			gameMode.postMoveAction(this, allMoves.peek());
 		
 		//create animation
-		Point2D.Float start = board.getRenderPosition(lastMove.getMoveLocation());
-		Point2D.Float end = board.getRenderPosition(lastMove.getStartLocation());
+		animateMove(lastMove.getPiece(), board.getRenderPosition(lastMove.getMoveLocation()), 
+				board.getRenderPosition(lastMove.getStartLocation()));
 		
-		animations.add(new Animation(lastMove.getPiece(), "drawLocationX", start.x, end.x, 1));
-		animations.add(new Animation(lastMove.getPiece(), "drawLocationY", start.y, end.y, 1));
-		//rotate camera
+		currentPlayer.requestMove(this);
+	}
+	
+	/**
+	 * Animates the piece from start to end, and rotates the camera
+	 * to the current player's direction
+	 */
+	private void animateMove(ChessPiece piece, Point2D.Float start, Point2D.Float end) {
+		animator.animate(piece.getDrawLocationXProperty(), start.x, end.x, PIECE_MOVE_TIME, Easing.EASE_IN_OUT);
+		animator.animate(piece.getDrawLocationYProperty(), start.y, end.y, PIECE_MOVE_TIME, Easing.EASE_IN_OUT);
 		GameCamera c = renderer.getCamera();
-		animations.add(new Animation(c, "horizontalRotation", c.getHorizontalRotation(), 
-				currentPlayer.getCameraDirection(), 2));
+		animator.animateTo(c.getHorizontalRotationProperty(), currentPlayer.getCameraDirection(), 
+				CAMERA_TURN_TIME, Easing.EASE_IN_OUT);
+		scheduler.requestFrame();
 	}
 	
 	/**
@@ -241,8 +377,11 @@ public class GameLoop implements Runnable {
 	 * @param _winner The winner of the game, can be null in which case the 
 	 * game was a tie
 	 */
-	public void cancelGame(Player _winner) {
+	private void cancelGame(Player _winner) {
 		running = false;
+		scheduler.requestFrame();
+		player1.cancelMove();
+		player2.cancelMove();
 		winner = _winner;
 		if (_winner != null)
 			_winner.addWin();
@@ -254,8 +393,57 @@ public class GameLoop implements Runnable {
 	 * -------------------------------------------
 	 */
 	
-	public void addAnimation(Animation anim) {
-		animations.add(anim);
+	/**
+	 * @return the animator stepped by the game loop
+	 */
+	public Animator getAnimator() {
+		return animator;
+	}
+	
+	/**
+	 * @return the legal moves and result of the current position, the
+	 *  same object for the whole game loop, updated after every move
+	 */
+	public PositionStatus getPositionStatus() {
+		return status;
+	}
+	
+	/**
+	 * @return the exchange the renderer takes the snapshot of each frame from
+	 */
+	public SnapshotExchange getSnapshots() {
+		return snapshots;
+	}
+	
+	/**
+	 * Asks for the board to be displayed again, for changes to what is 
+	 * shown that don't start an animation, ie a piece being selected
+	 */
+	public void requestFrame() {
+		scheduler.requestFrame();
+	}
+	
+	/**
+	 * @return the scheduler pacing the frames, which keeps the frame statistics
+	 */
+	public FrameScheduler getFrameScheduler() {
+		return scheduler;
+	}
+	
+	/**
+	 * Replaces the players, the new players are used from the next
+	 * game that is set up
+	 * 
+	 * @param _player1
+	 * @param _player2
+	 */
+	private void setPlayers(Player _player1, Player _player2) {
+		player1.cancelMove();
+		player2.cancelMove();
+		player1 = _player1;
+		player2 = _player2;
+		player1.setOtherPlayer(player2);
+		player2.setOtherPlayer(player1);
 	}
 	
 	public void setRenderer(Renderer _renderer) {
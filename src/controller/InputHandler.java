@@ -7,8 +7,7 @@ import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.geom.Point2D;
 
-import model.ChessMove;
-import model.ChessPiece;
+import model.PositionStatus;
 import model.board.Board;
 import view.GameCamera;
 import view.Renderer;
@@ -43,6 +42,10 @@ public class InputHandler implements KeyListener, MouseListener {
 	 */
 	@Override
 	public void mouseClicked(MouseEvent arg0) {
+		//the computer chooses its own moves
+		if (gameController.getCurrentPlayer().isComputer())
+			return;
+		
 		//get camera
 		GameCamera camera = renderer.getCamera();
 		Point2D.Float fpoint = new Point2D.Float();
@@ -51,26 +54,29 @@ public class InputHandler implements KeyListener, MouseListener {
 		Board board = gameController.getBoard();
 		//get the location where the click location intersects the 3D board
 		Point clickLoc = board.getBoardPosition(camera.getClick(fpoint, renderer));
-		//get the chess peice at that tile
-		ChessPiece piece = board.getTile(clickLoc.x, clickLoc.y);
-		if (renderer.getSelectedPiece() != null) { //if a piece is not selected yet...
-			//create a ChessMove object that would move the selected piece to the selected location
-			ChessMove move = new ChessMove(clickLoc, renderer.getSelectedPiece());
-			if (renderer.getSelectedPiece().getValidMoves().contains(move)) { //if this ChessMove is valid for the piece...
-				gameController.executeMove(move);  //execute the move
-				renderer.setSelectedPiece(null); //piece is no longer selected
-			} else if (renderer.getSelectedPiece() == piece) { //if we selected the piece already selected...
-				renderer.setSelectedPiece(null); //piece is no longer selected
-			} else if (piece != null && piece.getPlayer() == gameController.getCurrentPlayer()) { 
-				if (piece.getValidMoves().size() != 0) //if it has any valid moves...
-					renderer.setSelectedPiece(piece); //set selected piece
+		int square = board.isInBounds(clickLoc) ? board.getSquare(clickLoc.x, clickLoc.y) : -1;
+		/* the clicks are resolved by square against the legal moves of the position,
+		 * the pieces are never read, the game thread may be moving them
+		 */
+		PositionStatus status = gameController.getPositionStatus();
+		int selected = renderer.getSelectedSquare();
+		if (selected >= 0) { //if a piece is not selected yet...
+			//find the move of the selected piece to the selected location
+			int move = status.findMove(selected, square);
+			if (move != PositionStatus.NO_MOVE) { //if this move is valid for the piece...
+				//post the move, the game thread checks it is still for the current position
+				gameController.postMove(status.getMover(), status.getBoard(), status.getPositionKey(), move);
+				renderer.setSelectedSquare(-1); //piece is no longer selected
+			} else if (selected == square) { //if we selected the piece already selected...
+				renderer.setSelectedSquare(-1); //piece is no longer selected
+			} else if (status.hasMoves(square)) { //if a piece of our currentPlayer has any valid moves...
+				renderer.setSelectedSquare(square); //set selected piece
 			}
-		//if piece is selected and is a piece of our currentPlayer
-		} else if (piece != null && piece.getPlayer() == gameController.getCurrentPlayer()) { 
-			if (piece.getValidMoves().size() != 0) //if it has any valid moves...
-				renderer.setSelectedPiece(piece); //set selected piece
+		//if a piece of our currentPlayer is clicked and has any valid moves
+		} else if (status.hasMoves(square)) { 
+			renderer.setSelectedSquare(square); //set selected piece
 		} else {
-			renderer.setSelectedPiece(null);
+			renderer.setSelectedSquare(-1);
 		}
 		
 		
@@ -95,8 +101,8 @@ public class InputHandler implements KeyListener, MouseListener {
 	@Override
 	public void keyPressed(KeyEvent arg0) { 
 		if (arg0.getKeyCode() == KeyEvent.VK_Z && arg0.isControlDown()) {
-			gameController.undoLastMove();
-			renderer.setSelectedPiece(null);
+			gameController.postUndo();
+			renderer.setSelectedSquare(-1);
 		}
 	}
 
@@ -6,6 +6,8 @@ import java.util.ArrayList;
 import javax.swing.JOptionPane;
 
 import model.ChessPiece;
+import model.PieceList;
+import model.PieceType;
 import model.pieces.King;
 
 /**
@@ -19,6 +21,12 @@ import model.pieces.King;
  */
 public class Player {
 
+	/**
+	 * Colours of the players' pieces, also the index of the colour's texture
+	 */
+	public final static int WHITE = 0;
+	public final static int BLACK = 1;
+	
 	/**
 	 * The way the camera should face for this player
 	*/
@@ -32,12 +40,22 @@ public class Player {
 	private String playerName;
 	
 	/**
-	 * List of all piece owned by the player (includes captured pieces)
+	 * List of the player's pieces on the board, captured pieces are removed
+	 * and put back in place when the capture is undone
+	 */
+	private PieceList chessPieces;
+	
+	/**
+	 * The player's pieces on the board by kind, the pawns, the pieces that
+	 * capture along lines and the pieces that only jump (the knights)
 	 */
-	private ArrayList<ChessPiece> chessPieces;
+	private PieceList pawns;
+	private PieceList sliders;
+	private PieceList leapers;
 	
 	/**
-	 * List of all pieces that have been captured by this player
+	 * List of all the player's pieces that have been captured, in the order
+	 * they were captured
 	 */
 	private ArrayList<ChessPiece> capturedPieces;
 	
@@ -57,7 +75,10 @@ public class Player {
 		direction = _direction;
 		cameraDirection = (direction == 1) ? 3.1415f * 3 / 2 : 3.1415f / 2;
 		
-		chessPieces = new ArrayList<ChessPiece>();
+		chessPieces = new PieceList(false);
+		pawns = new PieceList(true);
+		sliders = new PieceList(true);
+		leapers = new PieceList(true);
 		capturedPieces = new ArrayList<ChessPiece>();
 		if (requestName) {
 			String playernum = (direction == 1) ? "1" : "2";
@@ -65,9 +86,46 @@ public class Player {
 		}
 	}
 	
+	/**
+	 * Creates a player with the given name, without asking for one
+	 * 
+	 * @param _direction
+	 * @param name
+	 */
+	public Player(int _direction, String name) {
+		this(_direction, false, null);
+		playerName = name;
+	}
+	
+	/**
+	 * Called by the GameLoop when it is this player's turn. A human player's
+	 * moves come from the InputHandler, so this method does nothing, players 
+	 * that choose their own moves override it and pass the move to
+	 * {@link GameLoop#postMove(Player, model.board.Board, long, int)}
+	 * 
+	 * @param game
+	 */
+	public void requestMove(GameLoop game) { }
+	
+	/**
+	 * Called by the GameLoop when a move requested with requestMove() is no
+	 * longer wanted, ie the move was undone or the game ended
+	 */
+	public void cancelMove() { }
+	
+	/**
+	 * @return true if this player's moves are not made through the InputHandler
+	 */
+	public boolean isComputer() {
+		return false;
+	}
+	
 	public void reset() {
-		chessPieces = new ArrayList<ChessPiece>();
-		capturedPieces = new ArrayList<ChessPiece>();
+		chessPieces.clear();
+		pawns.clear();
+		sliders.clear();
+		leapers.clear();
+		capturedPieces.clear();
 		king = null;
 	}
 
@@ -78,10 +136,25 @@ public class Player {
 	 * @param chessPiece
 	 */
 	public void addPiece(ChessPiece chessPiece) {
-		if (chessPiece.getType().equals("King"))
+		if (chessPiece.getPieceType() == PieceType.KING)
 			king = (King) chessPiece;
 		
 		chessPieces.add(chessPiece);
+		PieceList kind = getKindList(chessPiece);
+		if (kind != null)
+			kind.add(chessPiece);
+	}
+	
+	/**
+	 * @return the list of the piece's kind, null for the king
+	 */
+	private PieceList getKindList(ChessPiece chessPiece) {
+		switch (chessPiece.getPieceType()) {
+		case PAWN: return pawns;
+		case KNIGHT: return leapers;
+		case KING: return null;
+		default: return sliders;
+		}
 	}
 	
 	/*
@@ -93,11 +166,29 @@ public class Player {
 	public void pieceCaptured(ChessPiece capturedPiece) {
 		capturedPieces.add(capturedPiece);
 		chessPieces.remove(capturedPiece);
+		PieceList kind = getKindList(capturedPiece);
+		if (kind != null)
+			kind.remove(capturedPiece);
 	}
 	
+	/**
+	 * Puts the piece back in the slots it was captured from, so undoing
+	 * the captures in reverse order restores the order of the pieces
+	 * 
+	 * @param uncapturedPiece
+	 */
 	public void pieceUncaptured(ChessPiece uncapturedPiece) {
-		chessPieces.add(uncapturedPiece);
-		capturedPieces.remove(uncapturedPiece);
+		chessPieces.restore(uncapturedPiece);
+		PieceList kind = getKindList(uncapturedPiece);
+		if (kind != null)
+			kind.restore(uncapturedPiece);
+		
+		//the last capture is the one undone, unless moves are undone out of order
+		int last = capturedPieces.size() - 1;
+		if (last >= 0 && capturedPieces.get(last) == uncapturedPiece)
+			capturedPieces.remove(last);
+		else
+			capturedPieces.remove(uncapturedPiece);
 	}
 	
 	public void addWin() {
@@ -108,9 +199,32 @@ public class Player {
 		return winCount;
 	}
 	
-	public ArrayList<ChessPiece> getPieces() {
+	/**
+	 * @return the player's pieces on the board, iterate with get(i) up to
+	 *  size(), the list is stable while moves are made and unmade
+	 */
+	public PieceList getPieces() {
 		return chessPieces;
 	}
+	
+	public PieceList getPawns() {
+		return pawns;
+	}
+	
+	/**
+	 * @return the pieces that capture along rank-file or diagonal lines,
+	 *  other than the king
+	 */
+	public PieceList getSliders() {
+		return sliders;
+	}
+	
+	/**
+	 * @return the knights
+	 */
+	public PieceList getLeapers() {
+		return leapers;
+	}
 
 	public King getKing() {
 		return king;
@@ -136,8 +250,15 @@ public class Player {
 		return playerName;
 	}
 	
+	/**
+	 * @return WHITE or BLACK, the colour of the player's pieces
+	 */
+	public int getColor() {
+		return (direction == 1) ? WHITE : BLACK;
+	}
+	
 	public String getColorTexture() {
-		return (direction == 1) ? "White" : "Black";
+		return (getColor() == WHITE) ? "White" : "Black";
 	}
 	
 }
@@ -0,0 +1,215 @@
+package controller.engine;
+
+import model.Move;
+import model.MoveList;
+
+/**
+ * Move ordering for the alpha-beta search. Alpha-beta prunes the most when the
+ * best move is searched first, so the generated moves are scored and searched in
+ * this order:
+ *
+ * <ol>
+ * <li>the move stored in the transposition table</li>
+ * <li>captures, most valuable victim first, then least valuable attacker (MVV-LVA)</li>
+ * <li>the two killer moves of the ply, quiet moves that caused a cutoff in a sibling</li>
+ * <li>the counter move, the quiet move that last refuted the opponent's previous move</li>
+ * <li>the remaining quiet moves by their history score, which grows every time
+ * the move (by side, from and to square) causes a cutoff</li>
+ * </ol>
+ *
+ * The scores are kept in an array for each ply, and {@link #next(MoveList, int, int)}
+ * swaps the best remaining move into place, so the moves are ordered in place
+ * without allocating, and the moves after a cutoff are never sorted.
+ *
+ */
+public class MoveOrdering {
+
+	/**
+	 * Piece values used by MVV-LVA, by piece code (see {@link Move}). The king
+	 * is the most expensive attacker, so it captures last
+	 */
+	private final static int[] ORDER_VALUES = { 0, 1, 3, 3, 5, 9, 10, 8, 6 };
+
+	private final static int TABLE_SCORE = 1 << 30;
+	private final static int CAPTURE_SCORE = 1 << 29;
+	private final static int KILLER_SCORE = 1 << 28;
+	private final static int COUNTER_SCORE = KILLER_SCORE - 2;
+
+	/**
+	 * History scores are halved when one passes this, so they stay below
+	 * the counter move score
+	 */
+	private final static int HISTORY_LIMIT = 1 << 20;
+
+	private final int squares;
+
+	/**
+	 * Scores of the moves of each ply, by index in the ply's MoveList
+	 */
+	private int[][] scores;
+
+	/**
+	 * Two killer moves for each ply, [ply * 2] is the most recent
+	 */
+	private int[] killers;
+
+	/**
+	 * History scores, by [side][from * squares + to]
+	 */
+	private int[][] history;
+
+	/**
+	 * Counter moves, by [side][from * squares + to] of the opponent's previous move
+	 */
+	private int[][] counterMoves;
+
+	private long cutoffs;
+	private long firstMoveCutoffs;
+
+	/**
+	 * @param _squares number of squares of the board
+	 * @param maxPly deepest ply that will be ordered
+	 */
+	public MoveOrdering(int _squares, int maxPly) {
+		squares = _squares;
+		scores = new int[maxPly + 1][MoveList.DEFAULT_CAPACITY];
+		killers = new int[(maxPly + 1) * 2];
+		history = new int[2][squares * squares];
+		counterMoves = new int[2][squares * squares];
+	}
+
+	/**
+	 * Forgets the killers and ages the history, called before each search
+	 */
+	public void newSearch() {
+		for (int i = 0;i < killers.length;i ++)
+			killers[i] = 0;
+		for (int side = 0;side < 2;side ++)
+			for (int i = 0;i < history[side].length;i ++)
+				history[side][i] >>= 1;
+	}
+
+	private static int side(int direction) {
+		return (direction == 1) ? 0 : 1;
+	}
+
+	/**
+	 * Scores every move of the ply
+	 *
+	 * @param moves moves generated for the ply
+	 * @param ply
+	 * @param direction direction of the player to move
+	 * @param tableMove move stored in the transposition table, 0 if none
+	 * @param previous the opponent's previous move, 0 if none
+	 */
+	public void score(MoveList moves, int ply, int direction, int tableMove, int previous) {
+		if (scores[ply].length < moves.size())
+			scores[ply] = new int[moves.size()];
+
+		int[] plyScores = scores[ply];
+		int side = side(direction);
+		int counter = (previous != 0) ? counterMoves[1 - side][index(previous)] : 0;
+		for (int i = 0;i < moves.size();i ++) {
+			int move = moves.get(i);
+			if (move == tableMove)
+				plyScores[i] = TABLE_SCORE;
+			else if (Move.isCapture(move))
+				plyScores[i] = CAPTURE_SCORE + ORDER_VALUES[Move.getCaptured(move)] * 16 - ORDER_VALUES[Move.getPiece(move)];
+			else if (move == killers[ply * 2])
+				plyScores[i] = KILLER_SCORE;
+			else if (move == killers[ply * 2 + 1])
+				plyScores[i] = KILLER_SCORE - 1;
+			else if (move == counter)
+				plyScores[i] = COUNTER_SCORE;
+			else
+				plyScores[i] = history[side][index(move)];
+		}
+	}
+
+	/**
+	 * Swaps the best scored move of those from index on into index
+	 *
+	 * @param moves moves scored by {@link #score(MoveList, int, int, int, int)}
+	 * @param ply
+	 * @param index
+	 * @return the move now at index
+	 */
+	public int next(MoveList moves, int ply, int index) {
+		int[] plyScores = scores[ply];
+		int best = index;
+		for (int i = index + 1;i < moves.size();i ++)
+			if (plyScores[i] > plyScores[best])
+				best = i;
+
+		if (best != index) {
+			moves.swap(index, best);
+			int tmp = plyScores[index];
+			plyScores[index] = plyScores[best];
+			plyScores[best] = tmp;
+		}
+		return moves.get(index);
+	}
+
+	/**
+	 * Records a move that caused a beta cutoff
+	 *
+	 * @param move
+	 * @param ply
+	 * @param direction direction of the player that made the move
+	 * @param depth remaining depth of the search
+	 * @param previous the opponent's previous move, 0 if none
+	 * @param index index the move was searched at, 0 if it was searched first
+	 */
+	public void cutoff(int move, int ply, int direction, int depth, int previous, int index) {
+		cutoffs ++;
+		if (index == 0)
+			firstMoveCutoffs ++;
+
+		if (Move.isCapture(move))
+			return;
+
+		if (killers[ply * 2] != move) {
+			killers[ply * 2 + 1] = killers[ply * 2];
+			killers[ply * 2] = move;
+		}
+
+		int side = side(direction);
+		if (previous != 0)
+			counterMoves[1 - side][index(previous)] = move;
+
+		int[] sideHistory = history[side];
+		int i = index(move);
+		sideHistory[i] += depth * depth;
+		if (sideHistory[i] > HISTORY_LIMIT)
+			for (int j = 0;j < sideHistory.length;j ++)
+				sideHistory[j] >>= 1;
+	}
+
+	private int index(int move) {
+		return Move.getFrom(move) * squares + Move.getTo(move);
+	}
+
+	/**
+	 * @return the number of beta cutoffs recorded
+	 */
+	public long getCutoffs() {
+		return cutoffs;
+	}
+
+	/**
+	 * @return the fraction of beta cutoffs that were caused by the first move
+	 *  searched, the closer to 1 the better the ordering
+	 */
+	public double getFirstMoveCutoffRate() {
+		return (cutoffs == 0) ? 0 : firstMoveCutoffs / (double) cutoffs;
+	}
+
+	/**
+	 * Resets the cutoff counts
+	 */
+	public void resetStatistics() {
+		cutoffs = 0;
+		firstMoveCutoffs = 0;
+	}
+
+}
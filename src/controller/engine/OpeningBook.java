@@ -0,0 +1,224 @@
+package controller.engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import model.MoveList;
+import model.board.Board;
+import controller.Player;
+
+/**
+ * Opening book read from a memory mapped file. The file is a header followed by
+ * fixed width records sorted by position key (see {@link Board#positionKey()}),
+ * so the moves of a position are found by a binary search of the mapped file,
+ * without reading the book into the heap. Books are written by
+ * {@link OpeningBookBuilder}.
+ *
+ * File layout, big endian:
+ *
+ * <pre>
+ * header   int magic, int version, long record count
+ * record   long position key, int packed move, short weight, short learn
+ * </pre>
+ *
+ * Records with the same key are adjacent. The weight is how often the move was
+ * played, the learn value is the number of games the move's side went on to win
+ * less the number it lost.
+ *
+ */
+public class OpeningBook {
+
+	public final static int MAGIC = 0x3DCB0001;
+	public final static int VERSION = 1;
+
+	public final static int HEADER_BYTES = 16;
+	public final static int RECORD_BYTES = 16;
+
+	private final MappedByteBuffer buffer;
+	private final int records;
+
+	private Random random;
+
+	/**
+	 * @param _buffer the mapped book
+	 * @throws IOException if the buffer isn't a book
+	 */
+	private OpeningBook(MappedByteBuffer _buffer) throws IOException {
+		buffer = _buffer;
+		if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION)
+			throw new IOException("Not an opening book");
+
+		long count = buffer.getLong(8);
+		if (count < 0 || HEADER_BYTES + count * RECORD_BYTES > buffer.capacity())
+			throw new IOException("Opening book is truncated");
+
+		records = (int) count;
+		random = new Random();
+	}
+
+	/**
+	 * Maps the book file read only
+	 *
+	 * @param file
+	 * @return the book
+	 * @throws IOException if the file can't be read or isn't a book
+	 */
+	public static OpeningBook open(Path file) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			return new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		} finally {
+			channel.close(); //the mapping stays valid
+		}
+	}
+
+	/**
+	 * @return the index of the first record of the key, or -1 if the book
+	 *  doesn't have the position
+	 */
+	private int find(long key) {
+		int low = 0;
+		int high = records - 1;
+		int found = -1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			long midKey = getKey(mid);
+			if (midKey < key) {
+				low = mid + 1;
+			} else {
+				if (midKey == key)
+					found = mid;
+				high = mid - 1;
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Chooses one of the book moves of the position at random, moves
+	 * played more often are chosen more often
+	 *
+	 * @param key position key
+	 * @return a packed move, Search.NO_MOVE if the book doesn't have the position
+	 */
+	public int probe(long key) {
+		int first = find(key);
+		if (first < 0)
+			return Search.NO_MOVE;
+
+		int total = 0;
+		for (int i = first;i < records && getKey(i) == key;i ++)
+			total += getWeight(i);
+		if (total == 0)
+			return getMove(first);
+
+		int pick = random.nextInt(total);
+		for (int i = first;;i ++) {
+			pick -= getWeight(i);
+			if (pick < 0)
+				return getMove(i);
+		}
+	}
+
+	/**
+	 * Chooses a book move of the position that is valid for the mover,
+	 * so a key collision never plays an illegal move
+	 *
+	 * @param board
+	 * @param mover the player to move
+	 * @return a packed move, Search.NO_MOVE if the book has no valid move
+	 */
+	public int probe(Board board, Player mover) {
+		int move = probe(board.positionKey());
+		if (move == Search.NO_MOVE)
+			return Search.NO_MOVE;
+
+		MoveList moves = new MoveList();
+		board.getAllMoves(mover, moves);
+		return moves.contains(move) ? move : Search.NO_MOVE;
+	}
+
+	/**
+	 * @param key position key
+	 * @return the number of book moves of the position
+	 */
+	public int getMoveCount(long key) {
+		int first = find(key);
+		if (first < 0)
+			return 0;
+
+		int count = 0;
+		for (int i = first;i < records && getKey(i) == key;i ++)
+			count ++;
+
+		return count;
+	}
+
+	/**
+	 * @param key position key
+	 * @param move packed move
+	 * @return the record of the move in the position, -1 if it isn't in the book
+	 */
+	public int findRecord(long key, int move) {
+		int first = find(key);
+		if (first < 0)
+			return -1;
+
+		for (int i = first;i < records && getKey(i) == key;i ++)
+			if (getMove(i) == move)
+				return i;
+
+		return -1;
+	}
+
+	private int offset(int record) {
+		return HEADER_BYTES + record * RECORD_BYTES;
+	}
+
+	public long getKey(int record) {
+		return buffer.getLong(offset(record));
+	}
+
+	public int getMove(int record) {
+		return buffer.getInt(offset(record) + 8);
+	}
+
+	public int getWeight(int record) {
+		return buffer.getShort(offset(record) + 12) & 0xFFFF;
+	}
+
+	public int getLearn(int record) {
+		return buffer.getShort(offset(record) + 14);
+	}
+
+	/**
+	 * @return the number of records in the book
+	 */
+	public int getRecords() {
+		return records;
+	}
+
+	/**
+	 * @param _random random used to choose between the moves of a position,
+	 *  a seeded random makes the choices repeatable
+	 */
+	public void setRandom(Random _random) {
+		random = _random;
+	}
+
+	/**
+	 * Writes a record, used by {@link OpeningBookBuilder}
+	 */
+	static void putRecord(ByteBuffer out, long key, int move, int weight, int learn) {
+		out.putLong(key);
+		out.putInt(move);
+		out.putShort((short) Math.min(weight, 0xFFFF));
+		out.putShort((short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, learn)));
+	}
+
+}
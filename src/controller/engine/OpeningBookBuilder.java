@@ -0,0 +1,222 @@
+package controller.engine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import model.ChessMove;
+import model.Move;
+import model.MoveList;
+import model.board.Board;
+import model.game_modes.StandardGame;
+import controller.Player;
+
+/**
+ * Builds an {@link OpeningBook} from game records of StandardGame games. Each
+ * game is replayed from the starting position, and every move of the first
+ * maxPly plies is counted in the position it was played from.
+ *
+ * A game record is one line of moves in coordinate notation, the file letter and
+ * rank number of the square moved from and the square moved to, eg "d2d4". Files
+ * a-h are the board's x 0-7 and ranks 1-8 its y 0-7, so the first player's king
+ * starts on d1. The line may end with the result, "1-0", "0-1" or "1/2-1/2",
+ * lines starting with # are ignored. A game is only counted up to its first
+ * move that isn't valid.
+ *
+ * Usage: java controller.engine.OpeningBookBuilder games.txt book.bin [maxPly]
+ *
+ */
+public class OpeningBookBuilder {
+
+	/**
+	 * Plies counted from each game when no limit is given
+	 */
+	public final static int DEFAULT_MAX_PLY = 20;
+
+	private int maxPly;
+
+	/**
+	 * Counts of each move, by position key then packed move
+	 */
+	private TreeMap<Long, Map<Integer, int[]>> positions;
+
+	private int games;
+
+	public OpeningBookBuilder() {
+		this(DEFAULT_MAX_PLY);
+	}
+
+	/**
+	 * @param _maxPly number of plies counted from each game
+	 */
+	public OpeningBookBuilder(int _maxPly) {
+		maxPly = _maxPly;
+		positions = new TreeMap<Long, Map<Integer, int[]>>();
+	}
+
+	/**
+	 * Replays a game record and counts its moves
+	 *
+	 * @param record moves in coordinate notation, optionally followed by the result
+	 * @return the number of moves counted
+	 */
+	public int addGame(String record) {
+		String line = record.trim();
+		if (line.isEmpty() || line.startsWith("#"))
+			return 0;
+
+		String[] tokens = line.split("\\s+");
+		//learn value of the first player's moves, the second player's are negated
+		int result = 0;
+		String last = tokens[tokens.length - 1];
+		int moveCount = tokens.length;
+		if (last.equals("1-0") || last.equals("0-1") || last.equals("1/2-1/2")) {
+			result = last.equals("1-0") ? 1 : last.equals("0-1") ? -1 : 0;
+			moveCount --;
+		}
+
+		Player player1 = new Player(1, false, null);
+		Player player2 = new Player(-1, false, null);
+		player1.setOtherPlayer(player2);
+		player2.setOtherPlayer(player1);
+		Board board = new StandardGame(false).initPieces(player1, player2);
+		Player mover = player1;
+		MoveList moves = new MoveList();
+
+		int counted = 0;
+		for (int ply = 0;ply < moveCount && ply < maxPly;ply ++) {
+			int move = parseMove(board, tokens[ply]);
+			moves.clear();
+			board.getAllMoves(mover, moves);
+			if (move == Search.NO_MOVE || !moves.contains(move))
+				break;
+
+			count(board.positionKey(), move, (mover == player1) ? result : -result);
+			new ChessMove(board, move).executeMove(false);
+			mover = mover.getOtherPlayer();
+			counted ++;
+		}
+		games ++;
+		return counted;
+	}
+
+	/**
+	 * @return the packed move for the coordinate notation, NO_MOVE if it
+	 *  isn't a move of a piece on the board
+	 */
+	private static int parseMove(Board board, String text) {
+		if (text.length() != 4)
+			return Search.NO_MOVE;
+
+		int xs = text.charAt(0) - 'a';
+		int ys = text.charAt(1) - '1';
+		int xe = text.charAt(2) - 'a';
+		int ye = text.charAt(3) - '1';
+		if (!board.isInBounds(xs, ys) || !board.isInBounds(xe, ye) || board.getTile(xs, ys) == null)
+			return Search.NO_MOVE;
+
+		return Move.create(board, board.getSquare(xs, ys), board.getSquare(xe, ye));
+	}
+
+	private void count(long key, int move, int learn) {
+		Map<Integer, int[]> moves = positions.get(key);
+		if (moves == null) {
+			moves = new HashMap<Integer, int[]>();
+			positions.put(key, moves);
+		}
+
+		int[] counts = moves.get(move);
+		if (counts == null) {
+			counts = new int[2];
+			moves.put(move, counts);
+		}
+		counts[0] ++;
+		counts[1] += learn;
+	}
+
+	/**
+	 * Adds every game record of the file, one per line
+	 *
+	 * @param file
+	 * @throws IOException
+	 */
+	public void addGames(Path file) throws IOException {
+		BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+		try {
+			String line;
+			while ((line = reader.readLine()) != null)
+				addGame(line);
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Writes the book, with the records sorted by position key
+	 *
+	 * @param file
+	 * @return the number of records written
+	 * @throws IOException
+	 */
+	public int write(Path file) throws IOException {
+		int records = 0;
+		for (Map<Integer, int[]> moves : positions.values())
+			records += moves.size();
+
+		ByteBuffer out = ByteBuffer.allocate(OpeningBook.HEADER_BYTES + records * OpeningBook.RECORD_BYTES);
+		out.putInt(OpeningBook.MAGIC);
+		out.putInt(OpeningBook.VERSION);
+		out.putLong(records);
+		for (Map.Entry<Long, Map<Integer, int[]>> position : positions.entrySet())
+			for (Map.Entry<Integer, int[]> move : position.getValue().entrySet())
+				OpeningBook.putRecord(out, position.getKey(), move.getKey(), move.getValue()[0], move.getValue()[1]);
+
+		out.flip();
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+		try {
+			while (out.hasRemaining())
+				channel.write(out);
+		} finally {
+			channel.close();
+		}
+		return records;
+	}
+
+	/**
+	 * @return the number of games added
+	 */
+	public int getGames() {
+		return games;
+	}
+
+	/**
+	 * @return the number of positions counted
+	 */
+	public int getPositions() {
+		return positions.size();
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.out.println("Usage: java controller.engine.OpeningBookBuilder games.txt book.bin [maxPly]");
+			return;
+		}
+
+		OpeningBookBuilder builder = new OpeningBookBuilder((args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_MAX_PLY);
+		builder.addGames(Paths.get(args[0]));
+		int records = builder.write(Paths.get(args[1]));
+		System.out.println(builder.getGames() + " games, " + builder.getPositions() + " positions, "
+				+ records + " records written to " + args[1]);
+	}
+
+}
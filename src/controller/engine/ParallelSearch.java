@@ -0,0 +1,137 @@
+package controller.engine;
+
+import model.board.Board;
+import controller.Player;
+
+/**
+ * Lazy SMP search. Every worker thread runs its own {@link Search} on its own
+ * copy of the board and players, so the workers share no game state, only the
+ * {@link TranspositionTable}. The workers search the same position, each one
+ * finding the results the others stored in the table, and odd numbered helpers
+ * start one iteration deeper so they fill the table ahead of the main worker.
+ * The move of the main worker is played, and the helpers are stopped when it
+ * finishes.
+ *
+ * The copies are made by the constructor, so it must be called on the thread
+ * that owns the board (ie while the GameLoop is not changing it). search() can
+ * then be run on any thread.
+ *
+ */
+public class ParallelSearch {
+
+	/**
+	 * Number of threads used when none is given, set with -Dchess.searchThreads
+	 */
+	public final static int DEFAULT_THREADS = Integer.getInteger("chess.searchThreads", 
+			Runtime.getRuntime().availableProcessors());
+
+	private Search[] searches;
+	private Player[] movers;
+
+	/**
+	 * @param board board to copy, it is never searched itself
+	 * @param mover the player to move
+	 * @param threads number of worker threads, at least 1
+	 * @param table table shared by the workers
+	 */
+	public ParallelSearch(Board board, Player mover, int threads, TranspositionTable table) {
+		threads = Math.max(1, threads);
+		searches = new Search[threads];
+		movers = new Player[threads];
+		for (int i = 0;i < threads;i ++) {
+			Player player = new Player(mover.getDirection(), mover.getPlayerName());
+			Player opponent = new Player(-mover.getDirection(), mover.getOtherPlayer().getPlayerName());
+			player.setOtherPlayer(opponent);
+			opponent.setOtherPlayer(player);
+			searches[i] = new Search(board.copy(player, opponent), table);
+			searches[i].setDepthOffset(i & 1);
+			movers[i] = player;
+		}
+	}
+
+	/**
+	 * Runs the workers until the main worker reaches a limit, the limits
+	 * apply to each worker
+	 *
+	 * @param limits
+	 * @return the best packed move of the main worker, NO_MOVE if the mover has no moves
+	 */
+	public int search(final SearchLimits limits) {
+		Thread[] helpers = new Thread[searches.length - 1];
+		for (int i = 0;i < helpers.length;i ++) {
+			final int worker = i + 1;
+			helpers[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					searches[worker].search(movers[worker], limits);
+				}
+			}, "ParallelSearch helper " + worker);
+			helpers[i].setDaemon(true);
+			helpers[i].start();
+		}
+
+		int move = searches[0].search(movers[0], limits);
+		for (int i = 1;i < searches.length;i ++)
+			searches[i].stop();
+
+		for (Thread helper : helpers) {
+			try {
+				helper.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		return move;
+	}
+
+	/**
+	 * Stops every worker as soon as possible, can be called from any thread
+	 */
+	public void stop() {
+		for (Search search : searches)
+			search.stop();
+	}
+
+	/**
+	 * @param tablebases endgame tables the workers score positions from, null for none
+	 */
+	public void setTablebases(Tablebases tablebases) {
+		for (Search search : searches)
+			search.setTablebases(tablebases);
+	}
+
+	public boolean isStopped() {
+		return searches[0].isStopped();
+	}
+
+	public int getThreads() {
+		return searches.length;
+	}
+
+	/**
+	 * @return the score of the main worker's move
+	 */
+	public int getBestScore() {
+		return searches[0].getBestScore();
+	}
+
+	/**
+	 * @return the deepest iteration the main worker completed
+	 */
+	public int getCompletedDepth() {
+		return searches[0].getCompletedDepth();
+	}
+
+	/**
+	 * @return the nodes searched by all the workers
+	 */
+	public long getNodes() {
+		long nodes = 0;
+		for (Search search : searches)
+			nodes += search.getNodes();
+
+		return nodes;
+	}
+
+}
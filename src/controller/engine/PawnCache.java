@@ -0,0 +1,204 @@
+package controller.engine;
+
+import model.ChessPiece;
+import model.Move;
+import model.board.Board;
+
+/**
+ * Direct-mapped cache of pawn structure scores, keyed by {@link Board#pawnKey()}.
+ * The pawn structure terms (doubled, isolated and passed pawns) only depend on
+ * where the pawns are, and the pawns rarely move during a search, so each pawn
+ * structure is scored once and then found with a single look up. Along with the
+ * score each entry keeps, for each side, the mask of the files that hold a
+ * passed pawn.
+ *
+ * A cache is owned by one search thread, it is not thread safe.
+ *
+ */
+public class PawnCache {
+
+	/**
+	 * Number of entries of a cache created without a size
+	 */
+	public final static int DEFAULT_ENTRIES = 1 << 12;
+
+	/**
+	 * Penalties for each extra pawn on a file and each pawn without
+	 * friendly pawns on the files next to it
+	 */
+	private final static int DOUBLED_PENALTY = 15;
+	private final static int ISOLATED_PENALTY = 12;
+
+	/**
+	 * Bonus for a passed pawn, for each rank it has advanced
+	 */
+	private final static int PASSED_BONUS = 10;
+
+	private final long[] keys;
+	private final int[] scores;
+	private final long[][] passedFiles;
+	private final boolean[] filled;
+	private final int mask;
+
+	/**
+	 * Entry of the last probe
+	 */
+	private int lastIndex;
+
+	private long probes;
+	private long hits;
+
+	/**
+	 * Pawns counted by file while scoring, by [side][file]
+	 */
+	private int[][] fileCounts;
+
+	/**
+	 * Most and least advanced rank of each side's pawns on each file, by
+	 * [side][file], ranks are counted from the side's own edge
+	 */
+	private int[][] frontRanks;
+	private int[][] rearRanks;
+
+	public PawnCache() {
+		this(DEFAULT_ENTRIES);
+	}
+
+	/**
+	 * @param entries number of entries, rounded down to a power of two
+	 */
+	public PawnCache(int entries) {
+		int size = Integer.highestOneBit(Math.max(1, entries));
+		keys = new long[size];
+		scores = new int[size];
+		passedFiles = new long[2][size];
+		filled = new boolean[size];
+		mask = size - 1;
+	}
+
+	/**
+	 * Returns the pawn structure score of the board, scoring the structure
+	 * only if it isn't in the cache
+	 *
+	 * @param board
+	 * @return the score for the player moving in direction 1, in centipawns
+	 */
+	public int probe(Board board) {
+		probes ++;
+		long key = board.pawnKey();
+		int index = (int) (key ^ (key >>> 32)) & mask;
+		lastIndex = index;
+		if (filled[index] && keys[index] == key) {
+			hits ++;
+			return scores[index];
+		}
+
+		keys[index] = key;
+		scores[index] = score(board, index);
+		filled[index] = true;
+		return scores[index];
+	}
+
+	/**
+	 * @param side 0 for the player moving in direction 1, otherwise 1
+	 * @return the files holding a passed pawn of the side, bit x is set for
+	 *  file x, in the structure of the last probe
+	 */
+	public long getPassedFiles(int side) {
+		return passedFiles[side][lastIndex];
+	}
+
+	/**
+	 * Scores the pawn structure and sets the passed file masks of the entry
+	 */
+	private int score(Board board, int index) {
+		int width = 0;
+		int height = 0;
+		for (int sq = 0;sq < board.getSquareCount();sq ++) {
+			width = Math.max(width, board.getSquareX(sq) + 1);
+			height = Math.max(height, board.getSquareY(sq) + 1);
+		}
+		if (fileCounts == null || fileCounts[0].length < width) {
+			fileCounts = new int[2][width];
+			frontRanks = new int[2][width];
+			rearRanks = new int[2][width];
+		}
+		for (int side = 0;side < 2;side ++) {
+			for (int x = 0;x < width;x ++) {
+				fileCounts[side][x] = 0;
+				frontRanks[side][x] = -1;
+				rearRanks[side][x] = height;
+			}
+		}
+
+		for (int sq = 0;sq < board.getSquareCount();sq ++) {
+			ChessPiece piece = board.getTile(sq);
+			if (piece == null || Move.pieceCode(piece) != Move.PAWN)
+				continue;
+
+			int side = (piece.getPlayer().getDirection() == 1) ? 0 : 1;
+			int x = board.getSquareX(sq);
+			int rank = (side == 0) ? board.getSquareY(sq) : height - 1 - board.getSquareY(sq);
+			fileCounts[side][x] ++;
+			frontRanks[side][x] = Math.max(frontRanks[side][x], rank);
+			rearRanks[side][x] = Math.min(rearRanks[side][x], rank);
+		}
+
+		int[] sideScores = new int[2];
+		for (int side = 0;side < 2;side ++) {
+			int enemy = 1 - side;
+			long passed = 0;
+			for (int x = 0;x < width;x ++) {
+				int count = fileCounts[side][x];
+				if (count == 0)
+					continue;
+
+				if (count > 1)
+					sideScores[side] -= DOUBLED_PENALTY * (count - 1);
+
+				boolean left = x > 0 && fileCounts[side][x - 1] > 0;
+				boolean right = x < width - 1 && fileCounts[side][x + 1] > 0;
+				if (!left && !right)
+					sideScores[side] -= ISOLATED_PENALTY * count;
+
+				//passed if no enemy pawn on this or the next files is in front of the
+				//side's front pawn, the enemy's ranks are counted from the other edge
+				int front = frontRanks[side][x];
+				boolean isPassed = true;
+				for (int f = Math.max(0, x - 1);f <= Math.min(width - 1, x + 1) && isPassed;f ++)
+					if (fileCounts[enemy][f] > 0 && height - 1 - rearRanks[enemy][f] > front)
+						isPassed = false;
+
+				if (isPassed) {
+					sideScores[side] += PASSED_BONUS * front;
+					if (x < 64)
+						passed |= 1L << x;
+				}
+			}
+			passedFiles[side][index] = passed;
+		}
+		return sideScores[0] - sideScores[1];
+	}
+
+	public long getProbes() {
+		return probes;
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return the fraction of probes that found their pawn structure
+	 */
+	public double getHitRate() {
+		return (probes == 0) ? 0 : hits / (double) probes;
+	}
+
+	@Override
+	public String toString() {
+		return "PawnCache " + keys.length + " entries, " + probes + " probes, "
+				+ String.format("%.1f%% hits", getHitRate() * 100);
+	}
+
+}
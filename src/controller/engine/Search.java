@@ -0,0 +1,474 @@
+package controller.engine;
+
+import model.ChessMove;
+import model.Move;
+import model.MoveList;
+import model.PieceList;
+import model.board.Board;
+import model.game_modes.GameMode;
+import model.game_modes.MoveValidator;
+import controller.Player;
+
+/**
+ * Iterative deepening alpha-beta (negamax) search over the Board and GameMode
+ * API. Moves are generated with {@link Board#getAllMoves(Player, MoveList)}, so
+ * the search only plays moves the game mode's boardValid() accepts (for example
+ * the compulsory captures of LosersGameMode). A position without moves is scored
+ * with the game mode's hasPlayerLost(), as a loss or a draw. At the horizon a
+ * quiescence search plays out the captures, skipping those that lose material
+ * by {@link StaticExchange}, so the position is only evaluated once it is quiet.
+ *
+ * Results are kept in a {@link TranspositionTable}, which may be shared with
+ * other searches. The moves of each ply are searched in the order given by
+ * {@link MoveOrdering}, starting with the best move stored in the table.
+ * Positions found in the endgame {@link Tablebases}, if the search is given
+ * any, are scored from the tables without searching them.
+ *
+ * The search walks the board it is given, restoring it after every move, so it
+ * should be given its own copy of the game's board (see {@link Board#copy(Player, Player)}).
+ * It can be stopped from another thread with {@link #stop()}.
+ *
+ */
+public class Search {
+
+	/**
+	 * Returned when there is no move to play
+	 */
+	public final static int NO_MOVE = 0;
+
+	/**
+	 * Score of a won position, mates found sooner score higher
+	 */
+	public final static int MATE = 100000;
+
+	/**
+	 * Deepest ply the search will reach
+	 */
+	public final static int MAX_PLY = 64;
+
+	/**
+	 * Scores at least this far from 0 are mates, found by the search or, up to
+	 * MAX_DTM plies further away, by the tablebases
+	 */
+	private final static int MATE_BOUND = MATE - MAX_PLY - Tablebases.MAX_DTM;
+
+	/**
+	 * The limits are checked every this many nodes
+	 */
+	private final static int CHECK_INTERVAL = 1024;
+
+	/**
+	 * Size of the table a search creates when it isn't given one
+	 */
+	public final static int DEFAULT_TABLE_MB = 4;
+
+	private Board board;
+	private GameMode gameMode;
+	private TranspositionTable table;
+
+	/**
+	 * Move list and ChessMove reused at each ply
+	 */
+	private MoveList[] moveLists;
+	private ChessMove[] plyMoves;
+
+	/**
+	 * The packed move being searched at each ply
+	 */
+	private int[] searchedMoves;
+
+	private MoveOrdering ordering;
+	private StaticExchange exchange;
+	private PawnCache pawnCache;
+	private Tablebases tablebases;
+
+	private long nodes;
+	private long nodeLimit;
+	private long deadline;
+
+	/**
+	 * Set when a limit is reached, the current iteration is abandoned
+	 */
+	private boolean aborted;
+
+	/**
+	 * Set by stop(), from any thread
+	 */
+	private volatile boolean stopped;
+
+	/**
+	 * Added to the depth of the first iteration, so helpers of a
+	 * ParallelSearch don't all search the same depth
+	 */
+	private int depthOffset;
+
+	private int bestMove;
+	private int bestScore;
+	private int completedDepth;
+
+	/**
+	 * Creates a search with its own transposition table
+	 * 
+	 * @param _board board to search, it is restored after each search
+	 */
+	public Search(Board _board) {
+		this(_board, new TranspositionTable(DEFAULT_TABLE_MB));
+	}
+
+	/**
+	 * @param _board board to search, it is restored after each search
+	 * @param _table table to keep results in, may be shared with other searches
+	 */
+	public Search(Board _board, TranspositionTable _table) {
+		board = _board;
+		table = _table;
+		gameMode = board.getGameMode();
+		moveLists = new MoveList[MAX_PLY + 1];
+		plyMoves = new ChessMove[MAX_PLY + 1];
+		searchedMoves = new int[MAX_PLY + 1];
+		ordering = new MoveOrdering(board.getSquareCount(), MAX_PLY);
+		exchange = new StaticExchange(board);
+		pawnCache = new PawnCache();
+		for (int i = 0;i <= MAX_PLY;i ++)
+			moveLists[i] = new MoveList();
+	}
+
+	/**
+	 * Searches the position with iterative deepening until a limit is reached.
+	 * The best move of the deepest completed iteration is returned, or the first
+	 * move if not even the first iteration completed.
+	 *
+	 * @param mover the player to move
+	 * @param limits
+	 * @return the best packed move (see {@link Move}), NO_MOVE if the mover has no moves
+	 */
+	public int search(Player mover, SearchLimits limits) {
+		nodes = 0;
+		nodeLimit = (limits.getNodes() > 0) ? limits.getNodes() : Long.MAX_VALUE;
+		deadline = (limits.getTimeMillis() > 0) ? System.nanoTime() + limits.getTimeMillis() * 1000000 : Long.MAX_VALUE;
+		int maxDepth = (limits.getDepth() > 0) ? Math.min(limits.getDepth(), MAX_PLY) : MAX_PLY;
+		aborted = false;
+		bestMove = NO_MOVE;
+		bestScore = 0;
+		completedDepth = 0;
+		ordering.newSearch();
+
+		MoveList rootMoves = new MoveList();
+		board.getAllMoves(mover, rootMoves);
+		if (rootMoves.isEmpty())
+			return NO_MOVE;
+
+		//order the root moves once, later iterations only move the best move first
+		int tableMove = TranspositionTable.getMove(table.probe(board.positionKey()));
+		ordering.score(rootMoves, 0, mover.getDirection(), tableMove, NO_MOVE);
+		for (int i = 0;i < rootMoves.size();i ++)
+			ordering.next(rootMoves, 0, i);
+
+		bestMove = rootMoves.get(0);
+		for (int depth = Math.min(1 + depthOffset, maxDepth);depth <= maxDepth && !stopped;depth ++) {
+			int score = searchRoot(mover, rootMoves, depth);
+			if (aborted || stopped)
+				break;
+
+			bestScore = score;
+			completedDepth = depth;
+			if (Math.abs(score) >= MATE_BOUND) //found a forced mate
+				break;
+		}
+		return bestMove;
+	}
+
+	/**
+	 * Searches every root move to the depth, the best move of the previous
+	 * iteration is moved to the front, the other moves keep their order
+	 *
+	 * @return the score of the best move
+	 */
+	private int searchRoot(Player mover, MoveList rootMoves, int depth) {
+		for (int i = 0;i < rootMoves.size();i ++) {
+			if (rootMoves.get(i) == bestMove) {
+				for (int j = i;j > 0;j --)
+					rootMoves.swap(j, j - 1);
+				break;
+			}
+		}
+
+		int alpha = -MATE - 1;
+		int iterationBest = NO_MOVE;
+		for (int i = 0;i < rootMoves.size();i ++) {
+			ChessMove move = plyMove(0, rootMoves.get(i));
+			move.executeMove(false);
+			int score = -negamax(mover.getOtherPlayer(), depth - 1, 1, -MATE - 1, -alpha);
+			move.undoMove();
+			if (aborted || stopped)
+				return alpha;
+
+			if (score > alpha) {
+				alpha = score;
+				iterationBest = rootMoves.get(i);
+			}
+		}
+
+		bestMove = iterationBest;
+		return alpha;
+	}
+
+	private int negamax(Player mover, int depth, int ply, int alpha, int beta) {
+		if (++ nodes % CHECK_INTERVAL == 0)
+			checkLimits();
+		if (aborted || stopped)
+			return 0;
+
+		if (tablebases != null && mover.getPieces().size() + mover.getOtherPlayer().getPieces().size() <= 3) {
+			int result = tablebases.probe(board, mover);
+			if (result != Tablebases.UNKNOWN)
+				return tablebaseScore(result, ply);
+		}
+
+		if (depth <= 0 || ply >= MAX_PLY)
+			return quiesce(mover, ply, alpha, beta);
+
+		long key = board.positionKey();
+		long entry = table.probe(key);
+		int tableMove = TranspositionTable.getMove(entry);
+		if (entry != 0 && TranspositionTable.getDepth(entry) >= depth) {
+			int score = fromTable(TranspositionTable.getScore(entry), ply);
+			int bound = TranspositionTable.getBound(entry);
+			if (bound == TranspositionTable.EXACT
+					|| (bound == TranspositionTable.LOWER && score >= beta)
+					|| (bound == TranspositionTable.UPPER && score <= alpha))
+				return score;
+		}
+
+		MoveList moves = moveLists[ply];
+		moves.clear();
+		board.getAllMoves(mover, moves);
+		if (moves.isEmpty())
+			return gameMode.hasPlayerLost(board, mover) ? -MATE + ply : 0;
+
+		int previous = searchedMoves[ply - 1];
+		ordering.score(moves, ply, mover.getDirection(), tableMove, previous);
+
+		int startAlpha = alpha;
+		int best = NO_MOVE;
+		for (int i = 0;i < moves.size();i ++) {
+			int packed = ordering.next(moves, ply, i);
+			ChessMove move = plyMove(ply, packed);
+			move.executeMove(false);
+			int score = -negamax(mover.getOtherPlayer(), depth - 1, ply + 1, -beta, -alpha);
+			move.undoMove();
+			if (aborted || stopped)
+				return 0;
+
+			if (score >= beta) {
+				ordering.cutoff(packed, ply, mover.getDirection(), depth, previous, i);
+				table.store(key, packed, toTable(beta, ply), depth, TranspositionTable.LOWER);
+				return beta;
+			}
+			if (score > alpha) {
+				alpha = score;
+				best = packed;
+			}
+		}
+		table.store(key, best, toTable(alpha, ply), depth, 
+				(alpha > startAlpha) ? TranspositionTable.EXACT : TranspositionTable.UPPER);
+		return alpha;
+	}
+
+	/**
+	 * Searches the captures until the position is quiet. The mover may stand
+	 * pat (take the evaluation instead of capturing), unless captures are
+	 * compulsory and the mover has one, or running out of moves would lose
+	 * (ie the mover is in check) in which case every move is searched.
+	 */
+	private int quiesce(Player mover, int ply, int alpha, int beta) {
+		if (++ nodes % CHECK_INTERVAL == 0)
+			checkLimits();
+		if (aborted || stopped)
+			return 0;
+
+		if (ply >= MAX_PLY)
+			return evaluate(mover);
+
+		MoveList moves = moveLists[ply];
+		moves.clear();
+		boolean mustMove = gameMode.hasPlayerLost(board, mover);
+		if (mustMove) {
+			board.getAllMoves(mover, moves);
+			if (moves.isEmpty())
+				return -MATE + ply;
+		} else {
+			addValidCaptures(mover, moves);
+			mustMove = !moves.isEmpty() && gameMode.capturesCompulsory();
+		}
+
+		if (!mustMove) {
+			int standPat = evaluate(mover);
+			if (standPat >= beta)
+				return beta;
+			if (standPat > alpha)
+				alpha = standPat;
+		}
+
+		int previous = searchedMoves[ply - 1];
+		ordering.score(moves, ply, mover.getDirection(), NO_MOVE, previous);
+		for (int i = 0;i < moves.size();i ++) {
+			int packed = ordering.next(moves, ply, i);
+			//a losing capture can be declined, by standing pat
+			if (!mustMove && exchange.evaluate(packed) < 0)
+				continue;
+
+			ChessMove move = plyMove(ply, packed);
+			move.executeMove(false);
+			int score = -quiesce(mover.getOtherPlayer(), ply + 1, -beta, -alpha);
+			move.undoMove();
+			if (aborted || stopped)
+				return 0;
+
+			if (score >= beta)
+				return beta;
+			if (score > alpha)
+				alpha = score;
+		}
+		return alpha;
+	}
+
+	/**
+	 * Adds the mover's captures that are valid in the game mode
+	 */
+	private void addValidCaptures(Player mover, MoveList moves) {
+		MoveValidator validator = board.getMoveValidator(mover);
+		PieceList pieces = mover.getPieces();
+		for (int i = 0;i < pieces.size();i ++)
+			pieces.get(i).addCaptureMoves(moves);
+
+		int count = 0;
+		for (int i = 0;i < moves.size();i ++)
+			if (validator.isValidMove(moves.get(i)))
+				moves.set(count ++, moves.get(i));
+
+		moves.truncate(count);
+	}
+
+	/**
+	 * Mate scores are stored relative to the position, not the root
+	 */
+	private static int toTable(int score, int ply) {
+		if (score >= MATE_BOUND)
+			return score + ply;
+		if (score <= -MATE_BOUND)
+			return score - ply;
+
+		return score;
+	}
+
+	private static int fromTable(int score, int ply) {
+		if (score >= MATE_BOUND)
+			return score - ply;
+		if (score <= -MATE_BOUND)
+			return score + ply;
+
+		return score;
+	}
+
+	/**
+	 * @return the ChessMove of the ply, reinitialized to the packed move
+	 */
+	private ChessMove plyMove(int ply, int packed) {
+		searchedMoves[ply] = packed;
+		ChessMove move = plyMoves[ply];
+		if (move == null)
+			plyMoves[ply] = move = new ChessMove(board, packed);
+		else
+			move.setMove(board, packed);
+
+		return move;
+	}
+
+	/**
+	 * @return the board's incremental evaluation plus the cached pawn structure
+	 *  score, from the mover's point of view
+	 */
+	private int evaluate(Player mover) {
+		int pawns = pawnCache.probe(board);
+		return board.evaluate(mover) + ((mover.getDirection() == 1) ? pawns : -pawns);
+	}
+
+	private void checkLimits() {
+		if (nodes >= nodeLimit || System.nanoTime() >= deadline)
+			aborted = true;
+	}
+
+	/**
+	 * @return the score of a tablebase result, mates are scored from
+	 *  the ply the mover is mated or mates on
+	 */
+	private static int tablebaseScore(int result, int ply) {
+		switch (Tablebases.getWdl(result)) {
+		case Tablebases.WIN: return MATE - ply - Tablebases.getDtm(result);
+		case Tablebases.LOSS: return -MATE + ply + Tablebases.getDtm(result);
+		default: return 0;
+		}
+	}
+
+	/**
+	 * @param offset number of iterations to skip at the start of each search
+	 */
+	void setDepthOffset(int offset) {
+		depthOffset = offset;
+	}
+
+	/**
+	 * Stops the search as soon as possible, can be called from any thread.
+	 * A stopped search returns the best move found so far.
+	 */
+	public void stop() {
+		stopped = true;
+	}
+
+	public boolean isStopped() {
+		return stopped;
+	}
+
+	public int getBestMove() {
+		return bestMove;
+	}
+
+	/**
+	 * @return the score of the best move from the mover's point of view
+	 */
+	public int getBestScore() {
+		return bestScore;
+	}
+
+	/**
+	 * @return the depth of the deepest iteration that was completed
+	 */
+	public int getCompletedDepth() {
+		return completedDepth;
+	}
+
+	public MoveOrdering getOrdering() {
+		return ordering;
+	}
+
+	public PawnCache getPawnCache() {
+		return pawnCache;
+	}
+
+	/**
+	 * @param _tablebases endgame tables to score positions from, null for none
+	 */
+	public void setTablebases(Tablebases _tablebases) {
+		tablebases = _tablebases;
+	}
+
+	public TranspositionTable getTable() {
+		return table;
+	}
+
+	public long getNodes() {
+		return nodes;
+	}
+
+}
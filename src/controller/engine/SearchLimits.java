@@ -0,0 +1,53 @@
+package controller.engine;
+
+/**
+ * Budget of a search. The search stops at whichever limit is reached first,
+ * a limit of 0 means that limit is not used.
+ *
+ */
+public class SearchLimits {
+
+	private long timeMillis;
+	private long nodes;
+	private int depth;
+
+	/**
+	 * @param _timeMillis the longest the search may run, in milliseconds
+	 * @param _nodes the most nodes the search may visit
+	 * @param _depth the deepest iteration the search will complete
+	 */
+	public SearchLimits(long _timeMillis, long _nodes, int _depth) {
+		timeMillis = _timeMillis;
+		nodes = _nodes;
+		depth = _depth;
+	}
+
+	/**
+	 * @param _timeMillis the longest the search may run, in milliseconds
+	 * @return limits that only limit the time of the search
+	 */
+	public static SearchLimits time(long _timeMillis) {
+		return new SearchLimits(_timeMillis, 0, 0);
+	}
+
+	/**
+	 * @param _depth the deepest iteration the search will complete
+	 * @return limits that only limit the depth of the search
+	 */
+	public static SearchLimits depth(int _depth) {
+		return new SearchLimits(0, 0, _depth);
+	}
+
+	public long getTimeMillis() {
+		return timeMillis;
+	}
+
+	public long getNodes() {
+		return nodes;
+	}
+
+	public int getDepth() {
+		return depth;
+	}
+
+}
@@ -0,0 +1,166 @@
+package controller.engine;
+
+import model.ChessPiece;
+import model.PieceType;
+import model.Move;
+import model.board.Board;
+import model.board.MoveTables;
+import controller.Player;
+
+/**
+ * Static exchange evaluation (SEE). Resolves the exchange a capture starts on
+ * its target square, assuming both players keep recapturing with their least
+ * valuable attacker for as long as it gains material, and returns the material
+ * the capture wins (or loses) for the mover. No move is made, the attackers are
+ * found by walking the board's move tables outward from the target square, the
+ * same way {@link Board#isSquareAttacked(int, Player)} does, skipping the pieces
+ * that have already captured so the pieces behind them join in.
+ *
+ * Pins and checks are ignored, so the result is an estimate, but it is exact
+ * for the common exchanges and is used to skip captures that lose material.
+ *
+ */
+public class StaticExchange {
+
+	/**
+	 * Value of a king in an exchange, a king may only capture last
+	 */
+	private final static int KING_VALUE = 20000;
+
+	private Board board;
+
+	/**
+	 * Squares whose piece has captured in the current exchange, a square
+	 * is removed if its entry is equal to the stamp
+	 */
+	private int[] removed;
+	private int stamp;
+
+	/**
+	 * Material balance after each capture of the exchange
+	 */
+	private int[] gain;
+
+	public StaticExchange(Board _board) {
+		board = _board;
+		removed = new int[board.getSquareCount()];
+		gain = new int[board.getSquareCount() + 1];
+	}
+
+	/**
+	 * @param move packed capture, see {@link Move}
+	 * @return the material the mover wins with the exchange, negative if the
+	 *  capture loses material
+	 */
+	public int evaluate(int move) {
+		int from = Move.getFrom(move);
+		int to = Move.getTo(move);
+		Player side = board.getTile(from).getPlayer().getOtherPlayer();
+		if (++ stamp == 0) {
+			for (int i = 0;i < removed.length;i ++)
+				removed[i] = 0;
+			stamp = 1;
+		}
+		removed[from] = stamp;
+
+		gain[0] = value(Move.getCaptured(move));
+		int attackerValue = value(Move.getPiece(move));
+		int d = 0;
+		while (true) {
+			int attacker = leastValuableAttacker(to, side);
+			if (attacker < 0)
+				break;
+
+			d ++;
+			gain[d] = attackerValue - gain[d - 1];
+			//neither side gains by continuing
+			if (Math.max(-gain[d - 1], gain[d]) < 0)
+				break;
+
+			attackerValue = value(Move.pieceCode(board.getTile(attacker)));
+			removed[attacker] = stamp;
+			side = side.getOtherPlayer();
+		}
+
+		//each side may stop recapturing when it would lose material
+		while (d > 0) {
+			gain[d - 1] = -Math.max(-gain[d - 1], gain[d]);
+			d --;
+		}
+		return gain[0];
+	}
+
+	private static int value(int pieceCode) {
+		return (pieceCode == Move.KING) ? KING_VALUE : PieceType.fromCode(pieceCode).getValue();
+	}
+
+	/**
+	 * @return the square of the side's least valuable piece that can capture
+	 *  on square, -1 if there is none
+	 */
+	private int leastValuableAttacker(int square, Player side) {
+		MoveTables tables = board.getMoveTables();
+		int best = -1;
+		int bestValue = Integer.MAX_VALUE;
+
+		int pawnDirection = -side.getDirection();
+		for (int i = tables.getPawnAttackStart(square, pawnDirection);tables.getPawnAttackSquare(i) >= 0;i ++) {
+			int sq = tables.getPawnAttackSquare(i);
+			ChessPiece piece = board.getTile(sq);
+			if (piece != null && removed[sq] != stamp && piece.getPlayer() == side && piece.getPieceType() == PieceType.PAWN)
+				return sq; //nothing is cheaper than a pawn
+		}
+
+		for (int i = tables.getKnightStart(square);tables.getKnightSquare(i) >= 0;i ++) {
+			int sq = tables.getKnightSquare(i);
+			ChessPiece piece = board.getTile(sq);
+			if (piece != null && removed[sq] != stamp && piece.getPlayer() == side && piece.capturesByKnightJump()) {
+				int value = value(Move.pieceCode(piece));
+				if (value < bestValue) {
+					best = sq;
+					bestValue = value;
+				}
+			}
+		}
+
+		for (int dir = 0;dir < tables.getRankFileDirections();dir ++) {
+			int sq = lineAttacker(tables.getRankFileStart(square, dir), true, side);
+			if (sq >= 0 && value(Move.pieceCode(board.getTile(sq))) < bestValue) {
+				best = sq;
+				bestValue = value(Move.pieceCode(board.getTile(sq)));
+			}
+		}
+
+		for (int dir = 0;dir < tables.getDiagonalDirections();dir ++) {
+			int sq = lineAttacker(tables.getDiagonalStart(square, dir), false, side);
+			if (sq >= 0 && value(Move.pieceCode(board.getTile(sq))) < bestValue) {
+				best = sq;
+				bestValue = value(Move.pieceCode(board.getTile(sq)));
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * @param start index of the first square of the ray in the move tables
+	 * @return the square of the first piece along the ray that hasn't captured,
+	 *  if it is the side's piece and captures along the line, otherwise -1
+	 */
+	private int lineAttacker(int start, boolean rankFile, Player side) {
+		MoveTables tables = board.getMoveTables();
+		for (int i = start;;i ++) {
+			int sq = rankFile ? tables.getRankFileSquare(i) : tables.getDiagonalSquare(i);
+			if (sq < 0)
+				return -1;
+
+			ChessPiece piece = board.getTile(sq);
+			if (piece != null && removed[sq] != stamp) {
+				if (piece.getPlayer() == side && piece.capturesAlongLine(rankFile, i - start + 1))
+					return sq;
+
+				return -1;
+			}
+		}
+	}
+
+}
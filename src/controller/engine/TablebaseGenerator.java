@@ -0,0 +1,427 @@
+package controller.engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import model.ChessPiece;
+import model.PieceType;
+import model.Move;
+import model.MoveList;
+import model.board.Board;
+import model.board.RectangularBoard;
+import model.game_modes.StandardGame;
+import model.pieces.Chancellor;
+import model.pieces.King;
+import model.pieces.LameQueen;
+import model.pieces.Pawn;
+import model.pieces.Queen;
+import model.pieces.Rook;
+import controller.Player;
+
+/**
+ * Generates the endgame tables of a king and one piece against a lone king on the
+ * regulation board, under the StandardGame rules. Every position is set up on a
+ * RectangularBoard and its moves are generated by the board, so the tables follow
+ * the same rules as the game (pawns are not promoted, so most KPK positions are
+ * draws).
+ *
+ * The generator first lists the successors of every position, in parallel. The
+ * tables are then solved by retrograde analysis from the checkmates, one sweep
+ * of all the positions per ply of distance to mate: sweep n finds the positions
+ * won in n plies (odd n), that have a move to a position lost in n - 1, or lost
+ * in n plies (even n), where every move leads to a won position. Each sweep is
+ * split across a ForkJoinPool. The analysis stops at the first sweep that finds
+ * nothing, the positions left are draws.
+ *
+ * A position index is ((sideToMove * 64 + strongKing) * 64 + piece) * 64 + weakKing,
+ * the strong side moves in direction 1 and sideToMove is 0 when it is to move.
+ * The tables are written as a WDL file, 2 bits a position, and a DTM file, one
+ * byte of plies to mate a position, see {@link Tablebases}.
+ *
+ * Usage: java controller.engine.TablebaseGenerator outputDir [KQK KRK KPK KCK KLK]
+ *
+ */
+public class TablebaseGenerator {
+
+	/**
+	 * Piece codes of the strong side's extra piece that tables can be generated for
+	 */
+	public final static int[] PIECES = { Move.QUEEN, Move.ROOK, Move.PAWN, Move.CHANCELLOR, Move.LAME_QUEEN };
+
+	public final static int SQUARES = 64;
+	public final static int POSITIONS = 2 * SQUARES * SQUARES * SQUARES;
+
+	/**
+	 * Successor of a move that leaves a draw by material, ie a capture
+	 */
+	private final static int DRAWN = -1;
+
+	/**
+	 * Positions given to each task of a pass
+	 */
+	private final static int CHUNK = 4096;
+
+	private final int piece;
+	private final ForkJoinPool pool;
+
+	/**
+	 * Results by position index, see {@link Tablebases} for the values
+	 */
+	private byte[] wdl;
+	private byte[] dtm;
+
+	/**
+	 * Successors of each position, the successors of position i are
+	 * successors[offsets[i]] to successors[offsets[i + 1] - 1]
+	 */
+	private int[] offsets;
+	private int[] successors;
+
+	private int sweeps;
+
+	/**
+	 * @param _piece code of the strong side's extra piece, one of PIECES
+	 * @param _pool pool the passes are split across
+	 */
+	public TablebaseGenerator(int _piece, ForkJoinPool _pool) {
+		piece = _piece;
+		pool = _pool;
+	}
+
+	/**
+	 * @param piece piece code
+	 * @return the name of the table, eg KQK
+	 */
+	public static String getName(int piece) {
+		switch (piece) {
+		case Move.QUEEN: return "KQK";
+		case Move.ROOK: return "KRK";
+		case Move.PAWN: return "KPK";
+		case Move.CHANCELLOR: return "KCK";
+		case Move.LAME_QUEEN: return "KLK";
+		default: throw new IllegalArgumentException("No table for piece code " + piece);
+		}
+	}
+
+	public static int index(int sideToMove, int strongKing, int extra, int weakKing) {
+		return ((sideToMove * SQUARES + strongKing) * SQUARES + extra) * SQUARES + weakKing;
+	}
+
+	/**
+	 * Generates the tables
+	 */
+	public void generate() {
+		wdl = new byte[POSITIONS];
+		dtm = new byte[POSITIONS];
+		listSuccessors();
+
+		sweeps = 0;
+		for (int plies = 1;plies < 256;plies ++) {
+			sweeps ++;
+			if (pool.invoke(new SweepTask(0, POSITIONS, plies)) == 0)
+				break;
+		}
+		offsets = null;
+		successors = null;
+	}
+
+	/**
+	 * Sets up every position, marks the invalid ones and the ones already
+	 * decided, and lists the successors of the others
+	 */
+	private void listSuccessors() {
+		List<ListTask> tasks = new ArrayList<ListTask>();
+		for (int start = 0;start < POSITIONS;start += CHUNK)
+			tasks.add(new ListTask(start, Math.min(POSITIONS, start + CHUNK)));
+		for (ListTask task : tasks)
+			pool.execute(task);
+
+		offsets = new int[POSITIONS + 1];
+		int total = 0;
+		for (ListTask task : tasks) {
+			task.join();
+			total += task.moves.size();
+		}
+
+		successors = new int[total];
+		int next = 0;
+		for (ListTask task : tasks) {
+			for (int i = 0;i < task.end - task.start;i ++)
+				offsets[task.start + i] = next + task.counts[i];
+			for (int i = 0;i < task.moves.size();i ++)
+				successors[next ++] = task.moves.get(i);
+		}
+		offsets[POSITIONS] = next;
+	}
+
+	/**
+	 * Lists the successors of a range of positions on its own board
+	 */
+	private class ListTask extends RecursiveTask<Void> {
+
+		private static final long serialVersionUID = 1L;
+
+		final int start;
+		final int end;
+
+		/**
+		 * Offset of each position's successors in moves
+		 */
+		final int[] counts;
+		final MoveList moves = new MoveList(CHUNK * 8);
+
+		ListTask(int _start, int _end) {
+			start = _start;
+			end = _end;
+			counts = new int[end - start];
+		}
+
+		@Override
+		protected Void compute() {
+			Player strong = new Player(1, "Strong");
+			Player weak = new Player(-1, "Weak");
+			strong.setOtherPlayer(weak);
+			weak.setOtherPlayer(strong);
+			MoveList legal = new MoveList();
+
+			for (int index = start;index < end;index ++) {
+				counts[index - start] = moves.size();
+				int weakKing = index % SQUARES;
+				int extra = (index / SQUARES) % SQUARES;
+				int strongKing = (index / (SQUARES * SQUARES)) % SQUARES;
+				int sideToMove = index / (SQUARES * SQUARES * SQUARES);
+				if (strongKing == extra || strongKing == weakKing || extra == weakKing) {
+					wdl[index] = Tablebases.INVALID;
+					continue;
+				}
+
+				strong.reset();
+				weak.reset();
+				Board board = new RectangularBoard(new StandardGame(false));
+				new King(strongKing % 8, strongKing / 8, board, strong);
+				ChessPiece extraPiece = createPiece(extra % 8, extra / 8, board, strong);
+				new King(weakKing % 8, weakKing / 8, board, weak);
+				if (extraPiece.getPieceType() == PieceType.PAWN)
+					extraPiece.setHasMoved(extra / 8 != 1);
+
+				Player mover = (sideToMove == 0) ? strong : weak;
+				Player other = mover.getOtherPlayer();
+				if (board.isSquareAttacked(other.getKing().getSquare(), mover)) {
+					wdl[index] = Tablebases.INVALID;
+					continue;
+				}
+
+				legal.clear();
+				board.getAllMoves(mover, legal);
+				if (legal.isEmpty()) {
+					if (board.getGameMode().hasPlayerLost(board, mover))
+						wdl[index] = Tablebases.LOSS; //mated, 0 plies to mate
+					continue; //stalemate is a draw
+				}
+
+				for (int i = 0;i < legal.size();i ++) {
+					int move = legal.get(i);
+					if (Move.isCapture(move)) {
+						moves.add(DRAWN);
+						continue;
+					}
+
+					int from = Move.getFrom(move);
+					int to = Move.getTo(move);
+					moves.add(index(1 - sideToMove, (from == strongKing) ? to : strongKing,
+							(from == extra) ? to : extra, (from == weakKing) ? to : weakKing));
+				}
+			}
+			return null;
+		}
+
+	}
+
+	/**
+	 * Creates the strong side's extra piece
+	 */
+	private ChessPiece createPiece(int x, int y, Board board, Player player) {
+		switch (piece) {
+		case Move.QUEEN: return new Queen(x, y, board, player);
+		case Move.ROOK: return new Rook(x, y, board, player);
+		case Move.PAWN: return new Pawn(x, y, board, player);
+		case Move.CHANCELLOR: return new Chancellor(x, y, board, player);
+		case Move.LAME_QUEEN: return new LameQueen(x, y, board, player);
+		default: throw new IllegalArgumentException("No table for piece code " + piece);
+		}
+	}
+
+	/**
+	 * Finds the positions decided in the given number of plies, splitting
+	 * the range until it is a chunk
+	 */
+	private class SweepTask extends RecursiveTask<Integer> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int start;
+		private final int end;
+		private final int plies;
+
+		SweepTask(int _start, int _end, int _plies) {
+			start = _start;
+			end = _end;
+			plies = _plies;
+		}
+
+		@Override
+		protected Integer compute() {
+			if (end - start > CHUNK) {
+				int mid = (start + end) >>> 1;
+				SweepTask left = new SweepTask(start, mid, plies);
+				left.fork();
+				int found = new SweepTask(mid, end, plies).compute();
+				return found + left.join();
+			}
+
+			//positions decided in this sweep are only ever read as decided in
+			//fewer plies by the other positions of the sweep, so they can be
+			//written in place
+			boolean wins = (plies & 1) == 1;
+			int found = 0;
+			for (int index = start;index < end;index ++) {
+				if (wdl[index] != Tablebases.DRAW || offsets[index] == offsets[index + 1])
+					continue;
+
+				if (wins ? hasMoveToLoss(index, plies - 1) : allMovesWin(index, plies)) {
+					wdl[index] = (byte) (wins ? Tablebases.WIN : Tablebases.LOSS);
+					dtm[index] = (byte) plies;
+					found ++;
+				}
+			}
+			return found;
+		}
+
+		private boolean hasMoveToLoss(int index, int lossPlies) {
+			for (int i = offsets[index];i < offsets[index + 1];i ++) {
+				int next = successors[i];
+				if (next != DRAWN && wdl[next] == Tablebases.LOSS && (dtm[next] & 0xFF) == lossPlies)
+					return true;
+			}
+			return false;
+		}
+
+		private boolean allMovesWin(int index, int plies) {
+			for (int i = offsets[index];i < offsets[index + 1];i ++) {
+				int next = successors[i];
+				if (next == DRAWN || wdl[next] != Tablebases.WIN || (dtm[next] & 0xFF) >= plies)
+					return false;
+			}
+			return true;
+		}
+
+	}
+
+	/**
+	 * Writes the WDL and DTM files of the tables to the directory
+	 *
+	 * @param directory
+	 * @throws IOException
+	 */
+	public void write(Path directory) throws IOException {
+		String name = getName(piece);
+		ByteBuffer wdlOut = header(Tablebases.WDL_MAGIC, (POSITIONS + 3) / 4);
+		for (int i = 0;i < POSITIONS;i += 4) {
+			int packed = 0;
+			for (int j = 0;j < 4 && i + j < POSITIONS;j ++)
+				packed |= wdl[i + j] << (j * 2);
+			wdlOut.put((byte) packed);
+		}
+		writeFile(directory.resolve(name + Tablebases.WDL_SUFFIX), wdlOut);
+
+		ByteBuffer dtmOut = header(Tablebases.DTM_MAGIC, POSITIONS);
+		dtmOut.put(dtm);
+		writeFile(directory.resolve(name + Tablebases.DTM_SUFFIX), dtmOut);
+	}
+
+	private ByteBuffer header(int magic, int bytes) {
+		ByteBuffer out = ByteBuffer.allocate(Tablebases.HEADER_BYTES + bytes);
+		out.putInt(magic);
+		out.putInt(Tablebases.VERSION);
+		out.putInt(piece);
+		out.putInt(POSITIONS);
+		return out;
+	}
+
+	private static void writeFile(Path file, ByteBuffer out) throws IOException {
+		out.flip();
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+		try {
+			while (out.hasRemaining())
+				channel.write(out);
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * @param index position index
+	 * @return the result for the side to move, see {@link Tablebases}
+	 */
+	public int getWdl(int index) {
+		return wdl[index];
+	}
+
+	/**
+	 * @param index position index
+	 * @return the plies to mate, 0 for draws and invalid positions
+	 */
+	public int getDtm(int index) {
+		return dtm[index] & 0xFF;
+	}
+
+	/**
+	 * @return the number of sweeps the retrograde analysis took
+	 */
+	public int getSweeps() {
+		return sweeps;
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.out.println("Usage: java controller.engine.TablebaseGenerator outputDir [KQK KRK KPK KCK KLK]");
+			return;
+		}
+
+		ForkJoinPool pool = ForkJoinPool.commonPool();
+		for (int code : PIECES) {
+			String name = getName(code);
+			boolean requested = args.length == 1;
+			for (int i = 1;i < args.length;i ++)
+				requested |= args[i].equals(name);
+			if (!requested)
+				continue;
+
+			long start = System.nanoTime();
+			TablebaseGenerator generator = new TablebaseGenerator(code, pool);
+			generator.generate();
+			generator.write(Paths.get(args[0]));
+
+			int[] counts = new int[4];
+			int longest = 0;
+			for (int i = 0;i < POSITIONS;i ++) {
+				counts[generator.getWdl(i)] ++;
+				longest = Math.max(longest, generator.getDtm(i));
+			}
+			System.out.println(name + ": " + counts[Tablebases.WIN] + " wins, " + counts[Tablebases.LOSS] + " losses, "
+					+ counts[Tablebases.DRAW] + " draws, " + counts[Tablebases.INVALID] + " invalid, longest mate "
+					+ longest + " plies, " + generator.getSweeps() + " sweeps, "
+					+ ((System.nanoTime() - start) / 1000000) + "ms");
+		}
+	}
+
+}
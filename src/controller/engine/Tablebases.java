@@ -0,0 +1,215 @@
+package controller.engine;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import model.ChessPiece;
+import model.Move;
+import model.PieceList;
+import model.board.Board;
+import model.board.RectangularBoard;
+import model.game_modes.StandardGame;
+import controller.Player;
+
+/**
+ * Endgame tables of a king and one piece against a lone king, read from memory
+ * mapped files written by {@link TablebaseGenerator}. A probe reads one byte of
+ * each file, the tables are never read into the heap.
+ *
+ * File layout, big endian:
+ *
+ * <pre>
+ * header   int magic, int version, int piece code, int position count
+ * WDL      2 bits a position, 4 positions a byte starting from the low bits
+ * DTM      1 byte a position, plies to mate
+ * </pre>
+ *
+ * The results are for the side to move. The tables are only probed for
+ * StandardGame positions on the regulation 8x8 board.
+ *
+ */
+public class Tablebases {
+
+	public final static int WDL_MAGIC = 0x3DCB0002;
+	public final static int DTM_MAGIC = 0x3DCB0003;
+	public final static int VERSION = 1;
+
+	public final static int HEADER_BYTES = 16;
+
+	public final static String WDL_SUFFIX = ".wdl";
+	public final static String DTM_SUFFIX = ".dtm";
+
+	/**
+	 * Results for the side to move
+	 */
+	public final static int DRAW = 0;
+	public final static int WIN = 1;
+	public final static int LOSS = 2;
+	public final static int INVALID = 3;
+
+	/**
+	 * Most plies to mate of a result, the DTM files hold one byte a position
+	 */
+	public final static int MAX_DTM = 255;
+
+	/**
+	 * Probe result when no table has the position
+	 */
+	public final static int UNKNOWN = -1;
+
+	/**
+	 * Mapped files by piece code, null where the table isn't loaded
+	 */
+	private final MappedByteBuffer[] wdl;
+	private final MappedByteBuffer[] dtm;
+
+	private int loaded;
+
+	public Tablebases() {
+		wdl = new MappedByteBuffer[Move.LAME_QUEEN + 1];
+		dtm = new MappedByteBuffer[Move.LAME_QUEEN + 1];
+	}
+
+	/**
+	 * Maps every table found in the directory, directories without tables
+	 * give empty tablebases
+	 *
+	 * @param directory
+	 * @return the tablebases
+	 * @throws IOException if a table can't be read or is damaged
+	 */
+	public static Tablebases open(Path directory) throws IOException {
+		Tablebases tablebases = new Tablebases();
+		for (int code : TablebaseGenerator.PIECES) {
+			String name = TablebaseGenerator.getName(code);
+			Path wdlFile = directory.resolve(name + WDL_SUFFIX);
+			Path dtmFile = directory.resolve(name + DTM_SUFFIX);
+			if (Files.exists(wdlFile) && Files.exists(dtmFile))
+				tablebases.load(code, wdlFile, dtmFile);
+		}
+		return tablebases;
+	}
+
+	/**
+	 * Maps the table of a piece read only
+	 *
+	 * @param code piece code
+	 * @param wdlFile
+	 * @param dtmFile
+	 * @throws IOException if the files can't be read or aren't the piece's table
+	 */
+	public void load(int code, Path wdlFile, Path dtmFile) throws IOException {
+		MappedByteBuffer wdlBuffer = map(wdlFile, WDL_MAGIC, code, (TablebaseGenerator.POSITIONS + 3) / 4);
+		MappedByteBuffer dtmBuffer = map(dtmFile, DTM_MAGIC, code, TablebaseGenerator.POSITIONS);
+		if (wdl[code] == null)
+			loaded ++;
+		wdl[code] = wdlBuffer;
+		dtm[code] = dtmBuffer;
+	}
+
+	private static MappedByteBuffer map(Path file, int magic, int code, int bytes) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		MappedByteBuffer buffer;
+		try {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} finally {
+			channel.close(); //the mapping stays valid
+		}
+
+		if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != magic || buffer.getInt(4) != VERSION
+				|| buffer.getInt(8) != code || buffer.getInt(12) != TablebaseGenerator.POSITIONS)
+			throw new IOException(file + " is not a " + TablebaseGenerator.getName(code) + " table");
+		if (buffer.capacity() < HEADER_BYTES + bytes)
+			throw new IOException(file + " is truncated");
+
+		return buffer;
+	}
+
+	/**
+	 * Looks up the position, if it is a king and one piece against a lone king
+	 * and the piece's table is loaded
+	 *
+	 * @param board
+	 * @param mover the player to move
+	 * @return the result, see {@link #getWdl(int)} and {@link #getDtm(int)}, or UNKNOWN
+	 */
+	public int probe(Board board, Player mover) {
+		if (loaded == 0 || !(board.getGameMode() instanceof StandardGame) || !isRegulationBoard(board))
+			return UNKNOWN;
+
+		Player strong = mover;
+		if (strong.getPieces().size() == 1)
+			strong = mover.getOtherPlayer();
+		PieceList strongPieces = strong.getPieces();
+		if (strongPieces.size() != 2 || strong.getOtherPlayer().getPieces().size() != 1
+				|| strong.getKing() == null || strong.getOtherPlayer().getKing() == null)
+			return UNKNOWN;
+
+		ChessPiece extra = strongPieces.get((strongPieces.get(0) == strong.getKing()) ? 1 : 0);
+		int code = Move.pieceCode(extra);
+		if (wdl[code] == null)
+			return UNKNOWN;
+
+		//the tables are generated with the strong side moving up the board
+		int flip = (strong.getDirection() == 1) ? 0 : 56;
+		int extraSquare = extra.getSquare() ^ flip;
+		//the generated pawns have only moved when off their starting rank
+		if (code == Move.PAWN && extra.getHasMoved() != (extraSquare / 8 != 1))
+			return UNKNOWN;
+
+		int index = TablebaseGenerator.index((mover == strong) ? 0 : 1, strong.getKing().getSquare() ^ flip,
+				extraSquare, strong.getOtherPlayer().getKing().getSquare() ^ flip);
+		int result = (wdl[code].get(HEADER_BYTES + (index >> 2)) >> ((index & 3) * 2)) & 3;
+		if (result == INVALID)
+			return UNKNOWN;
+
+		return result | ((dtm[code].get(HEADER_BYTES + index) & 0xFF) << 2);
+	}
+
+	/**
+	 * Checks the geometry without comparing the board's type name, the probe
+	 * is made at every search node with few pieces
+	 *
+	 * @return true if the board is the regulation 8x8 board the tables are for
+	 */
+	private static boolean isRegulationBoard(Board board) {
+		return board instanceof RectangularBoard && ((RectangularBoard) board).getWidth() == 8
+				&& ((RectangularBoard) board).getLength() == 8;
+	}
+
+	/**
+	 * @param result a probe result other than UNKNOWN
+	 * @return DRAW, WIN or LOSS for the side to move
+	 */
+	public static int getWdl(int result) {
+		return result & 3;
+	}
+
+	/**
+	 * @param result a probe result other than UNKNOWN
+	 * @return the plies to mate of a won or lost position
+	 */
+	public static int getDtm(int result) {
+		return result >>> 2;
+	}
+
+	/**
+	 * @return the number of tables loaded
+	 */
+	public int getLoaded() {
+		return loaded;
+	}
+
+	/**
+	 * @param code piece code
+	 * @return true if the table of the piece is loaded
+	 */
+	public boolean hasTable(int code) {
+		return wdl[code] != null;
+	}
+
+}
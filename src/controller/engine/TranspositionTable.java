@@ -0,0 +1,216 @@
+package controller.engine;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+import model.board.Board;
+
+/**
+ * Fixed size hash table of search results, keyed by {@link Board#positionKey()}.
+ * Each entry stores the depth searched, the bound type, the score and the best
+ * packed move of a position, so a position reached again by another move order
+ * (or searched again by the next iteration) is not searched twice.
+ *
+ * The table is a flat long[] of buckets of two entries. The first entry of a
+ * bucket keeps the deepest result, the second is always replaced. An entry is
+ * two longs, the data and the key XOR-ed with the data. A reader only accepts
+ * an entry if the two longs XOR back to its key, so an entry torn by threads
+ * writing at the same time is seen as a miss. This lets any number of search
+ * threads share one table without locking.
+ *
+ * Data layout:
+ *
+ * <pre>
+ * bits  0 - 31  best packed move (see {@link model.Move}), 0 if none
+ * bits 32 - 51  score, offset by SCORE_OFFSET
+ * bits 52 - 59  depth
+ * bits 60 - 61  bound type
+ * </pre>
+ *
+ */
+public class TranspositionTable {
+
+	/**
+	 * Bound types, an EXACT score is the score of the position, a LOWER
+	 * score failed high (the position is at least as good) and an UPPER
+	 * score failed low (the position is at most as good)
+	 */
+	public final static int NONE = 0;
+	public final static int EXACT = 1;
+	public final static int LOWER = 2;
+	public final static int UPPER = 3;
+
+	/**
+	 * Longs per entry and entries per bucket
+	 */
+	private final static int ENTRY_LONGS = 2;
+	private final static int BUCKET_ENTRIES = 2;
+
+	private final static int SCORE_OFFSET = 1 << 19;
+
+	private final long[] table;
+
+	/**
+	 * Number of buckets - 1, the number of buckets is a power of two
+	 */
+	private final int bucketMask;
+
+	private final LongAdder probes = new LongAdder();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder collisions = new LongAdder();
+	private final LongAdder stores = new LongAdder();
+
+	/**
+	 * @param sizeMB the most memory the table may use, it is rounded down to
+	 *  a power of two number of buckets
+	 */
+	public TranspositionTable(int sizeMB) {
+		long bucketBytes = ENTRY_LONGS * BUCKET_ENTRIES * 8;
+		long buckets = Long.highestOneBit(Math.max(1, sizeMB * 1024L * 1024L / bucketBytes));
+		buckets = Math.min(buckets, Integer.MAX_VALUE / (ENTRY_LONGS * BUCKET_ENTRIES) + 1L);
+		table = new long[(int) buckets * ENTRY_LONGS * BUCKET_ENTRIES];
+		bucketMask = (int) buckets - 1;
+	}
+
+	/**
+	 * @return the index of the first long of the key's bucket
+	 */
+	private int bucket(long key) {
+		return ((int) (key ^ (key >>> 32)) & bucketMask) * ENTRY_LONGS * BUCKET_ENTRIES;
+	}
+
+	/**
+	 * Looks up the position
+	 *
+	 * @param key position key
+	 * @return the entry's data, read with the static get methods, or 0 if
+	 *  the position isn't in the table
+	 */
+	public long probe(long key) {
+		probes.increment();
+		int index = bucket(key);
+		boolean occupied = false;
+		for (int i = 0;i < BUCKET_ENTRIES;i ++, index += ENTRY_LONGS) {
+			long data = table[index + 1];
+			if ((table[index] ^ data) == key && data != 0) {
+				hits.increment();
+				return data;
+			}
+			occupied |= data != 0;
+		}
+
+		if (occupied)
+			collisions.increment();
+		return 0;
+	}
+
+	/**
+	 * Stores the result of a search of the position
+	 *
+	 * @param key position key
+	 * @param move best packed move, 0 if none is known
+	 * @param score score, mate scores should be relative to the position
+	 * @param depth depth searched
+	 * @param bound bound type of the score
+	 */
+	public void store(long key, int move, int score, int depth, int bound) {
+		stores.increment();
+		int index = bucket(key);
+
+		//keep the old best move if this search didn't find one
+		long first = table[index + 1];
+		boolean sameFirst = (table[index] ^ first) == key && first != 0;
+		if (move == 0 && sameFirst)
+			move = getMove(first);
+
+		long data = pack(move, score, depth, bound);
+		if (sameFirst || first == 0 || depth >= getDepth(first)) {
+			table[index] = key ^ data;
+			table[index + 1] = data;
+		} else {
+			table[index + ENTRY_LONGS] = key ^ data;
+			table[index + ENTRY_LONGS + 1] = data;
+		}
+	}
+
+	private static long pack(int move, int score, int depth, int bound) {
+		return (move & 0xFFFFFFFFL) | ((long) (score + SCORE_OFFSET) << 32)
+				| ((long) Math.max(0, Math.min(depth, 0xFF)) << 52) | ((long) bound << 60);
+	}
+
+	public static int getMove(long data) {
+		return (int) data;
+	}
+
+	public static int getScore(long data) {
+		return (int) ((data >>> 32) & 0xFFFFF) - SCORE_OFFSET;
+	}
+
+	public static int getDepth(long data) {
+		return (int) ((data >>> 52) & 0xFF);
+	}
+
+	public static int getBound(long data) {
+		return (int) ((data >>> 60) & 0x3);
+	}
+
+	/**
+	 * Removes every entry and resets the statistics
+	 */
+	public void clear() {
+		Arrays.fill(table, 0);
+		probes.reset();
+		hits.reset();
+		collisions.reset();
+		stores.reset();
+	}
+
+	/**
+	 * @return the number of entries the table can hold
+	 */
+	public int getCapacity() {
+		return table.length / ENTRY_LONGS;
+	}
+
+	public long getProbes() {
+		return probes.sum();
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return the number of probes that missed a bucket holding other positions
+	 */
+	public long getCollisions() {
+		return collisions.sum();
+	}
+
+	public long getStores() {
+		return stores.sum();
+	}
+
+	/**
+	 * @return the fraction of probes that found their position
+	 */
+	public double getHitRate() {
+		long p = getProbes();
+		return (p == 0) ? 0 : getHits() / (double) p;
+	}
+
+	/**
+	 * @return the fraction of probes that missed a bucket holding other positions
+	 */
+	public double getCollisionRate() {
+		long p = getProbes();
+		return (p == 0) ? 0 : getCollisions() / (double) p;
+	}
+
+	@Override
+	public String toString() {
+		return "TranspositionTable " + getCapacity() + " entries, " + getProbes() + " probes, "
+				+ String.format("%.1f%% hits, %.1f%% collisions", getHitRate() * 100, getCollisionRate() * 100);
+	}
+
+}
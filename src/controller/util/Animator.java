@@ -0,0 +1,147 @@
+package controller.util;
+
+import java.util.Arrays;
+
+/**
+ * Runs the animations of the game. Each animation moves a {@link FloatProperty}
+ * from a start value to an end value over a time, along an {@link Easing} curve.
+ * The animations are kept in slots of parallel arrays, finished animations are
+ * removed by moving the running ones down in place, so stepping the animations
+ * allocates nothing. The arrays only grow when more animations run at once than
+ * ever before.
+ *
+ * Animations may be started from any thread, they are stepped by the game loop.
+ *
+ */
+public class Animator {
+
+	private final static int DEFAULT_CAPACITY = 8;
+
+	private FloatProperty[] properties;
+	private Easing[] easings;
+	private float[] startValues;
+	private float[] endValues;
+	private float[] elapsed;
+	private float[] durations;
+
+	/**
+	 * Number of running animations, in slots 0 to count - 1
+	 */
+	private int count;
+
+	public Animator() {
+		properties = new FloatProperty[DEFAULT_CAPACITY];
+		easings = new Easing[DEFAULT_CAPACITY];
+		startValues = new float[DEFAULT_CAPACITY];
+		endValues = new float[DEFAULT_CAPACITY];
+		elapsed = new float[DEFAULT_CAPACITY];
+		durations = new float[DEFAULT_CAPACITY];
+	}
+
+	/**
+	 * Starts animating the property, which is set to the start value right away.
+	 * An animation the property already has is replaced.
+	 *
+	 * @param property
+	 * @param startValue
+	 * @param endValue
+	 * @param time the length of the animation in seconds
+	 * @param easing
+	 */
+	public synchronized void animate(FloatProperty property, float startValue, float endValue, float time, Easing easing) {
+		int slot = 0;
+		while (slot < count && properties[slot] != property)
+			slot ++;
+
+		if (slot == count) {
+			if (count == properties.length)
+				grow();
+			count ++;
+		}
+
+		properties[slot] = property;
+		easings[slot] = easing;
+		startValues[slot] = startValue;
+		endValues[slot] = endValue;
+		elapsed[slot] = 0;
+		durations[slot] = time;
+		property.set(startValue);
+	}
+
+	/**
+	 * Animates the property from its current value
+	 *
+	 * @param property
+	 * @param endValue
+	 * @param time the length of the animation in seconds
+	 * @param easing
+	 */
+	public void animateTo(FloatProperty property, float endValue, float time, Easing easing) {
+		animate(property, property.get(), endValue, time, easing);
+	}
+
+	private void grow() {
+		int capacity = properties.length * 2;
+		properties = Arrays.copyOf(properties, capacity);
+		easings = Arrays.copyOf(easings, capacity);
+		startValues = Arrays.copyOf(startValues, capacity);
+		endValues = Arrays.copyOf(endValues, capacity);
+		elapsed = Arrays.copyOf(elapsed, capacity);
+		durations = Arrays.copyOf(durations, capacity);
+	}
+
+	/**
+	 * Steps every animation by the time, setting the properties. Finished
+	 * animations set their end value and are removed.
+	 *
+	 * @param deltaTime the time step in seconds
+	 */
+	public synchronized void step(float deltaTime) {
+		int running = 0;
+		for (int i = 0;i < count;i ++) {
+			elapsed[i] += deltaTime;
+			float t = (durations[i] <= 0) ? 1 : Math.min(1, elapsed[i] / durations[i]);
+			if (t >= 1) {
+				properties[i].set(endValues[i]);
+				continue;
+			}
+
+			properties[i].set(startValues[i] + (endValues[i] - startValues[i]) * easings[i].apply(t));
+			if (running != i)
+				moveSlot(i, running);
+			running ++;
+		}
+
+		Arrays.fill(properties, running, count, null);
+		count = running;
+	}
+
+	private void moveSlot(int from, int to) {
+		properties[to] = properties[from];
+		easings[to] = easings[from];
+		startValues[to] = startValues[from];
+		endValues[to] = endValues[from];
+		elapsed[to] = elapsed[from];
+		durations[to] = durations[from];
+	}
+
+	/**
+	 * Stops every animation, leaving the properties where they are
+	 */
+	public synchronized void clear() {
+		Arrays.fill(properties, 0, count, null);
+		count = 0;
+	}
+
+	/**
+	 * @return the number of running animations
+	 */
+	public synchronized int size() {
+		return count;
+	}
+
+	public synchronized boolean isEmpty() {
+		return count == 0;
+	}
+
+}
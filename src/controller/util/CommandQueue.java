@@ -0,0 +1,98 @@
+package controller.util;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock free queue of commands, offered by any number of threads and run by a
+ * single thread. The GameLoop's thread is the only one to change the game, the
+ * input and menu threads offer it commands, which it drains once every frame,
+ * so no thread ever waits on the game thread and the game is never changed
+ * while the board is rendered.
+ *
+ * A producer links its node by swapping the tail, so offering never blocks. The
+ * consumer owns the head, a node whose command has already been run. A node
+ * whose producer hasn't linked it yet is picked up by the next drain.
+ *
+ */
+public class CommandQueue {
+
+	private static class Node {
+		private Runnable command;
+		private volatile Node next;
+	}
+
+	/**
+	 * Last node offered, swapped by the producers
+	 */
+	private final AtomicReference<Node> tail;
+
+	/**
+	 * Node of the last command run, only used by the consumer
+	 */
+	private Node head;
+
+	public CommandQueue() {
+		head = new Node();
+		tail = new AtomicReference<Node>(head);
+	}
+
+	/**
+	 * Adds the command to the end of the queue, can be called from any thread
+	 *
+	 * @param command
+	 */
+	public void offer(Runnable command) {
+		Node node = new Node();
+		node.command = command;
+		Node previous = tail.getAndSet(node);
+		previous.next = node; //publishes the command to the consumer
+	}
+
+	/**
+	 * Removes the first command, must only be called by the consumer
+	 *
+	 * @return the command, null if there is none
+	 */
+	public Runnable poll() {
+		Node next = head.next;
+		if (next == null)
+			return null;
+
+		Runnable command = next.command;
+		next.command = null;
+		head = next;
+		return command;
+	}
+
+	/**
+	 * Runs the commands in the order they were offered, including any offered
+	 * while draining, must only be called by the consumer
+	 *
+	 * @return the number of commands run
+	 */
+	public int drain() {
+		int count = 0;
+		Runnable command;
+		while ((command = poll()) != null) {
+			command.run();
+			count ++;
+		}
+		return count;
+	}
+
+	/**
+	 * Drops every command, must only be called by the consumer
+	 */
+	public void clear() {
+		while (poll() != null);
+	}
+
+	/**
+	 * @return true if no command is waiting to be run, a command still
+	 *  being offered may not be seen. Must only be called by the consumer
+	 */
+	public boolean isEmpty() {
+		return head.next == null;
+	}
+
+}
@@ -0,0 +1,44 @@
+package controller.util;
+
+/**
+ * Easing curves of an animation, each maps the fraction of the animation's
+ * time that has passed, from 0 to 1, to the fraction of the way from the
+ * start value to the end value.
+ *
+ */
+public enum Easing {
+
+	/**
+	 * Constant speed
+	 */
+	LINEAR,
+
+	/**
+	 * Starts slowly and speeds up
+	 */
+	EASE_IN,
+
+	/**
+	 * Starts quickly and slows down
+	 */
+	EASE_OUT,
+
+	/**
+	 * Speeds up and then slows down, a smoothstep
+	 */
+	EASE_IN_OUT;
+
+	/**
+	 * @param t fraction of the time passed, from 0 to 1
+	 * @return fraction of the way to the end value
+	 */
+	public float apply(float t) {
+		switch (this) {
+		case EASE_IN: return t * t;
+		case EASE_OUT: return t * (2 - t);
+		case EASE_IN_OUT: return t * t * (3 - 2 * t);
+		default: return t;
+		}
+	}
+
+}
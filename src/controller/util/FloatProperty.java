@@ -0,0 +1,21 @@
+package controller.util;
+
+/**
+ * Handle to a float field of an object, such as a piece's draw location, that
+ * the {@link Animator} sets every frame. An object creates each handle once and
+ * hands out the same handle for every animation of the field.
+ *
+ */
+public interface FloatProperty {
+
+	/**
+	 * @return the current value of the field
+	 */
+	float get();
+
+	/**
+	 * @param value new value of the field
+	 */
+	void set(float value);
+
+}
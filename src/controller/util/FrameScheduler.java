@@ -0,0 +1,236 @@
+package controller.util;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Paces the game loop's frames. A frame is only rendered while animations are
+ * running or after something asked for one with {@link #requestFrame()}, ie the
+ * board or the selection changed, otherwise the loop's thread is parked until it
+ * is asked. Frames are never rendered faster than the FPS cap.
+ *
+ * The animations are stepped with a fixed timestep, each frame is given the
+ * number of whole steps of real time that have passed since the last one, so the
+ * animations run at the same speed at any frame rate. After the thread has been
+ * idle the clock starts again from the next frame, and a frame never catches up
+ * more than MAX_STEPS steps (the rest of the time is dropped).
+ *
+ * The loop calls {@link #awaitFrame(boolean)}, steps the animations, renders and
+ * then calls {@link #frameRendered()}. Frames may be requested from any thread.
+ *
+ */
+public class FrameScheduler {
+
+	/**
+	 * FPS cap used when none is given, set with -Dchess.maxFps, 0 for no cap
+	 */
+	public final static int DEFAULT_MAX_FPS = Integer.getInteger("chess.maxFps", 60);
+
+	/**
+	 * Length of the fixed animation step in seconds
+	 */
+	public final static float DEFAULT_TIME_STEP = 1 / 120f;
+
+	/**
+	 * Most steps simulated before a single frame
+	 */
+	private final static int MAX_STEPS = 12;
+
+	/**
+	 * Longest the thread is parked while idle before checking again, so a
+	 * loop that should stop does so even if no frame is requested
+	 */
+	private final static long IDLE_PARK_NANOS = 250000000L;
+
+	private final float timeStep;
+	private final long stepNanos;
+	private long frameNanos;
+
+	/**
+	 * Set when a frame is requested, cleared when the frame starts
+	 */
+	private volatile boolean dirty;
+
+	/**
+	 * The thread waiting in awaitFrame(), unparked when a frame is requested
+	 */
+	private volatile Thread waiting;
+
+	/**
+	 * Time of the last step simulated, and of the last frame rendered,
+	 * 0 after the loop was idle
+	 */
+	private long simulatedTime;
+	private long lastFrameTime;
+
+	/**
+	 * Frame pacing statistics, the intervals only count frames rendered
+	 * one after the other, without the loop going idle in between
+	 */
+	private long frames;
+	private long intervals;
+	private long intervalTotal;
+	private long intervalSquares;
+	private long worstInterval;
+	private long idleParks;
+	private long droppedSteps;
+
+	public FrameScheduler() {
+		this(DEFAULT_TIME_STEP, DEFAULT_MAX_FPS);
+	}
+
+	/**
+	 * @param _timeStep length of an animation step in seconds
+	 * @param maxFps most frames rendered a second, 0 for no cap
+	 */
+	public FrameScheduler(float _timeStep, int maxFps) {
+		timeStep = _timeStep;
+		stepNanos = (long) (_timeStep * 1.0E9);
+		setMaxFps(maxFps);
+	}
+
+	/**
+	 * Asks for a frame to be rendered, waking the loop if it is idle.
+	 * Can be called from any thread.
+	 */
+	public void requestFrame() {
+		dirty = true;
+		Thread thread = waiting;
+		if (thread != null)
+			LockSupport.unpark(thread);
+	}
+
+	/**
+	 * Blocks until the next frame is due, parking the thread while there is
+	 * nothing to render and waiting out the FPS cap.
+	 *
+	 * @param animating true if animations are running
+	 * @return the number of animation steps to simulate before rendering,
+	 *  -1 if the loop is idle and should check if it is still running
+	 */
+	public int awaitFrame(boolean animating) {
+		if (!animating && !dirty) {
+			simulatedTime = 0;
+			lastFrameTime = 0;
+			idleParks ++;
+			//published before checking again, so a request made now unparks the thread
+			waiting = Thread.currentThread();
+			if (!dirty)
+				LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+			waiting = null;
+			return -1;
+		}
+
+		//wait out the cap, unless the frame was requested while idle
+		if (lastFrameTime != 0) {
+			long remaining;
+			while ((remaining = lastFrameTime + frameNanos - System.nanoTime()) > 0)
+				LockSupport.parkNanos(this, remaining);
+		}
+
+		//cleared before rendering, so a request made during the frame gets another
+		dirty = false;
+		long now = System.nanoTime();
+		if (simulatedTime == 0 || !animating) {
+			simulatedTime = now;
+			return 0;
+		}
+
+		long steps = (now - simulatedTime) / stepNanos;
+		simulatedTime += steps * stepNanos;
+		if (steps > MAX_STEPS) {
+			droppedSteps += steps - MAX_STEPS;
+			steps = MAX_STEPS;
+		}
+		return (int) steps;
+	}
+
+	/**
+	 * Records a rendered frame
+	 */
+	public void frameRendered() {
+		long now = System.nanoTime();
+		if (lastFrameTime != 0) {
+			long interval = now - lastFrameTime;
+			intervals ++;
+			intervalTotal += interval;
+			intervalSquares += (interval / 1000) * (interval / 1000);
+			worstInterval = Math.max(worstInterval, interval);
+		}
+		lastFrameTime = now;
+		frames ++;
+	}
+
+	/**
+	 * @param maxFps most frames rendered a second, 0 for no cap
+	 */
+	public void setMaxFps(int maxFps) {
+		frameNanos = (maxFps > 0) ? 1000000000L / maxFps : 0;
+	}
+
+	/**
+	 * @return the length of an animation step in seconds
+	 */
+	public float getTimeStep() {
+		return timeStep;
+	}
+
+	/**
+	 * @return true if a frame was requested and hasn't been rendered yet
+	 */
+	public boolean isFrameRequested() {
+		return dirty;
+	}
+
+	public long getFrames() {
+		return frames;
+	}
+
+	/**
+	 * @return the average time between frames rendered one after the other, in milliseconds
+	 */
+	public double getAverageFrameMillis() {
+		return (intervals == 0) ? 0 : intervalTotal / (double) intervals / 1.0E6;
+	}
+
+	/**
+	 * @return the standard deviation of the time between frames, in milliseconds
+	 */
+	public double getFrameJitterMillis() {
+		if (intervals == 0)
+			return 0;
+
+		double mean = intervalTotal / (double) intervals / 1000;
+		double variance = intervalSquares / (double) intervals - mean * mean;
+		return Math.sqrt(Math.max(0, variance)) / 1000;
+	}
+
+	/**
+	 * @return the longest time between frames rendered one after the other, in milliseconds
+	 */
+	public double getWorstFrameMillis() {
+		return worstInterval / 1.0E6;
+	}
+
+	/**
+	 * @return the number of times the loop was parked with nothing to render
+	 */
+	public long getIdleParks() {
+		return idleParks;
+	}
+
+	/**
+	 * @return the animation steps dropped because a frame was too late
+	 */
+	public long getDroppedSteps() {
+		return droppedSteps;
+	}
+
+	@Override
+	public String toString() {
+		return "FrameScheduler " + frames + " frames, "
+				+ String.format("%.2fms average, %.2fms jitter, %.2fms worst, ",
+						getAverageFrameMillis(), getFrameJitterMillis(), getWorstFrameMillis())
+				+ idleParks + " idle parks, " + droppedSteps + " dropped steps";
+	}
+
+}
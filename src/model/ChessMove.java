@@ -1,6 +1,9 @@
 package model;
 
 import java.awt.Point;
+import java.util.ArrayList;
+
+import model.board.Board;
 
 /**
  * Basic data object for holding a possible chess move. A chess
@@ -48,6 +51,51 @@ public class ChessMove {
 		piece = _piece;
 	}
 	
+	/**
+	 * Creates the ChessMove for a packed move, so that moves generated into
+	 * a MoveList can be passed to the UI and the GameLoop
+	 * 
+	 * @param board The board the move was generated on
+	 * @param move The packed move, see {@link Move}
+	 */
+	public ChessMove(Board board, int move) {
+		originalLocation = new Point();
+		moveLocation = new Point();
+		setMove(board, move);
+	}
+	
+	/**
+	 * Reinitializes this ChessMove to the packed move, used to simulate
+	 * packed moves without creating a new ChessMove each time. Must only
+	 * be called on a ChessMove created with {@link #ChessMove(Board, int)}
+	 * 
+	 * @param board The board the move was generated on
+	 * @param move The packed move, see {@link Move}
+	 */
+	public void setMove(Board board, int move) {
+		int from = Move.getFrom(move);
+		int to = Move.getTo(move);
+		originalLocation.setLocation(board.getSquareX(from), board.getSquareY(from));
+		moveLocation.setLocation(board.getSquareX(to), board.getSquareY(to));
+		piece = board.getTile(from);
+		capturedPiece = null;
+	}
+	
+	/**
+	 * Converts a list of packed moves into ChessMoves
+	 * 
+	 * @param board The board the moves were generated on
+	 * @param moves packed moves
+	 * @return an array with a ChessMove for each packed move
+	 */
+	public static ArrayList<ChessMove> toChessMoves(Board board, MoveList moves) {
+		ArrayList<ChessMove> chessMoves = new ArrayList<ChessMove>(moves.size());
+		for (int i = 0;i < moves.size();i ++)
+			chessMoves.add(new ChessMove(board, moves.get(i)));
+		
+		return chessMoves;
+	}
+	
 	public boolean equals(Object obj) {
 		ChessMove move = (ChessMove) obj;
 		return move.moveLocation.equals(moveLocation) &&
@@ -59,7 +107,9 @@ public class ChessMove {
 	 * Executes the move if it has not been done yet. Calling this
 	 * method assumes the move has been checked as valid, otherwise an
 	 * exception will be thrown. After this move has been completed, 
-	 * caputedPiece will be set with the piece that was originally on the tile
+	 * caputedPiece will be set with the piece that was originally on the tile.
+	 * The piece is marked as moved even when checkValid is false, so that a
+	 * simulated move leaves the board in the same state as a played move
 	 */
 	public void executeMove(boolean checkValid) {
 		if (piece.getLocation().equals(moveLocation)) //we have already done the move...
@@ -67,8 +117,13 @@ public class ChessMove {
 		
 		hadMoved = piece.getHasMoved();
 		capturedPiece = piece.movePieceToTile(moveLocation, checkValid);
+		piece.setHasMoved(true);
 		if (capturedPiece != null) 
 			capturedPiece.getPlayer().pieceCaptured(capturedPiece);	
+		
+		Board board = piece.getBoard();
+		board.toggleSideToMove();
+		board.verifyPositionKey();
 	}
 	
 	/**
@@ -88,6 +143,10 @@ public class ChessMove {
 			capturedPiece.movePieceToTile(moveLocation, false);
 			capturedPiece = null;
 		}
+		
+		Board board = piece.getBoard();
+		board.toggleSideToMove();
+		board.verifyPositionKey();
 	}
 	
 	/* 
@@ -4,12 +4,11 @@ import java.awt.Point;
 import java.awt.geom.Point2D;
 import java.util.ArrayList;
 
-import com.jogamp.opengl.GL2;
-
 import model.board.Board;
-import view.loaders.AssetLoader;
+import model.board.MoveTables;
+import model.game_modes.MoveValidator;
 import controller.Player;
-import controller.util.Animation.Animatable;
+import controller.util.FloatProperty;
 
 /**
  * Basic template for any ChessPiece, which provides the basic
@@ -18,11 +17,17 @@ import controller.util.Animation.Animatable;
  * @author Nicholas
  *
  */
-public abstract class ChessPiece implements Animatable {
+public abstract class ChessPiece {
 
 	private float drawLocationX;
 	private float drawLocationY;
 	
+	/**
+	 * Handles to the draw location, created when the piece is first animated
+	 */
+	private FloatProperty drawLocationXProperty;
+	private FloatProperty drawLocationYProperty;
+	
 	/**
 	 * The board location of the piece
 	 */
@@ -43,6 +48,13 @@ public abstract class ChessPiece implements Animatable {
 	 */
 	protected Board board;
 	
+	/**
+	 * Slots of the piece in its player's list of pieces and list of
+	 * its kind of piece, see {@link PieceList}
+	 */
+	int slot;
+	int kindSlot;
+	
 	/**
 	 * Initializes the basic variables of a chess piece and
 	 * adds it to the board
@@ -67,65 +79,84 @@ public abstract class ChessPiece implements Animatable {
 	
 	/**
 	 * Used by pieces such as the rook, queen and king to get the moves
-	 * in the rank-file directions of the boards. Will only return all the moves 
+	 * in the rank-file directions of the boards. Will only add the moves 
 	 * up to (and including) an enemy piece and as long as the piece remains valid
 	 * 
-	 * @param cont true returns the list of all moves in the flat directions
+	 * @param moves list the packed moves are added to
+	 * @param cont true adds all the moves in the flat directions
 	 * @param canCapture true if this piece can capture
-	 * @return an array of the valid moves possible in the flat direction
-	 */
-	protected ArrayList<ChessMove> getRankFileMoves(boolean cont, boolean canCapture) {
-		ArrayList<ChessMove> moves = new ArrayList<ChessMove>();
-		ArrayList<Point> adj = board.getAdjacentRankFileTiles(location.x, location.y);
-		Point currentPos;
-		for (int i = 0;i < adj.size();i ++) {
-			currentPos = adj.get(i);
-			while (board.isMovableTile(currentPos, player, canCapture)) {
-				ChessMove move = new ChessMove(currentPos, this);
-				moves.add(move);
-				
-				if (board.hasEnemyPiece(currentPos, player))
+	 */
+	protected void addRankFileMoves(MoveList moves, boolean cont, boolean canCapture) {
+		MoveTables tables = board.getMoveTables();
+		int from = getSquare();
+		for (int dir = 0;dir < tables.getRankFileDirections();dir ++) {
+			for (int i = tables.getRankFileStart(from, dir);;i ++) {
+				int to = tables.getRankFileSquare(i);
+				if (to < 0 || !board.isMovableTile(to, player, canCapture))
 					break;
 				
-				if (!cont) break;
-				currentPos = board.getAdjacentRankFileTiles(currentPos).get(i);
+				moves.add(Move.create(board, from, to));
+				if (!cont || board.hasEnemyPiece(to, player))
+					break;
 			}
 		}
-		return moves;
 	}
 	
 	/**
 	 * Used by pieces such as the bishop, queen and king to get the moves
-	 * in the diagonal directions of the boards. Will only return all the moves 
+	 * in the diagonal directions of the boards. Will only add the moves 
 	 * up to (and including) an enemy piece and as long as the piece remains valid
 	 * 
-	 * @param cont true returns the list of all moves in the diagonal directions
+	 * @param moves list the packed moves are added to
+	 * @param cont true adds all the moves in the diagonal directions
 	 * @param canCapture true if this piece can capture
-	 * @return an array of the valid moves possible in the diagonal direction
-	 */
-	protected ArrayList<ChessMove> getDiagonalMoves(boolean cont, boolean canCapture) {
-		ArrayList<ChessMove> moves = new ArrayList<ChessMove>();
-		ArrayList<Point> adj = board.getAdjacentDiagonalTiles(location.x, location.y);
-		Point currentPos;
-		for (int i = 0;i < adj.size();i ++) {
-			currentPos = adj.get(i);
-			while (board.isMovableTile(currentPos, player, canCapture)) {
-				ChessMove move = new ChessMove(currentPos, this);
-				moves.add(move);
-				
-				if (board.hasEnemyPiece(currentPos, player))
+	 */
+	protected void addDiagonalMoves(MoveList moves, boolean cont, boolean canCapture) {
+		MoveTables tables = board.getMoveTables();
+		int from = getSquare();
+		for (int dir = 0;dir < tables.getDiagonalDirections();dir ++) {
+			for (int i = tables.getDiagonalStart(from, dir);;i ++) {
+				int to = tables.getDiagonalSquare(i);
+				if (to < 0 || !board.isMovableTile(to, player, canCapture))
 					break;
 				
-				if (!cont) break;
-				currentPos = board.getAdjacentDiagonalTiles(currentPos).get(i);
+				moves.add(Move.create(board, from, to));
+				if (!cont || board.hasEnemyPiece(to, player))
+					break;
 			}
 		}
-		return moves;
+	}
+	
+	/**
+	 * Used by pieces such as the knight and chancellor to get the moves
+	 * a knight's jump away. Jumps onto an enemy piece are only added if
+	 * canCapture is true
+	 * 
+	 * @param moves list the packed moves are added to
+	 * @param canCapture true if this piece can capture
+	 */
+	protected void addKnightMoves(MoveList moves, boolean canCapture) {
+		MoveTables tables = board.getMoveTables();
+		int from = getSquare();
+		for (int i = tables.getKnightStart(from);tables.getKnightSquare(i) >= 0;i ++) {
+			int to = tables.getKnightSquare(i);
+			if (board.isMovableTile(to, player, canCapture))
+				moves.add(Move.create(board, from, to));
+		}
+	}
+	
+	/**
+	 * @return the square index of this piece, see {@link Board#getSquare(int, int)}
+	 */
+	public int getSquare() {
+		return board.getSquare(location.x, location.y);
 	}
 	
 	/**
 	 * Moves this piece to the position, while internally checking
-	 * if the moves is valid (by comparing the given location to possible moves)
+	 * if the moves is valid (by comparing the given location to possible moves).
+	 * The draw location is only moved for a checked move, a move that is only
+	 * simulated or undone is drawn where the GameLoop animates it to
 	 * 
 	 * @throws IllegalArgumentException if this position cannot move to the given location
 	 * @param loc the location to move to 
@@ -134,25 +165,84 @@ public abstract class ChessPiece implements Animatable {
 	 */
 	public ChessPiece movePieceToTile(Point loc, boolean checkValid) {
 		if (!checkValid || getValidMoves().contains(new ChessMove(loc, this))) {
-			if (checkValid)
-				hasMoved = true;
+			ChessPiece prev = board.setTile(this, loc.x, loc.y);
+			if (checkValid) {
+				Point2D.Float drawLoc = board.getRenderPosition(loc);
+				drawLocationX = drawLoc.x;
+				drawLocationY = drawLoc.y;
+				setHasMoved(true);
+			}
 			
-			Point2D.Float drawLoc = board.getRenderPosition(loc);
-			drawLocationX = drawLoc.x;
-			drawLocationY = drawLoc.y;
-			return board.setTile(this, loc.x, loc.y);
+			return prev;
 		}
 		
 		throw new IllegalArgumentException("Bad Position");
 	}
 	
 	/**
-	 * Overridden by all chess piece classes, which returns an Array of chess
-	 * moves that this peice can make 
+	 * Overridden by all chess piece classes, which adds all the moves that
+	 * this piece can make to the list as packed moves (see {@link Move})
+	 * 
+	 * @param moves list the packed moves are added to
+	 */
+	public abstract void addPossibleMoves(MoveList moves);
+	
+	/**
+	 * Subset of addPossibleMoves() which adds all the moves that 
+	 * result in a capture
+	 * 
+	 * @param moves list the packed moves are added to
+	 */
+	public void addCaptureMoves(MoveList moves) {
+		int start = moves.size();
+		addPossibleMoves(moves);
+		int count = start;
+		for (int i = start;i < moves.size();i ++) //loop through all moves...
+			if (Move.isCapture(moves.get(i)))
+				moves.set(count ++, moves.get(i)); //keep it
+		
+		moves.truncate(count);
+	}
+	
+	/**
+	 * Subset of addPossibleMoves() which adds all the moves that are
+	 * valid to the type of game mode, see {@link #getValidMoves()}
+	 * 
+	 * @param moves list the packed moves are added to
+	 */
+	public void addValidMoves(MoveList moves) {
+		addValidMoves(moves, board.getMoveValidator(player));
+	}
+	
+	/**
+	 * Same as {@link #addValidMoves(MoveList)} using a validator already
+	 * created for the current position
+	 * 
+	 * @param moves list the packed moves are added to
+	 * @param validator the game mode's validator for this piece's player
+	 */
+	public void addValidMoves(MoveList moves, MoveValidator validator) {
+		int start = moves.size();
+		addPossibleMoves(moves);
+		int count = start;
+		for (int i = start;i < moves.size();i ++)
+			if (validator.isValidMove(moves.get(i)))
+				moves.set(count ++, moves.get(i));
+		
+		moves.truncate(count);
+	}
+	
+	/**
+	 * Returns an Array of chess moves that this piece can make, built 
+	 * from {@link #addPossibleMoves(MoveList)}
 	 * 
 	 * @return An array of all the possible moves this piece can make
 	 */
-	public abstract ArrayList<ChessMove> getPossibleMoves();
+	public ArrayList<ChessMove> getPossibleMoves() {
+		MoveList moves = new MoveList();
+		addPossibleMoves(moves);
+		return ChessMove.toChessMoves(board, moves);
+	}
 	
 	/**
 	 * Subset of getPossibleMoves() which returns all the moves that 
@@ -162,12 +252,9 @@ public abstract class ChessPiece implements Animatable {
 	 *  that result in it taking a piece.
 	 */
 	public ArrayList<ChessMove> getCaptureMoves() {
-		ArrayList<ChessMove> moves = new ArrayList<ChessMove>();
-		for (ChessMove move : getPossibleMoves()) //loop through all moves...
-			if (board.hasEnemyPiece(move.getMoveLocation(), player))
-				moves.add(move); //add it
-		
-		return moves;
+		MoveList moves = new MoveList();
+		addCaptureMoves(moves);
+		return ChessMove.toChessMoves(board, moves);
 	}
 	
 	/**
@@ -179,24 +266,71 @@ public abstract class ChessPiece implements Animatable {
 	 * @return An array of valid chess moves
 	 */
 	public ArrayList<ChessMove> getValidMoves() {
-		ArrayList<ChessMove> moves = new ArrayList<ChessMove>();
-		for (ChessMove move : getPossibleMoves())
-			if (board.isValidMove(move))
-				moves.add(move);
-		
-		return moves;
+		MoveList moves = new MoveList();
+		addValidMoves(moves);
+		return ChessMove.toChessMoves(board, moves);
+	}
+	
+	/**
+	 * Used by the board's reverse attack query, see {@link Board#isSquareAttacked(int, Player)}.
+	 * The lines a piece captures along are given by its {@link PieceType}.
+	 * 
+	 * @param rankFile true for a rank-file line, false for a diagonal line
+	 * @param distance the number of tiles to the captured piece, with nothing in between
+	 * @return true if this piece can capture a piece along the line
+	 */
+	public final boolean capturesAlongLine(boolean rankFile, int distance) {
+		return getPieceType().capturesAlongLine(rankFile, distance);
+	}
+	
+	/**
+	 * Used by the board's reverse attack query, see {@link Board#isSquareAttacked(int, Player)}
+	 * 
+	 * @return true if this piece can capture a piece a knight's jump away
+	 */
+	public final boolean capturesByKnightJump() {
+		return getPieceType().capturesByKnightJump();
 	}
 	
+	/**
+	 * Creates a piece of the same type at this piece's location on another
+	 * board, see {@link Board#copy(Player, Player)}. The copy is added to the
+	 * board and the player like any new piece.
+	 * 
+	 * @param _board board the copy is placed on
+	 * @param _player player owning the copy
+	 * @return the new piece
+	 */
+	public abstract ChessPiece copy(Board _board, Player _player);
+	
 	/**
 	 * Used to determine a pieces type without using reflection (ie instanceof)
 	 * 
+	 * @return the type of the piece, ie the Pawn class would return PieceType.PAWN
+	 */
+	public abstract PieceType getPieceType();
+	
+	/**
 	 * @return A string that contains the name of the piece, ie the Pawn
 	 * class would return "Pawn"
 	 */
-	public abstract String getType();
+	public String getType() {
+		return getPieceType().getName();
+	}
 	
+	/**
+	 * Sets if this piece has moved, updating the board's position key
+	 * when the piece is on the board
+	 * 
+	 * @param hadMoved
+	 */
 	public void setHasMoved(boolean hadMoved) {
+		if (hasMoved == hadMoved)
+			return;
+		
 		hasMoved = hadMoved;
+		if (board.isInBounds(location) && board.getTile(location.x, location.y) == this)
+			board.toggleMovedKey(board.getSquare(location.x, location.y));
 	}
 	
 	/**
@@ -206,6 +340,13 @@ public abstract class ChessPiece implements Animatable {
 		return hasMoved;
 	}
 	
+	/**
+	 * @return the board this piece was created on
+	 */
+	public Board getBoard() {
+		return board;
+	}
+	
 	/**
 	 * @return the owning player
 	 */
@@ -221,6 +362,16 @@ public abstract class ChessPiece implements Animatable {
 	public void setLocation(Point _location) {
 		location.setLocation(_location);
 	}
+	
+	/**
+	 * Same as {@link #setLocation(Point) setLocation}
+	 * 
+	 * @param x Board location x
+	 * @param y Board location y
+	 */
+	public void setLocation(int x, int y) {
+		location.setLocation(x, y);
+	}
 
 	/**
 	 * @return Point representing the board location of this object
@@ -230,36 +381,63 @@ public abstract class ChessPiece implements Animatable {
 	}
 
 	/**
-	 * Renders this piece to the current openGL context. The drawX and
-	 * drawY are provided by the board, while the model is retrieved from 
-	 * the AssetLoader class. The model used is just the name of the piece
-	 * (ie getType())
+	 * The position this piece is rendered at, copied into the 
+	 * {@link RenderSnapshot} every frame
 	 * 
-	 * @param gl
-	 * @param drawX
-	 * @param drawZ
+	 * @return the x render position
 	 */
-	public void render(GL2 gl) {
-		AssetLoader.getInstance().bindTexture(gl, player.getColorTexture());
-		
-		gl.glPushMatrix();
-			gl.glTranslatef(drawLocationX, 0, drawLocationY);
-			AssetLoader.getInstance().getModel(getType()).render(gl);
-		gl.glPopMatrix();
+	public float getDrawLocationX() {
+		return drawLocationX;
+	}
+	
+	/**
+	 * @return the y render position, see {@link #getDrawLocationX()}
+	 */
+	public float getDrawLocationY() {
+		return drawLocationY;
 	}
 	
 	/**
-	 * So that this piece can be animatable, it must overload this method.
 	 * Two fields can be animated in the class, drawLocationX, and drawLocationY
 	 * which are the positions this piece will be rendered on the screen.
 	 * 
+	 * @return the handle to drawLocationX, see {@link controller.util.Animator}
 	 */
-	@Override
-	public void setValue(String fieldName, float value) {
-		if (fieldName.equals("drawLocationX"))
-			drawLocationX = value;
-		else if (fieldName.equals("drawLocationY"))
-			drawLocationY = value;
+	public FloatProperty getDrawLocationXProperty() {
+		if (drawLocationXProperty == null) {
+			drawLocationXProperty = new FloatProperty() {
+				@Override
+				public float get() {
+					return drawLocationX;
+				}
+				
+				@Override
+				public void set(float value) {
+					drawLocationX = value;
+				}
+			};
+		}
+		return drawLocationXProperty;
+	}
+	
+	/**
+	 * @return the handle to drawLocationY, see {@link controller.util.Animator}
+	 */
+	public FloatProperty getDrawLocationYProperty() {
+		if (drawLocationYProperty == null) {
+			drawLocationYProperty = new FloatProperty() {
+				@Override
+				public float get() {
+					return drawLocationY;
+				}
+				
+				@Override
+				public void set(float value) {
+					drawLocationY = value;
+				}
+			};
+		}
+		return drawLocationYProperty;
 	}
 	
 }
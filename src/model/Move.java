@@ -0,0 +1,142 @@
+package model;
+
+import model.board.Board;
+
+/**
+ * Utility class for the primitive representation of a chess move. A move is
+ * packed into a single int, so that move generation can fill a MoveList
+ * without creating any objects. The layout of the int is:
+ *
+ * <pre>
+ * bits  0 - 7   square the piece moves from
+ * bits  8 - 15  square the piece moves to
+ * bits 16 - 19  code of the moving piece
+ * bits 20 - 23  code of the captured piece (NONE if nothing is captured)
+ * bits 24 - 31  flags
+ * </pre>
+ *
+ * Squares are the indices given by {@link Board#getSquare(int, int)}, so only
+ * boards with up to MAX_SQUARES tiles can be represented. ChessMove remains the
+ * object representation used by the UI, see {@link ChessMove#ChessMove(Board, int)}
+ *
+ */
+public final class Move {
+
+	/**
+	 * Largest number of squares a board may have to be used with packed moves
+	 */
+	public final static int MAX_SQUARES = 256;
+
+	/**
+	 * Piece codes stored in the piece and captured fields
+	 */
+	public final static int NONE = 0;
+	public final static int PAWN = 1;
+	public final static int KNIGHT = 2;
+	public final static int BISHOP = 3;
+	public final static int ROOK = 4;
+	public final static int QUEEN = 5;
+	public final static int KING = 6;
+	public final static int CHANCELLOR = 7;
+	public final static int LAME_QUEEN = 8;
+
+	/**
+	 * Set if the move captures a piece
+	 */
+	public final static int FLAG_CAPTURE = 1;
+
+	/**
+	 * Set if the moving piece had not moved before this move
+	 */
+	public final static int FLAG_FIRST_MOVE = 2;
+
+	private Move() { }
+
+	/**
+	 * Packs the given fields into a move
+	 *
+	 * @param from square moved from
+	 * @param to square moved to
+	 * @param piece code of the moving piece
+	 * @param captured code of the captured piece, or NONE
+	 * @param flags any of the FLAG_ constants
+	 * @return the packed move
+	 */
+	public static int encode(int from, int to, int piece, int captured, int flags) {
+		return from | (to << 8) | (piece << 16) | (captured << 20) | (flags << 24);
+	}
+
+	/**
+	 * Creates the packed move for piece moving to (x, y) on the board. The
+	 * captured piece and flags are taken from the current state of the board
+	 *
+	 * @param board
+	 * @param piece piece that is moving
+	 * @param x Board location x
+	 * @param y Board location y
+	 * @return the packed move
+	 */
+	public static int create(Board board, ChessPiece piece, int x, int y) {
+		return create(board, board.getSquare(piece.getLocation().x, piece.getLocation().y),
+				board.getSquare(x, y));
+	}
+
+	/**
+	 * Same as {@link #create(Board, ChessPiece, int, int)} for a move given
+	 * by square indices, the moving piece is the piece on from
+	 *
+	 * @param board
+	 * @param from square of the moving piece
+	 * @param to square moved to
+	 * @return the packed move
+	 */
+	public static int create(Board board, int from, int to) {
+		ChessPiece piece = board.getTile(from);
+		ChessPiece target = board.getTile(to);
+		int captured = NONE;
+		int flags = piece.getHasMoved() ? 0 : FLAG_FIRST_MOVE;
+		if (target != null && target.getPlayer() != piece.getPlayer()) {
+			captured = pieceCode(target);
+			flags |= FLAG_CAPTURE;
+		}
+
+		return encode(from, to, pieceCode(piece), captured, flags);
+	}
+
+	/**
+	 * @param piece
+	 * @return the code used to store the piece's type in a move
+	 */
+	public static int pieceCode(ChessPiece piece) {
+		return piece.getPieceType().getCode();
+	}
+
+	public static int getFrom(int move) {
+		return move & 0xFF;
+	}
+
+	public static int getTo(int move) {
+		return (move >>> 8) & 0xFF;
+	}
+
+	public static int getPiece(int move) {
+		return (move >>> 16) & 0xF;
+	}
+
+	public static int getCaptured(int move) {
+		return (move >>> 20) & 0xF;
+	}
+
+	public static int getFlags(int move) {
+		return move >>> 24;
+	}
+
+	public static boolean isCapture(int move) {
+		return (getFlags(move) & FLAG_CAPTURE) != 0;
+	}
+
+	public static boolean isFirstMove(int move) {
+		return (getFlags(move) & FLAG_FIRST_MOVE) != 0;
+	}
+
+}
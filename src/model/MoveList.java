@@ -0,0 +1,90 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Reusable list of packed moves (see {@link Move}). The list is backed by
+ * an int array that is allocated once, so a search can keep one MoveList
+ * per ply and refill it with clear() instead of creating new lists.
+ *
+ */
+public class MoveList {
+
+	/**
+	 * Default capacity, large enough for any position on a regulation board
+	 */
+	public final static int DEFAULT_CAPACITY = 256;
+
+	private int[] moves;
+	private int count;
+
+	public MoveList() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public MoveList(int capacity) {
+		moves = new int[capacity];
+		count = 0;
+	}
+
+	/**
+	 * Appends the move, the backing array only grows if the capacity
+	 * is exceeded
+	 *
+	 * @param move packed move
+	 */
+	public void add(int move) {
+		if (count == moves.length)
+			moves = Arrays.copyOf(moves, moves.length * 2);
+
+		moves[count ++] = move;
+	}
+
+	public int get(int index) {
+		return moves[index];
+	}
+
+	public void set(int index, int move) {
+		moves[index] = move;
+	}
+
+	public void swap(int i, int j) {
+		int tmp = moves[i];
+		moves[i] = moves[j];
+		moves[j] = tmp;
+	}
+
+	/**
+	 * @param move
+	 * @return true if the packed move is in the list
+	 */
+	public boolean contains(int move) {
+		for (int i = 0;i < count;i ++)
+			if (moves[i] == move)
+				return true;
+
+		return false;
+	}
+
+	public int size() {
+		return count;
+	}
+
+	public boolean isEmpty() {
+		return count == 0;
+	}
+
+	/**
+	 * Removes all the moves after the first size moves
+	 *
+	 * @param size the new size of the list
+	 */
+	public void truncate(int size) {
+		count = size;
+	}
+
+	public void clear() {
+		count = 0;
+	}
+
+}
@@ -0,0 +1,256 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import model.board.Board;
+import model.game_modes.GameMode;
+import model.game_modes.LosersGameMode;
+import model.game_modes.StandardGame;
+import controller.Player;
+
+/**
+ * Perft (performance test) counts the leaf nodes of the move tree to a given
+ * depth, by generating every valid move with {@link Board#getAllMoves(Player, MoveList)}
+ * and walking it with {@link ChessMove#executeMove(boolean)} and {@link ChessMove#undoMove()}.
+ * Because the node counts of a position are known, perft proves a change to the
+ * move generator is still correct, and the nodes per second measure its speed.
+ *
+ * divide() gives the node count below each root move, which is used to find the
+ * move that a broken generator gets wrong. perftParallel() splits the root moves
+ * across a ForkJoinPool, searching each one on its own copy of the board.
+ *
+ * Usage: java model.Perft [standard|losers] depth [divide|parallel]
+ *
+ */
+public class Perft {
+
+	/**
+	 * Known node counts from the starting position of each game mode,
+	 * index i is the count for depth i + 1. The standard counts match regulation
+	 * chess up to depth 4, at depth 5 they are short the 258 en passant captures
+	 */
+	public final static long[] STANDARD_NODES = { 20, 400, 8902, 197281, 4865351 };
+	public final static long[] LOSERS_NODES = { 20, 400, 8067, 153299 };
+
+	private Board board;
+	private Player player;
+
+	/**
+	 * Move list and ChessMove reused at each ply
+	 */
+	private MoveList[] moveLists;
+	private ChessMove[] plyMoves;
+
+	/**
+	 * @param _board board to search, it is restored after each search
+	 * @param _player the player to move
+	 */
+	public Perft(Board _board, Player _player) {
+		board = _board;
+		player = _player;
+		moveLists = new MoveList[0];
+		plyMoves = new ChessMove[0];
+	}
+
+	/**
+	 * @param depth number of plies to search
+	 * @return the number of leaf nodes at the depth
+	 */
+	public long perft(int depth) {
+		if (depth <= 0)
+			return 1;
+
+		ensureDepth(depth);
+		return search(player, depth);
+	}
+
+	private void ensureDepth(int depth) {
+		if (moveLists.length >= depth)
+			return;
+
+		moveLists = new MoveList[depth];
+		plyMoves = new ChessMove[depth];
+		for (int i = 0;i < depth;i ++)
+			moveLists[i] = new MoveList();
+	}
+
+	private long search(Player mover, int depth) {
+		MoveList moves = moveLists[depth - 1];
+		moves.clear();
+		board.getAllMoves(mover, moves);
+		if (depth == 1)
+			return moves.size();
+
+		long nodes = 0;
+		for (int i = 0;i < moves.size();i ++) {
+			ChessMove move = setMove(depth, moves.get(i));
+			move.executeMove(false);
+			nodes += search(mover.getOtherPlayer(), depth - 1);
+			move.undoMove();
+		}
+		return nodes;
+	}
+
+	/**
+	 * @return the ChessMove of the ply, reinitialized to the packed move
+	 */
+	private ChessMove setMove(int depth, int packed) {
+		ChessMove move = plyMoves[depth - 1];
+		if (move == null)
+			plyMoves[depth - 1] = move = new ChessMove(board, packed);
+		else
+			move.setMove(board, packed);
+
+		return move;
+	}
+
+	/**
+	 * @param depth number of plies to search, at least 1
+	 * @return the node count below each root move, in the order the moves are
+	 *  generated, keyed by {@link #moveName(Board, int)}
+	 */
+	public Map<String, Long> divide(int depth) {
+		ensureDepth(depth);
+		MoveList moves = new MoveList();
+		board.getAllMoves(player, moves);
+
+		Map<String, Long> counts = new LinkedHashMap<String, Long>();
+		for (int i = 0;i < moves.size();i ++) {
+			ChessMove move = new ChessMove(board, moves.get(i));
+			move.executeMove(false);
+			counts.put(moveName(board, moves.get(i)), (depth > 1) ? search(player.getOtherPlayer(), depth - 1) : 1);
+			move.undoMove();
+		}
+		return counts;
+	}
+
+	/**
+	 * Same as {@link #perft(int)}, but each root move is searched by a task of the
+	 * pool on its own copy of the board (see {@link Board#copy(Player, Player)})
+	 *
+	 * @param depth number of plies to search
+	 * @param pool pool to run the root moves on
+	 * @return the number of leaf nodes at the depth
+	 */
+	public long perftParallel(int depth, ForkJoinPool pool) {
+		if (depth <= 1)
+			return perft(depth);
+
+		MoveList moves = new MoveList();
+		board.getAllMoves(player, moves);
+
+		//the copies are made here, so the tasks never read this board
+		final List<RootTask> tasks = new ArrayList<RootTask>(moves.size());
+		for (int i = 0;i < moves.size();i ++)
+			tasks.add(new RootTask(board, player, moves.get(i), depth - 1));
+
+		return pool.invoke(new RecursiveTask<Long>() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected Long compute() {
+				invokeAll(tasks);
+				long nodes = 0;
+				for (RootTask task : tasks)
+					nodes += task.join();
+
+				return nodes;
+			}
+		});
+	}
+
+	/**
+	 * Searches a single root move on a copy of the board
+	 */
+	private static class RootTask extends RecursiveTask<Long> {
+
+		private static final long serialVersionUID = 1L;
+
+		private Board copy;
+		private Player mover;
+		private int move;
+		private int depth;
+
+		RootTask(Board board, Player player, int _move, int _depth) {
+			Player player1 = new Player(player.getDirection(), false, null);
+			Player player2 = new Player(-player.getDirection(), false, null);
+			player1.setOtherPlayer(player2);
+			player2.setOtherPlayer(player1);
+			copy = board.copy(player1, player2);
+			mover = player1;
+			move = _move;
+			depth = _depth;
+		}
+
+		@Override
+		protected Long compute() {
+			new ChessMove(copy, move).executeMove(false);
+			return new Perft(copy, mover.getOtherPlayer()).perft(depth);
+		}
+
+	}
+
+	/**
+	 * @param board
+	 * @param move packed move
+	 * @return the move as "(x, y) -> (x, y)"
+	 */
+	public static String moveName(Board board, int move) {
+		int from = Move.getFrom(move);
+		int to = Move.getTo(move);
+		return "(" + board.getSquareX(from) + ", " + board.getSquareY(from) + ") -> ("
+				+ board.getSquareX(to) + ", " + board.getSquareY(to) + ")";
+	}
+
+	/**
+	 * @param gameMode
+	 * @return the known node counts from the starting position of the game mode,
+	 *  null if there are none
+	 */
+	public static long[] knownNodes(GameMode gameMode) {
+		if (gameMode instanceof StandardGame)
+			return STANDARD_NODES;
+		if (gameMode instanceof LosersGameMode)
+			return LOSERS_NODES;
+
+		return null;
+	}
+
+	public static void main(String[] args) {
+		GameMode gameMode = (args.length > 0 && args[0].equals("losers")) ? new LosersGameMode() : new StandardGame();
+		int depth = (args.length > 1) ? Integer.parseInt(args[1]) : 4;
+		String mode = (args.length > 2) ? args[2] : "";
+
+		Player player1 = new Player(1, false, null);
+		Player player2 = new Player(-1, false, null);
+		player1.setOtherPlayer(player2);
+		player2.setOtherPlayer(player1);
+		Perft perft = new Perft(gameMode.initPieces(player1, player2), player1);
+
+		long start = System.nanoTime();
+		long nodes = 0;
+		if (mode.equals("divide")) {
+			for (Map.Entry<String, Long> entry : perft.divide(depth).entrySet()) {
+				System.out.println(entry.getKey() + ": " + entry.getValue());
+				nodes += entry.getValue();
+			}
+		} else if (mode.equals("parallel")) {
+			nodes = perft.perftParallel(depth, ForkJoinPool.commonPool());
+		} else {
+			nodes = perft.perft(depth);
+		}
+		long time = System.nanoTime() - start;
+
+		System.out.println("depth " + depth + " nodes " + nodes + " time " + (time / 1000000) + "ms "
+				+ (long) (nodes / (time / 1.0E9)) + " nodes/sec");
+		long[] known = knownNodes(gameMode);
+		if (known != null && depth <= known.length && known[depth - 1] != nodes)
+			System.out.println("MISMATCH, expected " + known[depth - 1]);
+	}
+
+}
@@ -0,0 +1,119 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Indexed list of chess pieces, used by the Player for its pieces. Every piece
+ * knows its slot in the list, so a piece is removed in constant time by moving
+ * the last piece into its slot. A removed piece keeps its slot, and restoring it
+ * moves the piece now in that slot back to the end, so removing and restoring
+ * pieces in reverse order (as moves are made and unmade) leaves the pieces in
+ * their original order. Iterate with get(i) up to size(), which allocates nothing.
+ *
+ * A piece can be in two lists, the player's list of all its pieces and the list
+ * of its kind of piece, each keeps the piece's slot in its own field.
+ *
+ */
+public class PieceList {
+
+	private final static int DEFAULT_CAPACITY = 16;
+
+	private ChessPiece[] pieces;
+	private int count;
+
+	/**
+	 * True if this list keeps the slots in the pieces' kind slot
+	 */
+	private final boolean kindList;
+
+	/**
+	 * @param _kindList true for a list of one kind of piece, false for
+	 *  a player's list of all its pieces
+	 */
+	public PieceList(boolean _kindList) {
+		pieces = new ChessPiece[DEFAULT_CAPACITY];
+		kindList = _kindList;
+	}
+
+	/**
+	 * Appends the piece
+	 *
+	 * @param piece
+	 */
+	public void add(ChessPiece piece) {
+		if (count == pieces.length)
+			pieces = Arrays.copyOf(pieces, pieces.length * 2);
+
+		setSlot(piece, count);
+		pieces[count ++] = piece;
+	}
+
+	/**
+	 * Removes the piece, moving the last piece into its slot
+	 *
+	 * @param piece a piece in the list
+	 */
+	public void remove(ChessPiece piece) {
+		int slot = getSlot(piece);
+		ChessPiece last = pieces[-- count];
+		pieces[slot] = last;
+		setSlot(last, slot);
+		pieces[count] = null;
+		setSlot(piece, slot); //kept to restore the piece in place
+	}
+
+	/**
+	 * Adds a removed piece back in the slot it was removed from, moving the
+	 * piece now in the slot to the end. Undoes the last removal exactly.
+	 *
+	 * @param piece a piece removed from the list
+	 */
+	public void restore(ChessPiece piece) {
+		int slot = getSlot(piece);
+		if (slot >= count) {
+			add(piece);
+			return;
+		}
+
+		add(pieces[slot]);
+		pieces[slot] = piece;
+	}
+
+	public ChessPiece get(int index) {
+		return pieces[index];
+	}
+
+	public int size() {
+		return count;
+	}
+
+	public boolean isEmpty() {
+		return count == 0;
+	}
+
+	/**
+	 * @param piece
+	 * @return true if the piece is in the list
+	 */
+	public boolean contains(ChessPiece piece) {
+		int slot = getSlot(piece);
+		return slot < count && pieces[slot] == piece;
+	}
+
+	public void clear() {
+		Arrays.fill(pieces, 0, count, null);
+		count = 0;
+	}
+
+	private int getSlot(ChessPiece piece) {
+		return kindList ? piece.kindSlot : piece.slot;
+	}
+
+	private void setSlot(ChessPiece piece, int slot) {
+		if (kindList)
+			piece.kindSlot = slot;
+		else
+			piece.slot = slot;
+	}
+
+}
@@ -0,0 +1,111 @@
+package model;
+
+/**
+ * The kinds of chess piece. Every ChessPiece subclass returns its type from
+ * {@link ChessPiece#getPieceType()}, so the rules, the search and the renderer
+ * compare types and index arrays by {@link #ordinal()} instead of comparing the
+ * names. The name is only used to load the piece's model.
+ *
+ * Each type also holds the piece's material value and how it captures, which
+ * the reverse attack query uses (see {@link model.board.Board#isSquareAttacked(int, controller.Player)}).
+ *
+ */
+public enum PieceType {
+
+	PAWN("Pawn", Move.PAWN, 100, 0, 0, false),
+	KNIGHT("Knight", Move.KNIGHT, 300, 0, 0, true),
+	BISHOP("Bishop", Move.BISHOP, 300, 0, PieceType.UNLIMITED, false),
+	ROOK("Rook", Move.ROOK, 500, PieceType.UNLIMITED, 0, false),
+	QUEEN("Queen", Move.QUEEN, 900, PieceType.UNLIMITED, PieceType.UNLIMITED, false),
+	KING("King", Move.KING, 0, 1, 1, false),
+	CHANCELLOR("Chancellor", Move.CHANCELLOR, 800, PieceType.UNLIMITED, 0, true),
+	/**
+	 * Moves like a queen, but only captures on the diagonals
+	 */
+	LAME_QUEEN("LameQueen", Move.LAME_QUEEN, 600, 0, PieceType.UNLIMITED, false);
+
+	/**
+	 * Capture range of a piece that slides any distance along a line
+	 */
+	public final static int UNLIMITED = Integer.MAX_VALUE;
+
+	/**
+	 * Types by piece code, see {@link Move}
+	 */
+	private final static PieceType[] BY_CODE = new PieceType[Move.LAME_QUEEN + 1];
+
+	static {
+		for (PieceType type : values())
+			BY_CODE[type.code] = type;
+	}
+
+	private final String name;
+	private final int code;
+	private final int value;
+	private final int rankFileRange;
+	private final int diagonalRange;
+	private final boolean knightJump;
+
+	/**
+	 * @param _name name of the piece's model
+	 * @param _code code of the piece in a packed move
+	 * @param _value material value in centipawns, 0 for the king
+	 * @param _rankFileRange furthest distance the piece captures along a rank or file
+	 * @param _diagonalRange furthest distance the piece captures along a diagonal
+	 * @param _knightJump true if the piece captures a knight's jump away
+	 */
+	private PieceType(String _name, int _code, int _value, int _rankFileRange, int _diagonalRange, boolean _knightJump) {
+		name = _name;
+		code = _code;
+		value = _value;
+		rankFileRange = _rankFileRange;
+		diagonalRange = _diagonalRange;
+		knightJump = _knightJump;
+	}
+
+	/**
+	 * @param code piece code, see {@link Move}
+	 * @return the type of the code
+	 */
+	public static PieceType fromCode(int code) {
+		return BY_CODE[code];
+	}
+
+	/**
+	 * @return the name of the piece, ie "Pawn", which is also the name of its model
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the code of the piece in a packed move, see {@link Move}
+	 */
+	public int getCode() {
+		return code;
+	}
+
+	/**
+	 * @return the material value in centipawns
+	 */
+	public int getValue() {
+		return value;
+	}
+
+	/**
+	 * @param rankFile true for a rank-file line, false for a diagonal line
+	 * @param distance the number of tiles to the captured piece, with nothing in between
+	 * @return true if the piece can capture a piece along the line
+	 */
+	public boolean capturesAlongLine(boolean rankFile, int distance) {
+		return distance <= (rankFile ? rankFileRange : diagonalRange);
+	}
+
+	/**
+	 * @return true if the piece can capture a piece a knight's jump away
+	 */
+	public boolean capturesByKnightJump() {
+		return knightJump;
+	}
+
+}
@@ -0,0 +1,212 @@
+package model;
+
+import model.board.Board;
+import controller.Player;
+
+/**
+ * The legal moves, check state and result of one position, computed once by the
+ * GameLoop after every move executed or undone, so the renderer and the input
+ * handler don't generate the moves again every frame and every click.
+ *
+ * The moves are kept in the order the board generates them, piece by piece, so
+ * the moves of a piece are one run of the list found from its square. A table by
+ * start and destination square finds a move in constant time.
+ *
+ * The methods are synchronized, the GameLoop updates the status while the
+ * renderer and the input handler read it from their own threads.
+ *
+ */
+public class PositionStatus {
+
+	/**
+	 * Results of the position, for the player to move
+	 */
+	public final static int PLAYING = 0;
+	public final static int LOST = 1;
+	public final static int DRAWN = 2;
+
+	/**
+	 * Returned by findMove() when the move isn't legal, 0 is never a packed move
+	 */
+	public final static int NO_MOVE = 0;
+
+	private final MoveList moves;
+
+	/**
+	 * First move and number of moves of each start square
+	 */
+	private int[] firstMove;
+	private int[] moveCounts;
+
+	/**
+	 * Packed moves by start square * squares + destination square, NO_MOVE where
+	 * there is no move
+	 */
+	private int[] movesByTarget;
+	private int squares;
+
+	private Board board;
+	private Player mover;
+	private long positionKey;
+	private boolean inCheck;
+	private int result;
+
+	public PositionStatus() {
+		moves = new MoveList();
+	}
+
+	/**
+	 * Generates the mover's legal moves and works out the result. Only the entries
+	 * of the previous position's moves are cleared, nothing is allocated unless
+	 * the board is bigger than any before.
+	 *
+	 * @param _board
+	 * @param _mover the player to move
+	 */
+	public synchronized void update(Board _board, Player _mover) {
+		invalidate();
+		if (_board.getSquareCount() != squares) {
+			squares = _board.getSquareCount();
+			firstMove = new int[squares];
+			moveCounts = new int[squares];
+			movesByTarget = new int[squares * squares];
+		}
+
+		board = _board;
+		mover = _mover;
+		positionKey = board.positionKey();
+		board.getAllMoves(mover, moves);
+		for (int i = 0;i < moves.size();i ++) {
+			int move = moves.get(i);
+			int from = Move.getFrom(move);
+			if (moveCounts[from] ++ == 0)
+				firstMove[from] = i;
+			movesByTarget[from * squares + Move.getTo(move)] = move;
+		}
+
+		inCheck = board.getGameMode().hasPlayerLost(board, mover);
+		if (!moves.isEmpty())
+			result = PLAYING;
+		else
+			result = inCheck ? LOST : DRAWN;
+	}
+
+	/**
+	 * Clears the status, until the next update it has no moves and no board
+	 */
+	public synchronized void invalidate() {
+		for (int i = 0;i < moves.size();i ++) {
+			int move = moves.get(i);
+			moveCounts[Move.getFrom(move)] = 0;
+			movesByTarget[Move.getFrom(move) * squares + Move.getTo(move)] = NO_MOVE;
+		}
+		moves.clear();
+		board = null;
+		mover = null;
+		inCheck = false;
+		result = PLAYING;
+	}
+
+	/**
+	 * @param square
+	 * @return true if a piece of the player to move is on the square, and has a legal move
+	 */
+	public synchronized boolean hasMoves(int square) {
+		return square >= 0 && square < squares && moveCounts[square] != 0;
+	}
+	
+	/**
+	 * Finds a move by squares only, so the input handler never reads the pieces
+	 * the game thread is moving
+	 * 
+	 * @param from start square
+	 * @param to destination square
+	 * @return the packed move from the square to the square, NO_MOVE if it isn't legal
+	 */
+	public synchronized int findMove(int from, int to) {
+		if (from < 0 || from >= squares || to < 0 || to >= squares)
+			return NO_MOVE;
+		
+		return movesByTarget[from * squares + to];
+	}
+
+	/**
+	 * Copies the destination squares of the piece's legal moves
+	 *
+	 * @param piece
+	 * @param targets array the squares are copied to, long enough for the board's squares
+	 * @return the number of squares copied
+	 */
+	public synchronized int getTargets(ChessPiece piece, int[] targets) {
+		if (!isFor(piece))
+			return 0;
+
+		int from = piece.getSquare();
+		int count = moveCounts[from];
+		for (int i = 0;i < count;i ++)
+			targets[i] = Move.getTo(moves.get(firstMove[from] + i));
+		return count;
+	}
+
+	/**
+	 * @return true if the piece is on the board of this status, and it is its turn
+	 */
+	private boolean isFor(ChessPiece piece) {
+		return piece != null && board != null && piece.getPlayer() == mover && piece.getBoard() == board;
+	}
+
+	/**
+	 * @return a copy of all the legal moves
+	 */
+	public synchronized MoveList getMoves() {
+		MoveList copy = new MoveList(Math.max(moves.size(), 1));
+		for (int i = 0;i < moves.size();i ++)
+			copy.add(moves.get(i));
+		return copy;
+	}
+
+	public synchronized int getMoveCount() {
+		return moves.size();
+	}
+
+	/**
+	 * @return true if the game mode's losing condition holds for the player to move,
+	 *  in a standard game if its king is in check
+	 */
+	public synchronized boolean isInCheck() {
+		return inCheck;
+	}
+
+	/**
+	 * @return PLAYING, or LOST or DRAWN if the player to move has no legal moves
+	 */
+	public synchronized int getResult() {
+		return result;
+	}
+
+	public synchronized boolean isGameOver() {
+		return result != PLAYING;
+	}
+
+	public synchronized Board getBoard() {
+		return board;
+	}
+
+	public synchronized Player getMover() {
+		return mover;
+	}
+
+	/**
+	 * @return the key of the position the moves were generated for
+	 */
+	public synchronized long getPositionKey() {
+		return positionKey;
+	}
+
+	@Override
+	public synchronized String toString() {
+		String resultString = (result == PLAYING) ? "playing" : (result == LOST) ? "lost" : "drawn";
+		return "PositionStatus " + moves.size() + " moves, " + (inCheck ? "in check, " : "") + resultString;
+	}
+
+}
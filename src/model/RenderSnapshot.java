@@ -0,0 +1,222 @@
+package model;
+
+import java.awt.Point;
+import java.awt.geom.Point2D;
+import java.util.Arrays;
+
+import com.jogamp.opengl.GL2;
+
+import model.board.Board;
+import view.loaders.AssetLoader;
+import view.loaders.structures.Model;
+
+/**
+ * What the renderer draws of one frame: the board's model, and for every piece
+ * on the board its type, colour, square and draw position, with the render
+ * positions of its legal moves, which are highlighted when the piece is selected.
+ * A snapshot holds no reference to the board or the pieces, so rendering it never
+ * reads the model while the game thread is changing it.
+ *
+ * Snapshots are filled by the game thread and handed to the renderer by a
+ * {@link SnapshotExchange}, which reuses them, so the arrays are only grown.
+ * Once published a snapshot isn't changed until the renderer hands it back.
+ *
+ */
+public class RenderSnapshot {
+
+	private final static int DEFAULT_PIECES = 32;
+
+	/**
+	 * Increases with every snapshot published, 0 for a snapshot never filled
+	 */
+	private long version;
+
+	/**
+	 * The board the models were found for, a new board is only set up with a new game
+	 */
+	private Board modelBoard;
+	private Model boardModel;
+	private Model tileModel;
+
+	private int pieceCount;
+	private PieceType[] types;
+	private int[] colors;
+	private int[] squares;
+	private float[] drawX;
+	private float[] drawY;
+
+	/**
+	 * Render positions of the pieces' legal moves, the moves of piece i are
+	 * from targetStart[i] up to targetStart[i + 1]
+	 */
+	private int[] targetStart;
+	private float[] targetX;
+	private float[] targetY;
+	private int targetCount;
+
+	/**
+	 * The position the targets were filled for, compared by the game thread
+	 * only, so the targets are only filled again after a move
+	 */
+	private Board targetBoard;
+	private long targetKey;
+
+	/**
+	 * Used while filling the targets
+	 */
+	private int[] squareBuffer;
+	private Point tile;
+
+	RenderSnapshot() {
+		types = new PieceType[DEFAULT_PIECES];
+		colors = new int[DEFAULT_PIECES];
+		squares = new int[DEFAULT_PIECES];
+		drawX = new float[DEFAULT_PIECES];
+		drawY = new float[DEFAULT_PIECES];
+		targetStart = new int[DEFAULT_PIECES + 1];
+		targetX = new float[MoveList.DEFAULT_CAPACITY];
+		targetY = new float[MoveList.DEFAULT_CAPACITY];
+		tile = new Point();
+	}
+
+	/**
+	 * Fills the snapshot from the board, must be called by the thread that
+	 * changes the board, between moves
+	 *
+	 * @param board
+	 * @param status the status of the board's position, which has the legal moves
+	 * @param _version the version of the snapshot
+	 */
+	void capture(Board board, PositionStatus status, long _version) {
+		version = _version;
+		if (board != modelBoard || boardModel == null) {
+			modelBoard = board;
+			boardModel = AssetLoader.getInstance().getModel(board.getType());
+			tileModel = AssetLoader.getInstance().getModel(board.getType() + ":Tile");
+		}
+
+		//the pieces are in square order, so they are in the same order until the next move
+		boolean samePosition = board == targetBoard && board.positionKey() == targetKey;
+		int count = 0;
+		for (int sq = 0;sq < board.getSquareCount();sq ++) {
+			ChessPiece piece = board.getTile(sq);
+			if (piece == null)
+				continue;
+
+			if (count == types.length)
+				grow(count * 2);
+			types[count] = piece.getPieceType();
+			colors[count] = piece.getPlayer().getColor();
+			squares[count] = sq;
+			drawX[count] = piece.getDrawLocationX();
+			drawY[count] = piece.getDrawLocationY();
+			if (!samePosition)
+				addTargets(board, status, piece, count);
+			count ++;
+		}
+		pieceCount = count;
+
+		if (!samePosition) {
+			targetBoard = board;
+			targetKey = board.positionKey();
+		}
+	}
+
+	private void addTargets(Board board, PositionStatus status, ChessPiece piece, int index) {
+		if (index == 0)
+			targetCount = 0;
+		if (squareBuffer == null || squareBuffer.length < board.getSquareCount())
+			squareBuffer = new int[board.getSquareCount()];
+
+		targetStart[index] = targetCount;
+		int targets = status.getTargets(piece, squareBuffer);
+		if (targetCount + targets > targetX.length) {
+			targetX = Arrays.copyOf(targetX, (targetCount + targets) * 2);
+			targetY = Arrays.copyOf(targetY, (targetCount + targets) * 2);
+		}
+		for (int i = 0;i < targets;i ++) {
+			tile.setLocation(board.getSquareX(squareBuffer[i]), board.getSquareY(squareBuffer[i]));
+			Point2D.Float position = board.getRenderPosition(tile);
+			targetX[targetCount] = position.x;
+			targetY[targetCount] = position.y;
+			targetCount ++;
+		}
+		targetStart[index + 1] = targetCount;
+	}
+
+	private void grow(int capacity) {
+		types = Arrays.copyOf(types, capacity);
+		colors = Arrays.copyOf(colors, capacity);
+		squares = Arrays.copyOf(squares, capacity);
+		drawX = Arrays.copyOf(drawX, capacity);
+		drawY = Arrays.copyOf(drawY, capacity);
+		targetStart = Arrays.copyOf(targetStart, capacity + 1);
+	}
+
+	/**
+	 * Renders the board's model and the pieces, and highlights the tiles the
+	 * selected piece can move to
+	 *
+	 * @param gl
+	 * @param selectedSquare the square of the selected piece, -1 if there is none
+	 */
+	public void render(GL2 gl, int selectedSquare) {
+		if (boardModel == null)
+			return;
+
+		AssetLoader assets = AssetLoader.getInstance();
+		boardModel.render(gl);
+		int selected = -1;
+		for (int i = 0;i < pieceCount;i ++) {
+			assets.bindColorTexture(gl, colors[i]);
+			gl.glPushMatrix();
+				gl.glTranslatef(drawX[i], 0, drawY[i]);
+				assets.getModel(types[i]).render(gl);
+			gl.glPopMatrix();
+			if (squares[i] == selectedSquare)
+				selected = i;
+		}
+
+		if (selected >= 0) {
+			for (int i = targetStart[selected];i < targetStart[selected + 1];i ++) {
+				gl.glPushMatrix();
+					gl.glTranslatef(targetX[i], 0, targetY[i]);
+					tileModel.render(gl);
+				gl.glPopMatrix();
+			}
+		}
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public int getPieceCount() {
+		return pieceCount;
+	}
+
+	public PieceType getPieceType(int piece) {
+		return types[piece];
+	}
+
+	public int getSquare(int piece) {
+		return squares[piece];
+	}
+
+	public float getDrawX(int piece) {
+		return drawX[piece];
+	}
+
+	public float getDrawY(int piece) {
+		return drawY[piece];
+	}
+
+	/**
+	 * @param piece
+	 * @return the number of tiles highlighted when the piece is selected
+	 */
+	public int getTargetCount(int piece) {
+		return targetStart[piece + 1] - targetStart[piece];
+	}
+
+}
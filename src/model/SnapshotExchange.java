@@ -0,0 +1,69 @@
+package model;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import model.board.Board;
+
+/**
+ * Hands render snapshots from the game thread to the renderer without a lock.
+ * Three snapshots are reused: the game thread fills its own, then swaps it with
+ * the shared one, and the renderer swaps its own with the shared one when the
+ * shared one is newer. Each thread only ever changes the snapshot it holds, so
+ * the renderer always reads a whole snapshot, of the last frame published.
+ *
+ * There must only be one thread publishing and one thread rendering.
+ *
+ */
+public class SnapshotExchange {
+
+	/**
+	 * The snapshot the game thread fills, and the one the renderer reads
+	 */
+	private RenderSnapshot back;
+	private RenderSnapshot front;
+
+	/**
+	 * The last snapshot published, or one the renderer handed back
+	 */
+	private final AtomicReference<RenderSnapshot> shared;
+
+	private long version;
+
+	public SnapshotExchange() {
+		back = new RenderSnapshot();
+		front = new RenderSnapshot();
+		shared = new AtomicReference<RenderSnapshot>(new RenderSnapshot());
+	}
+
+	/**
+	 * Fills a snapshot of the board and publishes it, called by the game thread
+	 * between moves
+	 *
+	 * @param board
+	 * @param status the status of the board's position
+	 */
+	public void publish(Board board, PositionStatus status) {
+		back.capture(board, status, ++ version);
+		back = shared.getAndSet(back);
+	}
+
+	/**
+	 * Takes the last snapshot published, called by the renderer. The snapshot
+	 * can be read until the next call.
+	 *
+	 * @return the last snapshot published, an empty snapshot if there was none
+	 */
+	public RenderSnapshot acquire() {
+		if (shared.get().getVersion() > front.getVersion())
+			front = shared.getAndSet(front);
+		return front;
+	}
+
+	/**
+	 * @return the number of snapshots published
+	 */
+	public long getPublished() {
+		return version;
+	}
+
+}
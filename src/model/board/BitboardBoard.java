@@ -0,0 +1,235 @@
+package model.board;
+
+import model.ChessPiece;
+import model.PieceType;
+import model.game_modes.GameMode;
+import controller.Player;
+
+/**
+ * Regulation sized (8, 8) rectangular board that, on top of the piece array
+ * kept by RectangularBoard, maintains 64-bit occupancy masks for every player
+ * and every piece type. The masks are updated inside setTile(), so occupancy,
+ * enemy and attack tests are answered with a few bit operations instead of
+ * walking piece objects.
+ *
+ * Square index of a tile is (y * 8 + x), so bit 0 is (0, 0) and bit 63 is (7, 7)
+ *
+ */
+public class BitboardBoard extends RectangularBoard {
+
+	private final static int SIZE = 8;
+
+	/**
+	 * Indices of each piece type in the pieceMasks array
+	 */
+	private final static int PAWN = 0;
+	private final static int KNIGHT = 1;
+	private final static int BISHOP = 2;
+	private final static int ROOK = 3;
+	private final static int QUEEN = 4;
+	private final static int KING = 5;
+	private final static int CHANCELLOR = 6;
+	private final static int LAME_QUEEN = 7;
+	private final static int PIECE_TYPES = 8;
+
+	/**
+	 * Ray directions, the first four step towards higher square indices
+	 */
+	private final static int[] DIR_X = { 0, 1, 1, -1, 0, -1, 1, -1 };
+	private final static int[] DIR_Y = { 1, 0, 1, 1, -1, 0, -1, -1 };
+	private final static int[] RANK_FILE_DIRS = { 0, 1, 4, 5 };
+	private final static int[] DIAGONAL_DIRS = { 2, 3, 6, 7 };
+
+	/**
+	 * Precomputed attack tables, indexed by square
+	 */
+	private final static long[][] RAYS = new long[DIR_X.length][SIZE * SIZE];
+	private final static long[] KNIGHT_ATTACKS = new long[SIZE * SIZE];
+	private final static long[] KING_ATTACKS = new long[SIZE * SIZE];
+
+	/**
+	 * Squares attacked by a pawn on the square, [0] for a pawn moving in the
+	 * +y direction and [1] for a pawn moving in the -y direction
+	 */
+	private final static long[][] PAWN_ATTACKS = new long[2][SIZE * SIZE];
+
+	static {
+		int[][] knightJumps = { {-2, 1}, {-1, 2}, {2, 1}, {1, 2}, {2, -1}, {1, -2}, {-2, -1}, {-1, -2} };
+		for (int x = 0;x < SIZE;x ++) {
+			for (int y = 0;y < SIZE;y ++) {
+				int sq = square(x, y);
+				for (int d = 0;d < DIR_X.length;d ++) {
+					KING_ATTACKS[sq] |= bit(x + DIR_X[d], y + DIR_Y[d]);
+					for (int i = 1;i < SIZE;i ++)
+						RAYS[d][sq] |= bit(x + DIR_X[d] * i, y + DIR_Y[d] * i);
+				}
+				for (int[] jump : knightJumps)
+					KNIGHT_ATTACKS[sq] |= bit(x + jump[0], y + jump[1]);
+
+				PAWN_ATTACKS[0][sq] = bit(x - 1, y + 1) | bit(x + 1, y + 1);
+				PAWN_ATTACKS[1][sq] = bit(x - 1, y - 1) | bit(x + 1, y - 1);
+			}
+		}
+	}
+
+	/**
+	 * Occupancy of each player, [0] is the player moving in the +y direction
+	 */
+	private long[] playerMasks;
+
+	/**
+	 * Occupancy of each piece type for each player
+	 */
+	private long[][] pieceMasks;
+
+	public BitboardBoard(GameMode gameMode) {
+		super(SIZE, SIZE, gameMode);
+		playerMasks = new long[2];
+		pieceMasks = new long[2][PIECE_TYPES];
+	}
+
+	@Override
+	protected Board createEmptyBoard() {
+		return new BitboardBoard(gameMode);
+	}
+
+	private static int square(int x, int y) {
+		return y * SIZE + x;
+	}
+
+	/**
+	 * @return the single bit mask of (x, y), or 0 if (x, y) is off the board
+	 */
+	private static long bit(int x, int y) {
+		if (x < 0 || y < 0 || x >= SIZE || y >= SIZE)
+			return 0;
+
+		return 1L << square(x, y);
+	}
+
+	/**
+	 * @return the index into playerMasks/pieceMasks for the player
+	 */
+	private static int side(Player player) {
+		return (player.getDirection() == 1) ? 0 : 1;
+	}
+
+	/**
+	 * @return the index into pieceMasks for the piece, the type indices
+	 *  follow the order of {@link PieceType}
+	 */
+	private static int typeIndex(ChessPiece piece) {
+		return piece.getPieceType().ordinal();
+	}
+
+	@Override
+	public ChessPiece setTile(ChessPiece piece, int x, int y) {
+		long from = bit(piece.getLocation().x, piece.getLocation().y);
+		long to = bit(x, y);
+		ChessPiece prev = super.setTile(piece, x, y);
+
+		//captured (or replaced) piece leaves the masks
+		if (prev != null) {
+			int prevSide = side(prev.getPlayer());
+			playerMasks[prevSide] &= ~to;
+			pieceMasks[prevSide][typeIndex(prev)] &= ~to;
+		}
+
+		int side = side(piece.getPlayer());
+		int type = typeIndex(piece);
+		playerMasks[side] = (playerMasks[side] & ~from) | to;
+		pieceMasks[side][type] = (pieceMasks[side][type] & ~from) | to;
+		return prev;
+	}
+
+	@Override
+	public boolean hasEnemyPiece(int x, int y, Player player) {
+		return (playerMasks[1 - side(player)] & bit(x, y)) != 0;
+	}
+
+	@Override
+	public boolean isMovableTile(int x, int y, Player player, boolean canCapture) {
+		long mask = bit(x, y);
+		if (mask == 0)
+			return false;
+
+		int side = side(player);
+		if (((playerMasks[0] | playerMasks[1]) & mask) == 0)
+			return true;
+
+		return canCapture && (playerMasks[1 - side] & mask) != 0;
+	}
+
+	@Override
+	public boolean hasEnemyPiece(int square, Player player) {
+		return (playerMasks[1 - side(player)] & (1L << square)) != 0;
+	}
+	
+	@Override
+	public boolean isMovableTile(int square, Player player, boolean canCapture) {
+		long mask = 1L << square;
+		if (((playerMasks[0] | playerMasks[1]) & mask) == 0)
+			return true;
+		
+		return canCapture && (playerMasks[1 - side(player)] & mask) != 0;
+	}
+
+	/**
+	 * Walks the ray in the given direction until the first occupied square,
+	 * using the classical ray look-up.
+	 *
+	 * @return all the squares attacked along the ray, including the blocker
+	 */
+	private static long rayAttacks(int dir, int sq, long occupied) {
+		long attacks = RAYS[dir][sq];
+		long blockers = attacks & occupied;
+		if (blockers != 0) {
+			int blocker = (dir < 4) ? Long.numberOfTrailingZeros(blockers)
+					: 63 - Long.numberOfLeadingZeros(blockers);
+			attacks ^= RAYS[dir][blocker];
+		}
+		return attacks;
+	}
+
+	/**
+	 * Answers the reverse attack query from the masks, looking outward from
+	 * the square for each kind of attacker
+	 */
+	@Override
+	public boolean isSquareAttacked(int sq, Player attacker) {
+		int aSide = side(attacker);
+		long[] enemy = pieceMasks[aSide];
+		if ((KNIGHT_ATTACKS[sq] & (enemy[KNIGHT] | enemy[CHANCELLOR])) != 0)
+			return true;
+		if ((KING_ATTACKS[sq] & enemy[KING]) != 0)
+			return true;
+		//an attacking pawn is where a pawn moving the other way on sq would attack
+		if ((PAWN_ATTACKS[1 - aSide][sq] & enemy[PAWN]) != 0)
+			return true;
+
+		long occupied = playerMasks[0] | playerMasks[1];
+		long rankFile = enemy[ROOK] | enemy[QUEEN] | enemy[CHANCELLOR];
+		if (rankFile != 0) {
+			for (int dir : RANK_FILE_DIRS)
+				if ((rayAttacks(dir, sq, occupied) & rankFile) != 0)
+					return true;
+		}
+
+		long diagonal = enemy[BISHOP] | enemy[QUEEN] | enemy[LAME_QUEEN];
+		if (diagonal != 0) {
+			for (int dir : DIAGONAL_DIRS)
+				if ((rayAttacks(dir, sq, occupied) & diagonal) != 0)
+					return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @param player
+	 * @return the occupancy mask of all the player's pieces
+	 */
+	public long getOccupancy(Player player) {
+		return playerMasks[side(player)];
+	}
+
+}
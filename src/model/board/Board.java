@@ -4,11 +4,14 @@ import java.awt.Point;
 import java.awt.geom.Point2D;
 import java.util.ArrayList;
 
-import com.jogamp.opengl.GL2;
-
 import model.ChessMove;
 import model.ChessPiece;
+import model.Move;
+import model.MoveList;
+import model.PieceList;
+import model.PieceType;
 import model.game_modes.GameMode;
+import model.game_modes.MoveValidator;
 import model.pieces.Pawn;
 import view.loaders.structures.Model;
 import controller.Player;
@@ -28,10 +31,318 @@ public abstract class Board {
 	 */
 	protected GameMode gameMode;
 	
+	/**
+	 * ChessMove reused by {@link #isValidMove(int)} to simulate packed moves
+	 */
+	private ChessMove scratchMove;
+	
+	/**
+	 * The game mode's validator, reset by {@link #getMoveValidator(Player)} for
+	 * every position
+	 */
+	private MoveValidator moveValidator;
+	
+	/**
+	 * Lists reused by {@link #hasAnyLegalMove(Player)} and {@link #hasAnyCapture(Player)}
+	 * for one piece's possible moves. They are separate, as validating a move 
+	 * may look for captures
+	 */
+	private MoveList legalScratch;
+	private MoveList captureScratch;
+	
+	/**
+	 * Move tables of this board's geometry, see {@link #getMoveTables()}
+	 */
+	private MoveTables moveTables;
+	
+	/**
+	 * If true every move executed or undone is checked against a full 
+	 * recomputation of the position key, see {@link #verifyPositionKey()}
+	 */
+	private static boolean verifyKeys = Boolean.getBoolean("chess.verifyKeys");
+	
+	/**
+	 * Zobrist key of the current position, see {@link #positionKey()}
+	 */
+	private long positionKey;
+	
+	/**
+	 * Zobrist key of the pawns alone, see {@link #pawnKey()}
+	 */
+	private long pawnKey;
+	
+	/**
+	 * True while the second player is to move
+	 */
+	private boolean secondPlayerToMove;
+	
+	/**
+	 * Evaluation tables of the game mode, see {@link #evaluate(Player)}
+	 */
+	private PieceSquareTables pieceSquareTables;
+	
+	/**
+	 * Running sums of the midgame and endgame scores of each side's pieces,
+	 * and of the phase weights of all the pieces on the board
+	 */
+	private int[] midgameScores = new int[2];
+	private int[] endgameScores = new int[2];
+	private int phase;
+	
 	protected Board(GameMode _gameMode) {
 		gameMode = _gameMode;
 	}
 	
+	/**
+	 * @return a board with the same type and game mode as this board, 
+	 *  without any pieces
+	 */
+	protected abstract Board createEmptyBoard();
+	
+	/**
+	 * Creates an independent copy of the current position, so that it can be
+	 * searched on another thread. Every piece on the board is copied (captured
+	 * pieces are not) along with its moved state and the side to move. The 
+	 * pieces of the player moving in player1's direction are given to player1, 
+	 * the rest to player2. The players should be new players without any pieces.
+	 * 
+	 * @param player1
+	 * @param player2
+	 * @return the copied board, with the same position key as this board
+	 */
+	public Board copy(Player player1, Player player2) {
+		Board copy = createEmptyBoard();
+		for (int sq = 0;sq < getSquareCount();sq ++) {
+			ChessPiece piece = getTile(sq);
+			if (piece != null) {
+				Player owner = (piece.getPlayer().getDirection() == player1.getDirection()) ? player1 : player2;
+				piece.copy(copy, owner).setHasMoved(piece.getHasMoved());
+			}
+		}
+		
+		if (copy.secondPlayerToMove != secondPlayerToMove)
+			copy.toggleSideToMove();
+		return copy;
+	}
+	
+	/**
+	 * Returns the Zobrist key of the current position (see {@link Zobrist}). The key
+	 * covers the placement of the pieces, which pieces have moved and the side to
+	 * move, and is maintained incrementally as pieces are moved, so two boards in 
+	 * the same position have the same key. The side to move changes every time a 
+	 * ChessMove is executed or undone, the first player is to move after initPieces()
+	 * 
+	 * @return 64-bit key identifying the position
+	 */
+	public long positionKey() {
+		return positionKey;
+	}
+	
+	/**
+	 * Computes the key of the current position from scratch, instead of
+	 * incrementally like {@link #positionKey()}
+	 * 
+	 * @return 64-bit key identifying the position
+	 */
+	public long computePositionKey() {
+		long key = secondPlayerToMove ? Zobrist.SIDE : 0;
+		for (int sq = 0;sq < getSquareCount();sq ++) {
+			ChessPiece piece = getTile(sq);
+			if (piece != null)
+				key ^= Zobrist.pieceKey(piece, sq);
+		}
+		return key;
+	}
+	
+	/**
+	 * Returns the Zobrist key of the pawns on the board, the XOR of the key of
+	 * each pawn on its square. It only changes when a pawn moves or is captured,
+	 * so it identifies the pawn structure for caching evaluation terms
+	 * 
+	 * @return 64-bit key identifying the pawn structure
+	 */
+	public long pawnKey() {
+		return pawnKey;
+	}
+	
+	/**
+	 * Computes the pawn key from scratch, instead of incrementally
+	 * like {@link #pawnKey()}
+	 * 
+	 * @return 64-bit key identifying the pawn structure
+	 */
+	public long computePawnKey() {
+		long key = 0;
+		for (int sq = 0;sq < getSquareCount();sq ++) {
+			ChessPiece piece = getTile(sq);
+			if (piece != null && Move.pieceCode(piece) == Move.PAWN)
+				key ^= Zobrist.pawnKey(piece, sq);
+		}
+		return key;
+	}
+	
+	/**
+	 * Updates the position key and the evaluation sums for a piece placed on
+	 * a square. Must be called by setTile() for every piece placed on a square
+	 * 
+	 * @param piece
+	 * @param square square index
+	 */
+	protected void piecePlaced(ChessPiece piece, int square) {
+		positionKey ^= Zobrist.pieceKey(piece, square);
+		int code = Move.pieceCode(piece);
+		if (code == Move.PAWN)
+			pawnKey ^= Zobrist.pawnKey(piece, square);
+		int side = side(piece.getPlayer());
+		PieceSquareTables tables = getPieceSquareTables();
+		midgameScores[side] += tables.getMidgame(code, side, square);
+		endgameScores[side] += tables.getEndgame(code, side, square);
+		phase += tables.getPhaseWeight(code);
+	}
+	
+	/**
+	 * Updates the position key and the evaluation sums for a piece removed from
+	 * a square. Must be called by setTile() for every piece removed from a square
+	 * 
+	 * @param piece
+	 * @param square square index
+	 */
+	protected void pieceRemoved(ChessPiece piece, int square) {
+		positionKey ^= Zobrist.pieceKey(piece, square);
+		int code = Move.pieceCode(piece);
+		if (code == Move.PAWN)
+			pawnKey ^= Zobrist.pawnKey(piece, square);
+		int side = side(piece.getPlayer());
+		PieceSquareTables tables = getPieceSquareTables();
+		midgameScores[side] -= tables.getMidgame(code, side, square);
+		endgameScores[side] -= tables.getEndgame(code, side, square);
+		phase -= tables.getPhaseWeight(code);
+	}
+	
+	/**
+	 * @return the index of the player's side in the evaluation sums
+	 */
+	private static int side(Player player) {
+		return (player.getDirection() == 1) ? 0 : 1;
+	}
+	
+	/**
+	 * @return the evaluation tables of the game mode on this board
+	 */
+	public PieceSquareTables getPieceSquareTables() {
+		if (pieceSquareTables == null)
+			pieceSquareTables = gameMode.createPieceSquareTables(this);
+		
+		return pieceSquareTables;
+	}
+	
+	/**
+	 * Evaluates the position from the player's point of view, as the difference of
+	 * the material and square scores of both sides' pieces, tapered between the
+	 * midgame and endgame scores by the phase (see {@link PieceSquareTables}). The 
+	 * sums are kept up to date as pieces are placed and removed, so this method
+	 * does not look at the pieces
+	 * 
+	 * @param player
+	 * @return the score of the position for the player, in centipawns
+	 */
+	public int evaluate(Player player) {
+		int side = side(player);
+		return PieceSquareTables.taper(midgameScores[side] - midgameScores[1 - side], 
+				endgameScores[side] - endgameScores[1 - side], phase);
+	}
+	
+	/**
+	 * Computes the evaluation from scratch, instead of from the running
+	 * sums like {@link #evaluate(Player)}
+	 * 
+	 * @param player
+	 * @return the score of the position for the player, in centipawns
+	 */
+	public int computeEvaluation(Player player) {
+		PieceSquareTables tables = getPieceSquareTables();
+		int[] midgame = new int[2];
+		int[] endgame = new int[2];
+		int totalPhase = 0;
+		for (int sq = 0;sq < getSquareCount();sq ++) {
+			ChessPiece piece = getTile(sq);
+			if (piece != null) {
+				int code = Move.pieceCode(piece);
+				int pieceSide = side(piece.getPlayer());
+				midgame[pieceSide] += tables.getMidgame(code, pieceSide, sq);
+				endgame[pieceSide] += tables.getEndgame(code, pieceSide, sq);
+				totalPhase += tables.getPhaseWeight(code);
+			}
+		}
+		
+		int side = side(player);
+		return PieceSquareTables.taper(midgame[side] - midgame[1 - side], endgame[side] - endgame[1 - side], totalPhase);
+	}
+	
+	/**
+	 * Updates the position key after the moved state of the piece on 
+	 * the square changed
+	 * 
+	 * @param square square index
+	 */
+	public void toggleMovedKey(int square) {
+		positionKey ^= Zobrist.movedKey(square);
+	}
+	
+	/**
+	 * Updates the position key for the other player to move, called 
+	 * when a ChessMove is executed or undone
+	 */
+	public void toggleSideToMove() {
+		secondPlayerToMove = !secondPlayerToMove;
+		positionKey ^= Zobrist.SIDE;
+	}
+	
+	/**
+	 * Debug mode, turned on with the chess.verifyKeys system property
+	 * 
+	 * @param verify true to verify the position key after every move
+	 */
+	public static void setVerifyKeys(boolean verify) {
+		verifyKeys = verify;
+	}
+	
+	/**
+	 * In debug mode (see {@link #setVerifyKeys(boolean)}) checks the incremental 
+	 * position and pawn keys against a full recomputation
+	 * 
+	 * @throws IllegalStateException if the keys don't match
+	 */
+	public void verifyPositionKey() {
+		if (verifyKeys && positionKey != computePositionKey())
+			throw new IllegalStateException("Position key " + Long.toHexString(positionKey) + 
+					" does not match " + Long.toHexString(computePositionKey()));
+		if (verifyKeys && pawnKey != computePawnKey())
+			throw new IllegalStateException("Pawn key " + Long.toHexString(pawnKey) + 
+					" does not match " + Long.toHexString(computePawnKey()));
+	}
+	
+	/**
+	 * @return the game mode the board was set up for
+	 */
+	public GameMode getGameMode() {
+		return gameMode;
+	}
+	
+	/**
+	 * Returns the precomputed rays and jumps of this board's geometry. The
+	 * tables are shared by all boards of the same type, and are built from
+	 * the adjacency methods of the board the first time they are needed
+	 * 
+	 * @return the move tables of this board
+	 */
+	public MoveTables getMoveTables() {
+		if (moveTables == null)
+			moveTables = MoveTables.getTables(this);
+		
+		return moveTables;
+	}
+	
 	/**
 	 * Generates the 3d model for the board, so that it may be added as 
 	 * a model to AssetLoader class. NOTE: this method is called automatically by
@@ -88,6 +399,34 @@ public abstract class Board {
 	public abstract ChessPiece getTile(int x, int y);
 	
 	
+	/**
+	 * @return the number of tiles on the board, every square index returned by
+	 *  {@link #getSquare(int, int) getSquare} is less than this value
+	 */
+	public abstract int getSquareCount();
+	
+	/**
+	 * Converts a tile location into a single square index, used by packed
+	 * moves (see {@link Move}) and any table indexed by tile
+	 * 
+	 * @param x Board location x
+	 * @param y Board location y
+	 * @return the square index of (x, y), (x, y) must be in bounds
+	 */
+	public abstract int getSquare(int x, int y);
+	
+	/**
+	 * @param square square index
+	 * @return the board location x of the square
+	 */
+	public abstract int getSquareX(int square);
+	
+	/**
+	 * @param square square index
+	 * @return the board location y of the square
+	 */
+	public abstract int getSquareY(int square);
+	
 	/**
 	 * Sets the piece to the (x, y) position, and sets the internal
 	 * boardLocation of the piece. If a piece already existed it is removed
@@ -171,9 +510,19 @@ public abstract class Board {
 	 * 
 	 * @param x Board location x
 	 * @param y Board location y
+	 * @param direction the direction of the player owning the pawn
+	 * @param hasMoved true if the pawn has already moved
 	 * @return an array of all the positions a pawn at (x, y) can travel on this board
 	 */
-	public abstract ArrayList<Point> getPawnMoves(int x, int y, Pawn pawn);
+	public abstract ArrayList<Point> getPawnMoves(int x, int y, int direction, boolean hasMoved);
+	
+	/**
+	 * Same as {@link #getPawnMoves(int, int, int, boolean) getPawnMoves} using the
+	 * direction of the pawn's player and whether the pawn has moved
+	 */
+	public ArrayList<Point> getPawnMoves(int x, int y, Pawn pawn) {
+		return getPawnMoves(x, y, pawn.getPlayer().getDirection(), pawn.getHasMoved());
+	}
 	
 	/**
 	 * This method on a rectangular board returns 2 positions, on a rectangular board
@@ -182,9 +531,118 @@ public abstract class Board {
 	 * 
 	 * @param x Board location x
 	 * @param y Board location y
+	 * @param direction the direction of the player owning the pawn
 	 * @return an array of all the positions a pawn at (x, y) can attack on this board
 	 */
-	public abstract ArrayList<Point> getPawnAttacks(int x, int y, Pawn pawn);
+	public abstract ArrayList<Point> getPawnAttacks(int x, int y, int direction);
+	
+	/**
+	 * Same as {@link #getPawnAttacks(int, int, int) getPawnAttacks} using the
+	 * direction of the pawn's player
+	 */
+	public ArrayList<Point> getPawnAttacks(int x, int y, Pawn pawn) {
+		return getPawnAttacks(x, y, pawn.getPlayer().getDirection());
+	}
+	
+	/**
+	 * @return the number of directions returned by getAdjacentRankFileTiles()
+	 */
+	public int getRankFileDirectionCount() {
+		return getAdjacentRankFileTiles(0, 0).size();
+	}
+	
+	/**
+	 * @return the number of directions returned by getAdjacentDiagonalTiles()
+	 */
+	public int getDiagonalDirectionCount() {
+		return getAdjacentDiagonalTiles(0, 0).size();
+	}
+	
+	/**
+	 * @return the number of locations returned by getKnightMoves()
+	 */
+	public int getKnightJumpCount() {
+		return getKnightMoves(0, 0).size();
+	}
+	
+	/**
+	 * @return the number of locations returned by getPawnAttacks()
+	 */
+	public int getPawnAttackCount() {
+		return getPawnAttacks(0, 0, 1).size();
+	}
+	
+	/**
+	 * Square index version of {@link #getAdjacentRankFileTiles(int, int) getAdjacentRankFileTiles}
+	 * for a single direction. The default implementation goes through 
+	 * getAdjacentRankFileTiles(), boards should override it to avoid the allocation.
+	 * 
+	 * @param square square index
+	 * @param dir index into the list returned by getAdjacentRankFileTiles()
+	 * @return the square adjacent in that direction, -1 if it is out of bounds
+	 */
+	public int getRankFileNeighbour(int square, int dir) {
+		return toSquare(getAdjacentRankFileTiles(getSquareX(square), getSquareY(square)).get(dir));
+	}
+	
+	/**
+	 * Same as {@link #getRankFileNeighbour(int, int) getRankFileNeighbour} for
+	 * the directions of getAdjacentDiagonalTiles()
+	 */
+	public int getDiagonalNeighbour(int square, int dir) {
+		return toSquare(getAdjacentDiagonalTiles(getSquareX(square), getSquareY(square)).get(dir));
+	}
+	
+	/**
+	 * Same as {@link #getRankFileNeighbour(int, int) getRankFileNeighbour} for
+	 * the jumps of getKnightMoves()
+	 */
+	public int getKnightJump(int square, int jump) {
+		return toSquare(getKnightMoves(getSquareX(square), getSquareY(square)).get(jump));
+	}
+	
+	/**
+	 * Same as {@link #getRankFileNeighbour(int, int) getRankFileNeighbour} for
+	 * the attacks of getPawnAttacks()
+	 * 
+	 * @param direction the direction of the player owning the pawn
+	 */
+	public int getPawnAttack(int square, int direction, int attack) {
+		return toSquare(getPawnAttacks(getSquareX(square), getSquareY(square), direction).get(attack));
+	}
+	
+	/**
+	 * @return the square index of loc, -1 if it is out of bounds
+	 */
+	private int toSquare(Point loc) {
+		return isInBounds(loc) ? getSquare(loc.x, loc.y) : -1;
+	}
+	
+	/**
+	 * Same as {@link #getTile(int, int) getTile}
+	 * @param square square index
+	 */
+	public ChessPiece getTile(int square) {
+		return getTile(getSquareX(square), getSquareY(square));
+	}
+	
+	/**
+	 * Same as {@link #hasEnemyPiece(int, int, Player) hasEnemyPiece}
+	 * @param square square index
+	 */
+	public boolean hasEnemyPiece(int square, Player attacker) {
+		ChessPiece piece = getTile(square);
+		return piece != null && piece.getPlayer() != attacker;
+	}
+	
+	/**
+	 * Same as {@link #isMovableTile(int, int, Player, boolean) isMovableTile}
+	 * @param square square index, must be in bounds
+	 */
+	public boolean isMovableTile(int square, Player attacker, boolean canCapture) {
+		ChessPiece piece = getTile(square);
+		return piece == null || (canCapture && piece.getPlayer() != attacker);
+	}
 	
 	/**
 	 * Same as {@link #isInBounds(int, int) isInBounds}
@@ -234,14 +692,74 @@ public abstract class Board {
 	 *  by any of the opponents pieces
 	 */
 	public boolean locationPressured(int x, int y, Player victim) {
-		for (ChessPiece oppPiece : victim.getOtherPlayer().getPieces()) {
-			for (ChessMove move : oppPiece.getCaptureMoves())
-				if (move.getMoveLocation().equals(new Point(x, y)))
-					return true;
+		if (!isInBounds(x, y))
+			return false;
+		
+		ChessPiece piece = getTile(x, y);
+		if (piece == null || piece.getPlayer() != victim)
+			return false;
+		
+		return isSquareAttacked(getSquare(x, y), victim.getOtherPlayer());
+	}
+	
+	/**
+	 * Reverse attack query, instead of generating the moves of every attacking 
+	 * piece this method looks outward from the square (as a piece that moves like
+	 * every piece would) along the rank-file and diagonal lines, the knight jumps 
+	 * and the pawn attacks, stopping each line at the first piece. Returns as soon
+	 * as an attacker is found, and does not allocate.
+	 * 
+	 * Pawn attacks are assumed to be symmetric, ie a pawn of the attacker on 
+	 * square A attacks square B, if a pawn moving in the opposite direction on B
+	 * would attack A.
+	 * 
+	 * @param square square index
+	 * @param attacker The player who's pieces may capture on the square
+	 * @return true if any piece of the attacker could capture a piece on the square
+	 */
+	public boolean isSquareAttacked(int square, Player attacker) {
+		MoveTables tables = getMoveTables();
+		for (int dir = 0;dir < tables.getRankFileDirections();dir ++)
+			if (lineAttacked(tables.getRankFileStart(square, dir), true, attacker))
+				return true;
+		
+		for (int dir = 0;dir < tables.getDiagonalDirections();dir ++)
+			if (lineAttacked(tables.getDiagonalStart(square, dir), false, attacker))
+				return true;
+		
+		for (int i = tables.getKnightStart(square);tables.getKnightSquare(i) >= 0;i ++) {
+			ChessPiece piece = getTile(tables.getKnightSquare(i));
+			if (piece != null && piece.getPlayer() == attacker && piece.capturesByKnightJump())
+				return true;
+		}
+		
+		int pawnDirection = -attacker.getDirection();
+		for (int i = tables.getPawnAttackStart(square, pawnDirection);tables.getPawnAttackSquare(i) >= 0;i ++) {
+			ChessPiece piece = getTile(tables.getPawnAttackSquare(i));
+			if (piece != null && piece.getPlayer() == attacker && piece.getPieceType() == PieceType.PAWN)
+				return true;
 		}
 		return false;
 	}
 	
+	/**
+	 * @param start index of the first square of the ray in the move tables
+	 * @return true if the first piece along the ray is an attacker's piece
+	 *  that captures along that line
+	 */
+	private boolean lineAttacked(int start, boolean rankFile, Player attacker) {
+		MoveTables tables = getMoveTables();
+		for (int i = start;;i ++) {
+			int sq = rankFile ? tables.getRankFileSquare(i) : tables.getDiagonalSquare(i);
+			if (sq < 0)
+				return false;
+			
+			ChessPiece piece = getTile(sq);
+			if (piece != null)
+				return piece.getPlayer() == attacker && piece.capturesAlongLine(rankFile, i - start + 1);
+		}
+	}
+	
 	/**
 	 * Same as {@link #locationPressured(int, int, Player) locationCapturable}
 	 * @param loc Board location point
@@ -271,6 +789,41 @@ public abstract class Board {
 		return retVal;
 	}
 	
+	/**
+	 * Same as {@link #isValidMove(ChessMove) isValidMove} for a packed move. 
+	 * The move is simulated with a ChessMove owned by the board, so no
+	 * ChessMove is created
+	 * 
+	 * @param move packed move, see {@link Move}
+	 * @return true if the move is valid in the context of the gameMode;
+	 */
+	public boolean isValidMove(int move) {
+		if (scratchMove == null)
+			scratchMove = new ChessMove(this, move);
+		else
+			scratchMove.setMove(this, move);
+		
+		return isValidMove(scratchMove);
+	}
+	
+	/**
+	 * Returns the game mode's validator for the player's moves in the
+	 * current position, see {@link GameMode#createMoveValidator(Board, Player)}.
+	 * The board has one validator, which is reset for each call
+	 * 
+	 * @param player
+	 * @return a validator that is only valid until the board changes, or 
+	 *  until the next call
+	 */
+	public MoveValidator getMoveValidator(Player player) {
+		if (moveValidator == null)
+			moveValidator = gameMode.createMoveValidator(this, player);
+		else
+			moveValidator.reset(player);
+		
+		return moveValidator;
+	}
+	
 	/**
 	 * Returns all the valid moves for the player, see 
 	 * {@link #isValidMove(ChessMove) isValidMove} for the definition 
@@ -280,11 +833,24 @@ public abstract class Board {
 	 * @return an array of all valid moves
 	 */
 	public ArrayList<ChessMove> getAllMoves(Player player) {
-		ArrayList<ChessMove> moves = new ArrayList<ChessMove>();
-		for (ChessPiece piece : player.getPieces()) 
-			moves.addAll(piece.getValidMoves());
-		
-		return moves;
+		MoveList moves = new MoveList();
+		getAllMoves(player, moves);
+		return ChessMove.toChessMoves(this, moves);
+	}
+	
+	/**
+	 * Same as {@link #getAllMoves(Player) getAllMoves} but the valid moves
+	 * are appended to the list as packed moves. The position is only
+	 * analysed once by the game mode's MoveValidator
+	 * 
+	 * @param player
+	 * @param moves list to add the valid moves to
+	 */
+	public void getAllMoves(Player player, MoveList moves) {
+		MoveValidator validator = getMoveValidator(player);
+		PieceList pieces = player.getPieces();
+		for (int i = 0;i < pieces.size();i ++)
+			pieces.get(i).addValidMoves(moves, validator);
 	}
 	
 	
@@ -296,17 +862,74 @@ public abstract class Board {
 	 * @return true if there are any valid moves, false otherwise
 	 */
 	public boolean noPossibleMoves(Player victim) { 
-		return getAllMoves(victim).isEmpty();
+		return !hasAnyLegalMove(victim);
+	}
+	
+	/**
+	 * Looks for a single valid move, without generating the valid moves of
+	 * every piece. The king is tried first, then the knights, the pawns and 
+	 * the sliders, so the pieces with the fewest moves to validate come first, 
+	 * and pieces the validator rules out (ie pinned pieces in check) are skipped.
+	 * The search stops at the first valid move found.
+	 * 
+	 * @param player
+	 * @return true if the player has a valid move
+	 */
+	public boolean hasAnyLegalMove(Player player) {
+		if (legalScratch == null)
+			legalScratch = new MoveList();
+		
+		MoveValidator validator = getMoveValidator(player);
+		ChessPiece king = player.getKing();
+		if (king != null && player.getPieces().contains(king) && hasValidMove(king, validator))
+			return true;
+		
+		return hasValidMove(player.getLeapers(), validator) || hasValidMove(player.getPawns(), validator)
+				|| hasValidMove(player.getSliders(), validator);
+	}
+	
+	private boolean hasValidMove(PieceList pieces, MoveValidator validator) {
+		for (int i = 0;i < pieces.size();i ++)
+			if (hasValidMove(pieces.get(i), validator))
+				return true;
+		
+		return false;
+	}
+	
+	private boolean hasValidMove(ChessPiece piece, MoveValidator validator) {
+		if (!validator.canMove(piece.getSquare()))
+			return false;
+		
+		legalScratch.clear();
+		piece.addPossibleMoves(legalScratch);
+		for (int i = 0;i < legalScratch.size();i ++)
+			if (validator.isValidMove(legalScratch.get(i)))
+				return true;
+		
+		return false;
 	}
 	
 	/**
-	 * Renders the board with the given opengl context. This 
-	 * methods renders the board's mesh, and all the pieces on the board,
-	 * by repeated calls to ChessPiece.render(gl);
+	 * Looks for a single possible capture, stopping at the first one found,
+	 * the captures aren't validated
 	 * 
-	 * @param gl
-	 * @param selectedPiece 
+	 * @param player
+	 * @return true if one of the player's pieces can capture
 	 */
-	public abstract void render(GL2 gl, ChessPiece selectedPiece);
+	public boolean hasAnyCapture(Player player) {
+		if (captureScratch == null)
+			captureScratch = new MoveList();
+		
+		PieceList pieces = player.getPieces();
+		for (int i = 0;i < pieces.size();i ++) {
+			captureScratch.clear();
+			pieces.get(i).addPossibleMoves(captureScratch);
+			for (int j = 0;j < captureScratch.size();j ++)
+				if (Move.isCapture(captureScratch.get(j)))
+					return true;
+		}
+		
+		return false;
+	}
 	
 }
\ No newline at end of file
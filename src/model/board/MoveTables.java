@@ -0,0 +1,246 @@
+package model.board;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Precomputed, immutable move tables of a board geometry. For every square the
+ * tables hold the rank-file and diagonal rays, the knight jumps, and the pawn
+ * pushes and attacks for each pawn direction, all as square indices (see
+ * {@link Board#getSquare(int, int)}) stored in flat int arrays. Pieces walk these
+ * tables instead of asking the board for lists of adjacent Points, so move
+ * generation does not allocate.
+ *
+ * Each ray or jump list is a run of squares in the flat array that ends with -1.
+ * The get...Start() methods return the index of the first square of a run, and
+ * the matching get...Square() methods return the squares of the run:
+ *
+ * <pre>
+ * for (int i = tables.getRankFileStart(square, dir);tables.getRankFileSquare(i) >= 0;i ++)
+ * </pre>
+ *
+ * The tables are built once for each board type (see {@link Board#getType()})
+ * from the board's own adjacency methods, so non-rectangular boards are supported.
+ *
+ */
+public final class MoveTables {
+
+	/**
+	 * Tables already built, by board type
+	 */
+	private static Map<String, MoveTables> tables = new HashMap<String, MoveTables>();
+
+	private final int rankFileDirections;
+	private final int diagonalDirections;
+
+	private final int[] rankFileStart;
+	private final int[] rankFileRays;
+	private final int[] diagonalStart;
+	private final int[] diagonalRays;
+	private final int[] knightStart;
+	private final int[] knightJumps;
+
+	/**
+	 * Pawn tables are indexed by [pawnIndex(direction)][square], pushes
+	 * additionally have a run for pawns that have (or have not) moved
+	 */
+	private final int[][] pawnPushStart;
+	private final int[] pawnPushes;
+	private final int[][] pawnAttackStart;
+	private final int[] pawnAttacks;
+
+	/**
+	 * Returns the tables for the board's geometry, building them the first time
+	 * a board of this type is used
+	 *
+	 * @param board
+	 * @return the shared tables of the board type
+	 */
+	public static synchronized MoveTables getTables(Board board) {
+		MoveTables table = tables.get(board.getType());
+		if (table == null) {
+			table = new MoveTables(board);
+			tables.put(board.getType(), table);
+		}
+		return table;
+	}
+
+	private MoveTables(Board board) {
+		int squares = board.getSquareCount();
+		rankFileDirections = board.getRankFileDirectionCount();
+		diagonalDirections = board.getDiagonalDirectionCount();
+
+		//rays, each run stops at the first tile that is out of bounds
+		TableBuilder rankFile = new TableBuilder();
+		TableBuilder diagonal = new TableBuilder();
+		rankFileStart = new int[squares * rankFileDirections];
+		diagonalStart = new int[squares * diagonalDirections];
+		for (int sq = 0;sq < squares;sq ++) {
+			for (int dir = 0;dir < rankFileDirections;dir ++) {
+				rankFileStart[sq * rankFileDirections + dir] = rankFile.size();
+				for (int next = board.getRankFileNeighbour(sq, dir);next >= 0;next = board.getRankFileNeighbour(next, dir))
+					rankFile.add(next);
+				rankFile.add(-1);
+			}
+			for (int dir = 0;dir < diagonalDirections;dir ++) {
+				diagonalStart[sq * diagonalDirections + dir] = diagonal.size();
+				for (int next = board.getDiagonalNeighbour(sq, dir);next >= 0;next = board.getDiagonalNeighbour(next, dir))
+					diagonal.add(next);
+				diagonal.add(-1);
+			}
+		}
+		rankFileRays = rankFile.toArray();
+		diagonalRays = diagonal.toArray();
+
+		//knight jumps, only the jumps that are in bounds
+		TableBuilder knight = new TableBuilder();
+		knightStart = new int[squares];
+		for (int sq = 0;sq < squares;sq ++) {
+			knightStart[sq] = knight.size();
+			for (Point loc : board.getKnightMoves(board.getSquareX(sq), board.getSquareY(sq)))
+				if (board.isInBounds(loc))
+					knight.add(board.getSquare(loc.x, loc.y));
+			knight.add(-1);
+		}
+		knightJumps = knight.toArray();
+
+		//pawn pushes stop at the first tile out of bounds (as a blocked push would),
+		//attacks keep all the tiles in bounds
+		TableBuilder pushes = new TableBuilder();
+		TableBuilder attacks = new TableBuilder();
+		pawnPushStart = new int[2][squares * 2];
+		pawnAttackStart = new int[2][squares];
+		for (int pawn = 0;pawn < 2;pawn ++) {
+			int direction = (pawn == 0) ? 1 : -1;
+			for (int sq = 0;sq < squares;sq ++) {
+				int x = board.getSquareX(sq);
+				int y = board.getSquareY(sq);
+				for (int moved = 0;moved < 2;moved ++) {
+					pawnPushStart[pawn][sq * 2 + moved] = pushes.size();
+					for (Point loc : board.getPawnMoves(x, y, direction, moved == 1)) {
+						if (!board.isInBounds(loc))
+							break;
+						pushes.add(board.getSquare(loc.x, loc.y));
+					}
+					pushes.add(-1);
+				}
+
+				pawnAttackStart[pawn][sq] = attacks.size();
+				for (Point loc : board.getPawnAttacks(x, y, direction))
+					if (board.isInBounds(loc))
+						attacks.add(board.getSquare(loc.x, loc.y));
+				attacks.add(-1);
+			}
+		}
+		pawnPushes = pushes.toArray();
+		pawnAttacks = attacks.toArray();
+	}
+
+	/**
+	 * @return the index into the pawn tables for the pawn direction
+	 */
+	private static int pawnIndex(int direction) {
+		return (direction == 1) ? 0 : 1;
+	}
+
+	public int getRankFileDirections() {
+		return rankFileDirections;
+	}
+
+	public int getDiagonalDirections() {
+		return diagonalDirections;
+	}
+
+	/**
+	 * @param square square index
+	 * @param dir index into the list returned by Board.getAdjacentRankFileTiles()
+	 * @return the index of the first square of the ray leaving square
+	 */
+	public int getRankFileStart(int square, int dir) {
+		return rankFileStart[square * rankFileDirections + dir];
+	}
+
+	public int getRankFileSquare(int index) {
+		return rankFileRays[index];
+	}
+
+	/**
+	 * @param square square index
+	 * @param dir index into the list returned by Board.getAdjacentDiagonalTiles()
+	 * @return the index of the first square of the ray leaving square
+	 */
+	public int getDiagonalStart(int square, int dir) {
+		return diagonalStart[square * diagonalDirections + dir];
+	}
+
+	public int getDiagonalSquare(int index) {
+		return diagonalRays[index];
+	}
+
+	/**
+	 * @param square square index
+	 * @return the index of the first knight jump from square
+	 */
+	public int getKnightStart(int square) {
+		return knightStart[square];
+	}
+
+	public int getKnightSquare(int index) {
+		return knightJumps[index];
+	}
+
+	/**
+	 * @param square square index
+	 * @param direction direction of the pawn's player
+	 * @param hasMoved if the pawn has moved
+	 * @return the index of the first push of a pawn on square
+	 */
+	public int getPawnPushStart(int square, int direction, boolean hasMoved) {
+		return pawnPushStart[pawnIndex(direction)][square * 2 + (hasMoved ? 1 : 0)];
+	}
+
+	public int getPawnPushSquare(int index) {
+		return pawnPushes[index];
+	}
+
+	/**
+	 * @param square square index
+	 * @param direction direction of the pawn's player
+	 * @return the index of the first attack of a pawn on square
+	 */
+	public int getPawnAttackStart(int square, int direction) {
+		return pawnAttackStart[pawnIndex(direction)][square];
+	}
+
+	public int getPawnAttackSquare(int index) {
+		return pawnAttacks[index];
+	}
+
+	/**
+	 * Growable int array used while building the tables
+	 */
+	private static class TableBuilder {
+
+		private ArrayList<Integer> values = new ArrayList<Integer>();
+
+		void add(int value) {
+			values.add(value);
+		}
+
+		int size() {
+			return values.size();
+		}
+
+		int[] toArray() {
+			int[] array = new int[values.size()];
+			for (int i = 0;i < array.length;i ++)
+				array[i] = values.get(i);
+
+			return array;
+		}
+
+	}
+
+}
@@ -0,0 +1,182 @@
+package model.board;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import model.Move;
+
+/**
+ * Immutable evaluation tables of a game mode on a board geometry. For every piece
+ * code (see {@link Move}), side and square the tables hold a midgame and an endgame
+ * score, each the material value of the piece plus a bonus for the square. The
+ * board keeps running sums of these scores (see {@link Board#evaluate(controller.Player)}),
+ * and blends the midgame and endgame sums by the phase, the weight of the pieces
+ * still on the board, so the evaluation tapers from one to the other as pieces
+ * are captured.
+ *
+ * The square bonuses are built from the board's geometry (distance to the center,
+ * and rank relative to the side's starting edge), so they fit any board size.
+ * Side 0 is the player moving in direction 1.
+ *
+ */
+public final class PieceSquareTables {
+
+	/**
+	 * Phase of the starting position of a standard game, the phase is
+	 * clamped to this value
+	 */
+	public final static int MAX_PHASE = 24;
+
+	/**
+	 * Midgame and endgame material, by piece code
+	 */
+	private final static int[] STANDARD_MIDGAME = { 0, 100, 300, 300, 500, 900, 0, 800, 600 };
+	private final static int[] STANDARD_ENDGAME = { 0, 120, 290, 310, 530, 950, 0, 830, 620 };
+
+	/**
+	 * Losers has no check, so the king is captured like any other piece
+	 */
+	private final static int[] LOSERS_MIDGAME = { 0, 100, 300, 300, 500, 900, 250, 800, 600 };
+	private final static int[] LOSERS_ENDGAME = { 0, 120, 290, 310, 530, 950, 250, 830, 620 };
+
+	/**
+	 * Weight of each piece code in the phase
+	 */
+	private final static int[] PHASE_WEIGHTS = { 0, 0, 1, 1, 2, 4, 0, 3, 3 };
+
+	private static Map<String, PieceSquareTables> standardTables = new HashMap<String, PieceSquareTables>();
+	private static Map<String, PieceSquareTables> losersTables = new HashMap<String, PieceSquareTables>();
+
+	/**
+	 * Scores by [piece code][side][square]
+	 */
+	private final int[][][] midgame;
+	private final int[][][] endgame;
+
+	/**
+	 * Returns the tables of a standard game on the board's geometry, built
+	 * the first time a board of this type is used. The king is kept back in
+	 * the midgame and centralized in the endgame
+	 *
+	 * @param board
+	 * @return the shared tables of the board type
+	 */
+	public static synchronized PieceSquareTables standard(Board board) {
+		PieceSquareTables table = standardTables.get(board.getType());
+		if (table == null) {
+			table = new PieceSquareTables(board, STANDARD_MIDGAME, STANDARD_ENDGAME, true);
+			standardTables.put(board.getType(), table);
+		}
+		return table;
+	}
+
+	/**
+	 * Returns the tables of a losers game on the board's geometry, the king
+	 * has a material value and no safety bonus
+	 *
+	 * @param board
+	 * @return the shared tables of the board type
+	 */
+	public static synchronized PieceSquareTables losers(Board board) {
+		PieceSquareTables table = losersTables.get(board.getType());
+		if (table == null) {
+			table = new PieceSquareTables(board, LOSERS_MIDGAME, LOSERS_ENDGAME, false);
+			losersTables.put(board.getType(), table);
+		}
+		return table;
+	}
+
+	private PieceSquareTables(Board board, int[] midgameMaterial, int[] endgameMaterial, boolean kingSafety) {
+		int squares = board.getSquareCount();
+		int width = 0;
+		int height = 0;
+		for (int sq = 0;sq < squares;sq ++) {
+			width = Math.max(width, board.getSquareX(sq) + 1);
+			height = Math.max(height, board.getSquareY(sq) + 1);
+		}
+
+		midgame = new int[midgameMaterial.length][2][squares];
+		endgame = new int[endgameMaterial.length][2][squares];
+		for (int side = 0;side < 2;side ++) {
+			for (int sq = 0;sq < squares;sq ++) {
+				int x = board.getSquareX(sq);
+				int y = board.getSquareY(sq);
+				//rank counted from the side's own edge
+				int rank = (side == 0) ? y : height - 1 - y;
+				//0 on the edge squares, up to width + height - 2 in the center
+				int center = (width - 1 - Math.abs(2 * x - width + 1)) + (height - 1 - Math.abs(2 * y - height + 1));
+
+				for (int code = Move.PAWN;code < midgameMaterial.length;code ++) {
+					int mg = 0;
+					int eg = 0;
+					switch (code) {
+					case Move.PAWN:
+						mg = 5 * rank + ((center > width) ? 10 : 0);
+						eg = 10 * rank;
+						break;
+					case Move.KNIGHT:
+						mg = eg = 3 * center - 20;
+						break;
+					case Move.ROOK:
+						mg = eg = (rank == height - 2) ? 20 : 0;
+						break;
+					case Move.QUEEN:
+						mg = center - 5;
+						eg = 2 * center - 10;
+						break;
+					case Move.KING:
+						mg = kingSafety ? ((rank == 0) ? 20 : -Math.min(50, 15 * rank)) : 0;
+						eg = 3 * center - 20;
+						break;
+					default: //bishop, chancellor and lame queen
+						mg = eg = 2 * center - 10;
+					}
+					midgame[code][side][sq] = midgameMaterial[code] + mg;
+					endgame[code][side][sq] = endgameMaterial[code] + eg;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param code piece code
+	 * @param side 0 for the player moving in direction 1, otherwise 1
+	 * @param square
+	 * @return the midgame score of the piece on the square
+	 */
+	public int getMidgame(int code, int side, int square) {
+		return midgame[code][side][square];
+	}
+
+	/**
+	 * @param code piece code
+	 * @param side 0 for the player moving in direction 1, otherwise 1
+	 * @param square
+	 * @return the endgame score of the piece on the square
+	 */
+	public int getEndgame(int code, int side, int square) {
+		return endgame[code][side][square];
+	}
+
+	/**
+	 * @param code piece code
+	 * @return the weight of the piece in the phase
+	 */
+	public int getPhaseWeight(int code) {
+		return PHASE_WEIGHTS[code];
+	}
+
+	/**
+	 * Blends the midgame and endgame scores by the phase
+	 *
+	 * @param midgameScore
+	 * @param endgameScore
+	 * @param phase sum of the phase weights of the pieces on the board
+	 * @return the tapered score
+	 */
+	public static int taper(int midgameScore, int endgameScore, int phase) {
+		phase = Math.min(phase, MAX_PHASE);
+		return (midgameScore * phase + endgameScore * (MAX_PHASE - phase)) / MAX_PHASE;
+	}
+
+}
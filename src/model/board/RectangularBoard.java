@@ -9,11 +9,9 @@ import java.util.ArrayList;
 
 import com.jogamp.opengl.GL2;
 
-import model.ChessMove;
 import model.ChessPiece;
+import model.Move;
 import model.game_modes.GameMode;
-import model.pieces.Pawn;
-import view.loaders.AssetLoader;
 import view.loaders.structures.Model;
 import controller.Player;
 
@@ -30,6 +28,18 @@ public class RectangularBoard extends Board {
 
 	private final static float RENDER_SIZE = 18;
 	
+	/**
+	 * Offsets of the adjacent tiles, in the same order as the lists
+	 * returned by the getAdjacent/getKnightMoves/getPawnAttacks methods
+	 */
+	private final static int[] RANK_FILE_X = { -1, 1, 0, 0 };
+	private final static int[] RANK_FILE_Y = { 0, 0, -1, 1 };
+	private final static int[] DIAGONAL_X = { -1, -1, 1, 1 };
+	private final static int[] DIAGONAL_Y = { -1, 1, -1, 1 };
+	private final static int[] KNIGHT_X = { -2, -1, 2, 1, 2, 1, -2, -1 };
+	private final static int[] KNIGHT_Y = { 1, 2, 1, 2, -1, -2, -1, -2 };
+	private final static int[] PAWN_ATTACK_X = { 1, -1 };
+	
 	/**
 	 * Board that is represented as a 2D array
 	 */
@@ -51,6 +61,9 @@ public class RectangularBoard extends Board {
 	
 	public RectangularBoard(int _width, int _length, GameMode gameMode) {
 		super(gameMode);
+		if (_width * _length > Move.MAX_SQUARES)
+			throw new IllegalArgumentException("Board has more than " + Move.MAX_SQUARES + " tiles");
+		
 		boardPieces = new ChessPiece[_width][_length];
 		width = _width;
 		length = _length;
@@ -137,29 +150,77 @@ public class RectangularBoard extends Board {
 		return model;
 	}
 	
+	@Override
+	protected Board createEmptyBoard() {
+		return new RectangularBoard(width, length, gameMode);
+	}
+	
 	@Override
 	public String getType() {
 		return typeString;
 	}
 	
+	/**
+	 * @return the number of files
+	 */
+	public int getWidth() {
+		return width;
+	}
+	
+	/**
+	 * @return the number of ranks
+	 */
+	public int getLength() {
+		return length;
+	}
+	
 	@Override
 	public ChessPiece getTile(int x, int y) {
 		return boardPieces[x][y];
 	}
 	
+	@Override
+	public int getSquareCount() {
+		return width * length;
+	}
+	
+	/**
+	 * Squares are numbered row by row, ie (y * width + x)
+	 */
+	@Override
+	public int getSquare(int x, int y) {
+		return y * width + x;
+	}
+	
+	@Override
+	public int getSquareX(int square) {
+		return square % width;
+	}
+	
+	@Override
+	public int getSquareY(int square) {
+		return square / width;
+	}
+	
 	@Override
 	public ChessPiece setTile(ChessPiece piece, int x, int y) {
 		ChessPiece prev = boardPieces[x][y]; //save old piece
-		if (piece.getLocation().x >= 0 || piece.getLocation().y >= 0)
-			boardPieces[piece.getLocation().x][piece.getLocation().y] = null;
-		
-		//if piece existed...
-		if (prev != null)
-			prev.setLocation(new Point(-1, -1)); //internally set the piece to invalid (-1, -1)
+		Point loc = piece.getLocation();
+		if (loc.x >= 0 || loc.y >= 0) {
+			if (boardPieces[loc.x][loc.y] == piece)
+				pieceRemoved(piece, getSquare(loc.x, loc.y));
+			boardPieces[loc.x][loc.y] = null;
+		}
 		
+		//if another piece existed...
+		if (prev != null && prev != piece) {
+			pieceRemoved(prev, getSquare(x, y));
+			prev.setLocation(-1, -1); //internally set the piece to invalid (-1, -1)
+		}
 		
 		boardPieces[x][y] = piece;
-		piece.setLocation(new Point(x, y));
+		piece.setLocation(x, y);
+		piecePlaced(piece, getSquare(x, y));
 		return prev;
 	}
 	
@@ -225,25 +286,72 @@ public class RectangularBoard extends Board {
 	}
 
 	@Override
-	public ArrayList<Point> getPawnMoves(int x, int y, Pawn pawn) {
+	public ArrayList<Point> getPawnMoves(int x, int y, int direction, boolean hasMoved) {
 		ArrayList<Point> moves = new ArrayList<Point>();
-		int dir = pawn.getPlayer().getDirection();
-		moves.add(new Point(x, y + dir));
-		if (!pawn.getHasMoved())
-			moves.add(new Point(x, y + dir * 2));
+		moves.add(new Point(x, y + direction));
+		if (!hasMoved)
+			moves.add(new Point(x, y + direction * 2));
 			
 		return moves;	
 	}
 
 	@Override
-	public ArrayList<Point> getPawnAttacks(int x, int y, Pawn pawn) {
+	public ArrayList<Point> getPawnAttacks(int x, int y, int direction) {
 		ArrayList<Point> moves = new ArrayList<Point>();
-		int dir = pawn.getPlayer().getDirection();
-		moves.add(new Point(x + 1, y + dir));
-		moves.add(new Point(x - 1, y + dir));		
+		moves.add(new Point(x + 1, y + direction));
+		moves.add(new Point(x - 1, y + direction));		
 		return moves;
 	}
 	
+	@Override
+	public int getRankFileDirectionCount() {
+		return RANK_FILE_X.length;
+	}
+	
+	@Override
+	public int getDiagonalDirectionCount() {
+		return DIAGONAL_X.length;
+	}
+	
+	@Override
+	public int getKnightJumpCount() {
+		return KNIGHT_X.length;
+	}
+	
+	@Override
+	public int getPawnAttackCount() {
+		return PAWN_ATTACK_X.length;
+	}
+	
+	@Override
+	public int getRankFileNeighbour(int square, int dir) {
+		return offsetSquare(square, RANK_FILE_X[dir], RANK_FILE_Y[dir]);
+	}
+	
+	@Override
+	public int getDiagonalNeighbour(int square, int dir) {
+		return offsetSquare(square, DIAGONAL_X[dir], DIAGONAL_Y[dir]);
+	}
+	
+	@Override
+	public int getKnightJump(int square, int jump) {
+		return offsetSquare(square, KNIGHT_X[jump], KNIGHT_Y[jump]);
+	}
+	
+	@Override
+	public int getPawnAttack(int square, int direction, int attack) {
+		return offsetSquare(square, PAWN_ATTACK_X[attack], direction);
+	}
+	
+	/**
+	 * @return the square (dx, dy) away from square, -1 if it is out of bounds
+	 */
+	private int offsetSquare(int square, int dx, int dy) {
+		int x = getSquareX(square) + dx;
+		int y = getSquareY(square) + dy;
+		return isInBounds(x, y) ? getSquare(x, y) : -1;
+	}
+	
 	public Point getBoardPosition(Point2D.Float renderPoint) {
 		Point retVal = new Point();
 		retVal.x = (int) (renderPoint.x / RENDER_SIZE + width / 2.0f);
@@ -258,27 +366,5 @@ public class RectangularBoard extends Board {
 		retVal.y = (loc.y - length / 2.0f + 1 / 2.0f) * RENDER_SIZE;
 		return retVal;
 	}
-	
-	@Override
-	public void render(GL2 gl, ChessPiece selectedPiece) {		
-		AssetLoader.getInstance().getModel(getType()).render(gl);
-		for (int x = 0;x < width;x ++) {
-			for (int z = 0;z < length;z ++) {
-				if (boardPieces[x][z] != null) {
-					boardPieces[x][z].render(gl);
-				}
-			}
-		}
-		if (selectedPiece != null) {
-			ArrayList<ChessMove> moves = selectedPiece.getValidMoves();
-			for (ChessMove move : moves) {
-				Point2D.Float rl = getRenderPosition(move.getMoveLocation());
-				gl.glPushMatrix();
-					gl.glTranslatef(rl.x, 0, rl.y);
-					AssetLoader.getInstance().getModel(getType() + ":Tile").render(gl);
-				gl.glPopMatrix();
-			}
-		}
-	}
 
 }
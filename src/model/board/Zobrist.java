@@ -0,0 +1,85 @@
+package model.board;
+
+import java.util.Random;
+
+import model.ChessPiece;
+import model.Move;
+
+/**
+ * Random keys used to build the Zobrist key of a position (see
+ * {@link Board#positionKey()}). The key of a position is the XOR of the key
+ * of every piece on its square, the moved key of every square holding a
+ * piece that has moved, and the side key when the second player is to move.
+ * Because XOR is its own inverse, the key is updated incrementally by
+ * XOR-ing the keys of whatever changed.
+ *
+ * The keys are generated from a fixed seed, so a position has the same key
+ * in every run.
+ *
+ */
+public final class Zobrist {
+
+	private final static long SEED = 0x3DC4E55L;
+
+	/**
+	 * Keys for each piece code (see {@link Move}), side and square
+	 */
+	private final static long[][][] PIECES = new long[Move.LAME_QUEEN + 1][2][Move.MAX_SQUARES];
+
+	/**
+	 * Keys for a piece that has moved, by square
+	 */
+	private final static long[] MOVED = new long[Move.MAX_SQUARES];
+
+	/**
+	 * Key XOR-ed in while the second player is to move
+	 */
+	public final static long SIDE;
+
+	static {
+		Random random = new Random(SEED);
+		for (int piece = 0;piece < PIECES.length;piece ++)
+			for (int side = 0;side < 2;side ++)
+				for (int sq = 0;sq < Move.MAX_SQUARES;sq ++)
+					PIECES[piece][side][sq] = random.nextLong();
+
+		for (int sq = 0;sq < Move.MAX_SQUARES;sq ++)
+			MOVED[sq] = random.nextLong();
+
+		SIDE = random.nextLong();
+	}
+
+	private Zobrist() { }
+
+	/**
+	 * @param piece
+	 * @param square square index the piece is on
+	 * @return the key of the piece on the square, including its moved state
+	 */
+	public static long pieceKey(ChessPiece piece, int square) {
+		long key = PIECES[Move.pieceCode(piece)][(piece.getPlayer().getDirection() == 1) ? 0 : 1][square];
+		if (piece.getHasMoved())
+			key ^= MOVED[square];
+
+		return key;
+	}
+
+	/**
+	 * @param piece a pawn
+	 * @param square square index the pawn is on
+	 * @return the key of the pawn on the square for the pawn key (see 
+	 *  {@link Board#pawnKey()}), which ignores the moved state
+	 */
+	public static long pawnKey(ChessPiece piece, int square) {
+		return PIECES[Move.PAWN][(piece.getPlayer().getDirection() == 1) ? 0 : 1][square];
+	}
+
+	/**
+	 * @param square
+	 * @return the key of a piece that has moved on the square
+	 */
+	public static long movedKey(int square) {
+		return MOVED[square];
+	}
+
+}
@@ -0,0 +1,199 @@
+package model.game_modes;
+
+import java.awt.Point;
+import java.util.Arrays;
+
+import model.ChessPiece;
+import model.PieceType;
+import model.Move;
+import model.board.Board;
+import model.board.MoveTables;
+import controller.Player;
+
+/**
+ * MoveValidator for game modes where the mover's king may not be left in check.
+ * When the validator is reset the pieces checking the king, the squares that
+ * resolve a single check and the pinned pieces (with the line each one is pinned
+ * along) are found by walking outward from the king. Any move of a piece other
+ * than the king is then validated with a few array look ups, instead of being
+ * simulated. The arrays are allocated once, the board resets the validator for
+ * each position. King moves are still simulated, as the king can't be validated
+ * by the masks (it may not step back along the line of a checking slider).
+ *
+ */
+public class CheckMaskValidator implements MoveValidator {
+
+	private Board board;
+
+	/**
+	 * Square of the mover's king, -1 if the mover has no king on the board
+	 */
+	private int kingSquare;
+
+	/**
+	 * Number of enemy pieces that are checking the king
+	 */
+	private int checkers;
+
+	/**
+	 * Squares that resolve the check, ie the square of the checking piece
+	 * and the squares between it and the king
+	 */
+	private boolean[] blockSquares;
+
+	/**
+	 * For the square of each pinned piece, the id of the line it is pinned
+	 * along (0 if the piece isn't pinned)
+	 */
+	private int[] pinnedLine;
+
+	/**
+	 * For each square between the king and a pinning piece (including the
+	 * pinning piece), the id of that line
+	 */
+	private int[] lineSquares;
+
+	/**
+	 * Squares walked from the king on the current line
+	 */
+	private int[] path;
+
+	public CheckMaskValidator(Board _board, Player mover) {
+		board = _board;
+		int squares = board.getSquareCount();
+		blockSquares = new boolean[squares];
+		pinnedLine = new int[squares];
+		lineSquares = new int[squares];
+		path = new int[squares];
+		reset(mover);
+	}
+
+	/**
+	 * Finds the checks and pins of the mover's king in the current position,
+	 * reusing the arrays of the last position
+	 */
+	@Override
+	public void reset(Player mover) {
+		Arrays.fill(blockSquares, false);
+		Arrays.fill(pinnedLine, 0);
+		Arrays.fill(lineSquares, 0);
+		checkers = 0;
+		kingSquare = -1;
+		ChessPiece king = mover.getKing();
+		if (king == null || !board.isInBounds(king.getLocation()))
+			return;
+
+		Point k = king.getLocation();
+		kingSquare = board.getSquare(k.x, k.y);
+		Player enemy = mover.getOtherPlayer();
+
+		//walk every rank-file and diagonal line leaving the king
+		MoveTables tables = board.getMoveTables();
+		int line = 1;
+		for (int dir = 0;dir < tables.getRankFileDirections();dir ++)
+			scanLine(mover, tables.getRankFileStart(kingSquare, dir), true, line ++);
+		for (int dir = 0;dir < tables.getDiagonalDirections();dir ++)
+			scanLine(mover, tables.getDiagonalStart(kingSquare, dir), false, line ++);
+
+		//pieces that can jump to the king
+		for (int i = tables.getKnightStart(kingSquare);tables.getKnightSquare(i) >= 0;i ++) {
+			int sq = tables.getKnightSquare(i);
+			ChessPiece piece = board.getTile(sq);
+			if (piece != null && piece.getPlayer() == enemy && piece.capturesByKnightJump())
+				addChecker(sq);
+		}
+
+		//pawns attacking the king, from where a pawn moving the other way would attack
+		for (int i = tables.getPawnAttackStart(kingSquare, mover.getDirection());tables.getPawnAttackSquare(i) >= 0;i ++) {
+			int sq = tables.getPawnAttackSquare(i);
+			ChessPiece piece = board.getTile(sq);
+			if (piece != null && piece.getPlayer() == enemy && piece.getPieceType() == PieceType.PAWN)
+				addChecker(sq);
+		}
+	}
+
+	/**
+	 * Walks the line starting next to the king until the first enemy piece. If that
+	 * piece attacks along the line it is either checking the king (nothing in between)
+	 * or pinning the single friendly piece in between.
+	 *
+	 * @param start index of the first square of the line in the move tables
+	 */
+	private void scanLine(Player mover, int start, boolean rankFile, int line) {
+		MoveTables tables = board.getMoveTables();
+		int pinned = -1;
+		int length = 0;
+		int sq = rankFile ? tables.getRankFileSquare(start) : tables.getDiagonalSquare(start);
+		while (sq >= 0) {
+			path[length ++] = sq;
+			ChessPiece piece = board.getTile(sq);
+			if (piece != null) {
+				if (piece.getPlayer() == mover) {
+					if (pinned >= 0) //two friendly pieces, nothing is pinned
+						return;
+					pinned = sq;
+				} else {
+					if (!piece.capturesAlongLine(rankFile, length))
+						return;
+
+					if (pinned < 0) {
+						checkers ++;
+						for (int i = 0;i < length;i ++)
+							blockSquares[path[i]] = true;
+					} else {
+						pinnedLine[pinned] = line;
+						for (int i = 0;i < length;i ++)
+							lineSquares[path[i]] = line;
+					}
+					return;
+				}
+			}
+			sq = rankFile ? tables.getRankFileSquare(start + length) : tables.getDiagonalSquare(start + length);
+		}
+	}
+
+	private void addChecker(int square) {
+		checkers ++;
+		blockSquares[square] = true;
+	}
+
+	/**
+	 * @return true if the mover's king is in check
+	 */
+	public boolean inCheck() {
+		return checkers > 0;
+	}
+
+	@Override
+	public boolean isValidMove(int move) {
+		if (kingSquare < 0)
+			return true;
+
+		int from = Move.getFrom(move);
+		if (from == kingSquare)
+			return board.isValidMove(move);
+
+		//only the king can escape a double check
+		if (checkers > 1)
+			return false;
+
+		int to = Move.getTo(move);
+		if (checkers == 1 && !blockSquares[to])
+			return false;
+
+		return pinnedLine[from] == 0 || lineSquares[to] == pinnedLine[from];
+	}
+
+	/**
+	 * Only the king can move out of a double check, and a pinned piece can't
+	 * resolve a check, its line only meets the checking line at the king
+	 */
+	@Override
+	public boolean canMove(int from) {
+		if (kingSquare < 0 || from == kingSquare || checkers == 0)
+			return true;
+
+		return checkers == 1 && pinnedLine[from] == 0;
+	}
+
+}
@@ -2,6 +2,7 @@ package model.game_modes;
 
 import model.ChessMove;
 import model.board.Board;
+import model.board.PieceSquareTables;
 import controller.GameLoop;
 import controller.Player;
 
@@ -37,6 +38,19 @@ public interface GameMode {
 	 * @return true if the board is in a valid state
 	 */
 	boolean boardValid(Board board, Player victim, ChessMove lastMove);
+	
+	/**
+	 * Creates the MoveValidator used to filter the mover's possible moves
+	 * in the current position. The validator must give the same answer as
+	 * simulating each move and calling boardValid(), but may compute anything 
+	 * shared by all the moves once up front. The board keeps the validator and
+	 * resets it for its later positions, see {@link MoveValidator#reset(Player)}.
+	 * 
+	 * @param board
+	 * @param mover The player whose moves will be validated
+	 * @return a validator for the current position
+	 */
+	MoveValidator createMoveValidator(Board board, Player mover);
 
 	/**
 	 * Called when there are no moves left for the current player. At this
@@ -48,6 +62,24 @@ public interface GameMode {
 	 */
 	boolean hasPlayerLost(Board board, Player victim);
 
+	/**
+	 * Creates the tables the board evaluates positions with, see
+	 * {@link Board#evaluate(Player)}
+	 * 
+	 * @param board
+	 * @return the evaluation tables for the board
+	 */
+	PieceSquareTables createPieceSquareTables(Board board);
+
+	/**
+	 * Used by the search to tell if a player may decline a capture. When
+	 * captures are compulsory, boardValid() rejects every other move while
+	 * the mover has a capture
+	 * 
+	 * @return true if a player that can capture must capture
+	 */
+	boolean capturesCompulsory();
+
 	/**
 	 * Called after a move has been executed. This method should display
 	 * and warning, such as check in a Standard game
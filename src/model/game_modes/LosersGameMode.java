@@ -1,8 +1,9 @@
 package model.game_modes;
 
 import model.ChessMove;
-import model.ChessPiece;
+import model.board.BitboardBoard;
 import model.board.Board;
+import model.board.PieceSquareTables;
 import model.board.RectangularBoard;
 import model.pieces.Bishop;
 import model.pieces.King;
@@ -15,10 +16,30 @@ import controller.Player;
 
 public class LosersGameMode implements GameMode {
 
+	/**
+	 * If the board created by initPieces() should be a BitboardBoard
+	 */
+	private boolean useBitboard;
+
+	/**
+	 * Creates a losers game played on a BitboardBoard
+	 */
+	public LosersGameMode() {
+		this(true);
+	}
+
+	/**
+	 * @param _useBitboard true to play on a BitboardBoard, false to play
+	 *  on a plain RectangularBoard
+	 */
+	public LosersGameMode(boolean _useBitboard) {
+		useBitboard = _useBitboard;
+	}
+
 	@Override
 	public Board initPieces(Player player1, Player player2) {
 		// Create a standard 8,8 board
-		RectangularBoard board = new RectangularBoard(this);
+		RectangularBoard board = useBitboard ? new BitboardBoard(this) : new RectangularBoard(this);
 
 		// if the direction is -1 set the pawns to row 6 otherwise set them to 1
 		int p1PawnLoc = player1.getDirection() == -1 ? 6 : 1;
@@ -58,14 +79,14 @@ public class LosersGameMode implements GameMode {
 			return true;
 		
 		lastMove.undoMove();
-		for (ChessPiece p : victim.getPieces()) {
-			if (!p.getCaptureMoves().isEmpty()) {
-				lastMove.executeMove(false);
-				return false;
-			}
-		}
-			
-		return true;
+		boolean couldCapture = board.hasAnyCapture(victim);
+		lastMove.executeMove(false);
+		return !couldCapture;
+	}
+
+	@Override
+	public MoveValidator createMoveValidator(Board board, Player mover) {
+		return new SimulatedMoveValidator(board);
 	}
 
 	@Override
@@ -73,6 +94,16 @@ public class LosersGameMode implements GameMode {
 		return victim.getPieces().isEmpty();
 	}
 
+	@Override
+	public PieceSquareTables createPieceSquareTables(Board board) {
+		return PieceSquareTables.losers(board);
+	}
+
+	@Override
+	public boolean capturesCompulsory() {
+		return true;
+	}
+
 	@Override
 	public void postMoveAction(final GameLoop gameController, ChessMove lastMove) {
 		// TODO Auto-generated method stub
@@ -0,0 +1,39 @@
+package model.game_modes;
+
+import model.board.Board;
+import controller.Player;
+
+/**
+ * Decides which of a player's possible moves are valid in a single position.
+ * A validator is created once per board by 
+ * {@link GameMode#createMoveValidator(Board, Player)} and reset for every position
+ * with {@link #reset(Player)}, so that any work shared by all the moves (such as 
+ * finding pinned pieces) is only done once, and nothing is allocated per position.
+ * A validator must not be used after the board has been changed.
+ * 
+ */
+public interface MoveValidator {
+
+	/**
+	 * @param move packed move of one of the mover's pieces, see {@link model.Move}
+	 * @return true if the move is valid in the context of the GameMode
+	 */
+	boolean isValidMove(int move);
+	
+	/**
+	 * Prepares the validator for the mover's moves in the board's current position
+	 * 
+	 * @param mover
+	 */
+	void reset(Player mover);
+	
+	/**
+	 * A cheap test used to skip pieces when only one valid move is looked for,
+	 * see {@link Board#hasAnyLegalMove(Player)}
+	 * 
+	 * @param from square of one of the mover's pieces
+	 * @return false if no move of the piece can be valid
+	 */
+	boolean canMove(int from);
+	
+}
@@ -0,0 +1,39 @@
+package model.game_modes;
+
+import model.board.Board;
+import controller.Player;
+
+/**
+ * MoveValidator that simulates every move and asks the GameMode if the
+ * resulting board is valid, see {@link Board#isValidMove(model.ChessMove)}.
+ * Used by game modes whose rules can't be decided without making the move.
+ * 
+ */
+public class SimulatedMoveValidator implements MoveValidator {
+
+	private Board board;
+	
+	public SimulatedMoveValidator(Board _board) {
+		board = _board;
+	}
+	
+	@Override
+	public boolean isValidMove(int move) {
+		return board.isValidMove(move);
+	}
+	
+	/**
+	 * Nothing is computed up front
+	 */
+	@Override
+	public void reset(Player mover) { }
+	
+	/**
+	 * Nothing is known without simulating the moves
+	 */
+	@Override
+	public boolean canMove(int from) {
+		return true;
+	}
+
+}
@@ -1,9 +1,13 @@
 package model.game_modes;
 
+import java.awt.Point;
+
 import javax.swing.JOptionPane;
 
 import model.ChessMove;
+import model.board.BitboardBoard;
 import model.board.Board;
+import model.board.PieceSquareTables;
 import model.board.RectangularBoard;
 import model.pieces.Bishop;
 import model.pieces.King;
@@ -23,10 +27,30 @@ import controller.Player;
  */
 public class StandardGame implements GameMode {
 
+	/**
+	 * If the board created by initPieces() should be a BitboardBoard
+	 */
+	private boolean useBitboard;
+	
+	/**
+	 * Creates a standard game played on a BitboardBoard
+	 */
+	public StandardGame() {
+		this(true);
+	}
+	
+	/**
+	 * @param _useBitboard true to play on a BitboardBoard, false to play
+	 *  on a plain RectangularBoard
+	 */
+	public StandardGame(boolean _useBitboard) {
+		useBitboard = _useBitboard;
+	}
+
 	@Override
 	public Board initPieces(Player player1, Player player2) {
 		//Create a standard 8,8 board
-		RectangularBoard board = new RectangularBoard(this);
+		RectangularBoard board = useBitboard ? new BitboardBoard(this) : new RectangularBoard(this);
 		
 		//if the direction is -1 set the pawns to row 6 otherwise set them to 1
 		int p1PawnLoc = player1.getDirection() == -1 ? 6 : 1;
@@ -59,6 +83,18 @@ public class StandardGame implements GameMode {
 		return board;
 	}	
 
+	/**
+	 * Uses the board's reverse attack query on the player's king
+	 * 
+	 * @param board
+	 * @param player
+	 * @return true if the player's king is in check
+	 */
+	private static boolean inCheck(Board board, Player player) {
+		Point king = player.getKing().getLocation();
+		return board.isSquareAttacked(board.getSquare(king.x, king.y), player.getOtherPlayer());
+	}
+	
 	/**
 	 * In a standard game this board is inspected to make sure the king
 	 * is not in check
@@ -66,18 +102,37 @@ public class StandardGame implements GameMode {
 	 */
 	@Override
 	public boolean boardValid(Board board, Player mover, ChessMove lastMove) {
-		return !board.locationPressured(mover.getKing().getLocation(), mover);
+		return !inCheck(board, mover);
+	}
+	
+	/**
+	 * Validates moves with the check and pin masks of the mover's king,
+	 * so that only king moves have to be simulated
+	 */
+	@Override
+	public MoveValidator createMoveValidator(Board board, Player mover) {
+		return new CheckMaskValidator(board, mover);
 	}
 	
 	@Override
 	public boolean hasPlayerLost(Board board, Player victim) {
-		return board.locationPressured(victim.getKing().getLocation(), victim);
+		return inCheck(board, victim);
+	}
+
+	@Override
+	public PieceSquareTables createPieceSquareTables(Board board) {
+		return PieceSquareTables.standard(board);
+	}
+
+	@Override
+	public boolean capturesCompulsory() {
+		return false;
 	}
 
 	@Override
 	public void postMoveAction(final GameLoop gameController, ChessMove lastMove) {
 		final Player currentPlayer = gameController.getCurrentPlayer();
-		if (gameController.getBoard().locationPressured(currentPlayer.getKing().getLocation(), currentPlayer)) {
+		if (gameController.getPositionStatus().isInCheck()) {
 			Thread t = new Thread(new Runnable() {
 				public void run() {
 					String message = currentPlayer.getPlayerName() + " is in check";
@@ -1,9 +1,8 @@
 package model.pieces;
 
-import java.util.ArrayList;
-
-import model.ChessMove;
 import model.ChessPiece;
+import model.MoveList;
+import model.PieceType;
 import model.board.Board;
 import controller.Player;
 
@@ -20,17 +19,22 @@ public class Bishop extends ChessPiece {
 	}
 
 	/**
-	 * Returns all the diagonal moves that the bishop can capture/move
+	 * Adds all the diagonal moves that the bishop can capture/move
 	 */
 	@Override
-	public ArrayList<ChessMove> getPossibleMoves() {
-		//return all diagonal moves, including capturables
-		return getDiagonalMoves(true, true);
+	public void addPossibleMoves(MoveList moves) {
+		//add all diagonal moves, including capturables
+		addDiagonalMoves(moves, true, true);
+	}
+
+	@Override
+	public ChessPiece copy(Board _board, Player _player) {
+		return new Bishop(location.x, location.y, _board, _player);
 	}
 
 	@Override
-	public String getType() {
-		return "Bishop";
+	public PieceType getPieceType() {
+		return PieceType.BISHOP;
 	}
 
 }
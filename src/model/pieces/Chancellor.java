@@ -1,10 +1,8 @@
 package model.pieces;
 
-import java.awt.Point;
-import java.util.ArrayList;
-
-import model.ChessMove;
 import model.ChessPiece;
+import model.MoveList;
+import model.PieceType;
 import model.board.Board;
 import controller.Player;
 
@@ -22,24 +20,23 @@ public class Chancellor extends ChessPiece {
 	}
 
 	/**
-	 * Returns all the diagonal moves that the Chancellor can capture/move
+	 * Adds all the rank-file moves that the Chancellor can capture/move
 	 * and all the knigh-type moves this piece can capture/move to
 	 */
 	@Override
-	public ArrayList<ChessMove> getPossibleMoves() {
-		ArrayList<ChessMove> moves = getRankFileMoves(true, true);
-		for (Point loc : board.getKnightMoves(location.x, location.y)) {
-			ChessMove move = new ChessMove(loc, this);
-			if (board.isMovableTile(loc, player, true))
-				moves.add(move);
-		}
-		
-		return moves;
+	public void addPossibleMoves(MoveList moves) {
+		addRankFileMoves(moves, true, true);
+		addKnightMoves(moves, true);
+	}
+
+	@Override
+	public ChessPiece copy(Board _board, Player _player) {
+		return new Chancellor(location.x, location.y, _board, _player);
 	}
 
 	@Override
-	public String getType() {
-		return "Chancellor";
+	public PieceType getPieceType() {
+		return PieceType.CHANCELLOR;
 	}
 
 }
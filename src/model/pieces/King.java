@@ -1,9 +1,8 @@
 package model.pieces;
 
-import java.util.ArrayList;
-
-import model.ChessMove;
 import model.ChessPiece;
+import model.MoveList;
+import model.PieceType;
 import model.board.Board;
 import controller.Player;
 
@@ -25,24 +24,28 @@ public class King extends ChessPiece {
 	}
 
 	/**
-	 * Returns all the diagonal/adjacent moves that the king can capture/move to
+	 * Adds all the diagonal/adjacent moves that the king can capture/move to
 	 * 
 	 * NOTE: the list of possible moves includes moves that will put this King in check,
 	 * (if the game allows). This is intentional, if you want a list of valid moves (ie 
-	 * moves that conform the the current GameMode's rules) call getValidMoves()
+	 * moves that conform the the current GameMode's rules) call addValidMoves()
 	 */
 	@Override
-	public ArrayList<ChessMove> getPossibleMoves() {
-		//get immediate adjacent moves
-		ArrayList<ChessMove> moves = getDiagonalMoves(false, true);
-		//get immediate diagonal moves
-		moves.addAll(getRankFileMoves(false, true));
-		return moves;
+	public void addPossibleMoves(MoveList moves) {
+		//add immediate diagonal moves
+		addDiagonalMoves(moves, false, true);
+		//add immediate adjacent moves
+		addRankFileMoves(moves, false, true);
+	}
+
+	@Override
+	public ChessPiece copy(Board _board, Player _player) {
+		return new King(location.x, location.y, _board, _player);
 	}
 
 	@Override
-	public String getType() {
-		return "King";
+	public PieceType getPieceType() {
+		return PieceType.KING;
 	}
 
 }
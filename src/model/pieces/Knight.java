@@ -1,10 +1,8 @@
 package model.pieces;
 
-import java.awt.Point;
-import java.util.ArrayList;
-
-import model.ChessMove;
 import model.ChessPiece;
+import model.MoveList;
+import model.PieceType;
 import model.board.Board;
 import controller.Player;
 
@@ -22,25 +20,22 @@ public class Knight extends ChessPiece {
 	}
 
 	/**
-	 * Returns all the moves this knight can make in
+	 * Adds all the moves this knight can make in
 	 * it's current position
 	 */
 	@Override
-	public ArrayList<ChessMove> getPossibleMoves() {
-		ArrayList<ChessMove> moves = new ArrayList<ChessMove>();
-		//loop through all possible moves given by board
-		for (Point loc : board.getKnightMoves(location.x, location.y)) {
-			ChessMove move = new ChessMove(loc, this);
-			if (board.isMovableTile(loc, player, true)) //if its a valid move...
-				moves.add(move);
-		}
-				
-		return moves;
+	public void addPossibleMoves(MoveList moves) {
+		addKnightMoves(moves, true);
+	}
+
+	@Override
+	public ChessPiece copy(Board _board, Player _player) {
+		return new Knight(location.x, location.y, _board, _player);
 	}
 
 	@Override
-	public String getType() {
-		return "Knight";
+	public PieceType getPieceType() {
+		return PieceType.KNIGHT;
 	}
 
 }
@@ -1,9 +1,8 @@
 package model.pieces;
 
-import java.util.ArrayList;
-
-import model.ChessMove;
 import model.ChessPiece;
+import model.MoveList;
+import model.PieceType;
 import model.board.Board;
 import controller.Player;
 
@@ -22,21 +21,25 @@ public class LameQueen extends ChessPiece {
 	}
 
 	/**
-	 * Returns all the diagonal moves that the LameQueen can capture/move
+	 * Adds all the diagonal moves that the LameQueen can capture/move
 	 * and the rank-file moves that the queen can move
 	 */
 	@Override
-	public ArrayList<ChessMove> getPossibleMoves() {
+	public void addPossibleMoves(MoveList moves) {
 		//add diagonal
-		ArrayList<ChessMove> moves = this.getDiagonalMoves(true, true);
+		addDiagonalMoves(moves, true, true);
 		//add rank-file
-		moves.addAll(getRankFileMoves(true, false));
-		return moves;
+		addRankFileMoves(moves, true, false);
+	}
+
+	@Override
+	public ChessPiece copy(Board _board, Player _player) {
+		return new LameQueen(location.x, location.y, _board, _player);
 	}
 
 	@Override
-	public String getType() {
-		return "LameQueen";
+	public PieceType getPieceType() {
+		return PieceType.LAME_QUEEN;
 	}
 
 }
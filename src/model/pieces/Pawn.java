@@ -1,11 +1,11 @@
 package model.pieces;
 
-import java.awt.Point;
-import java.util.ArrayList;
-
-import model.ChessMove;
 import model.ChessPiece;
+import model.Move;
+import model.MoveList;
+import model.PieceType;
 import model.board.Board;
+import model.board.MoveTables;
 import controller.Player;
 
 /**
@@ -24,35 +24,41 @@ public class Pawn extends ChessPiece {
 	}
 
 	/**
-	 * Returns the possible moves this pawn can move. 
+	 * Adds the possible moves this pawn can move. 
 	 * NOTE: the class that inherits from board is responsible
 	 * for checking to see if the pawn has moved. 
 	 */
 	@Override
-	public ArrayList<ChessMove> getPossibleMoves() {
-		ArrayList<ChessMove> moves = new ArrayList<ChessMove>();
+	public void addPossibleMoves(MoveList moves) {
+		MoveTables tables = board.getMoveTables();
+		int from = getSquare();
+		int direction = player.getDirection();
+		
 		//cycle through the moves, should just be 2 or 1, depending if it has moved already
-		for (Point loc : board.getPawnMoves(location.x, location.y, this)) {
-			ChessMove move = new ChessMove(loc, this);
-			if (board.isMovableTile(loc, player, false))
-				moves.add(move);
+		for (int i = tables.getPawnPushStart(from, direction, hasMoved);tables.getPawnPushSquare(i) >= 0;i ++) {
+			int to = tables.getPawnPushSquare(i);
+			if (board.isMovableTile(to, player, false))
+				moves.add(Move.create(board, from, to));
 			else 
 				break;
 		}
 		
-		for (Point loc : board.getPawnAttacks(location.x, location.y, this)) {
-			//cycke throught the attack locations, should just be 2
-			ChessMove move = new ChessMove(loc, this);
-			if (board.hasEnemyPiece(loc, player))
-				moves.add(move);
+		for (int i = tables.getPawnAttackStart(from, direction);tables.getPawnAttackSquare(i) >= 0;i ++) {
+			//cycle through the attack locations, should just be 2
+			int to = tables.getPawnAttackSquare(i);
+			if (board.hasEnemyPiece(to, player))
+				moves.add(Move.create(board, from, to));
 		}
-			
-		return moves;
 	}
 
 	@Override
-	public String getType() {
-		return "Pawn";
+	public ChessPiece copy(Board _board, Player _player) {
+		return new Pawn(location.x, location.y, _board, _player);
+	}
+
+	@Override
+	public PieceType getPieceType() {
+		return PieceType.PAWN;
 	}
 
 }
@@ -1,9 +1,8 @@
 package model.pieces;
 
-import java.util.ArrayList;
-
-import model.ChessMove;
 import model.ChessPiece;
+import model.MoveList;
+import model.PieceType;
 import model.board.Board;
 import controller.Player;
 
@@ -21,18 +20,22 @@ public class Queen extends ChessPiece {
 	}
 
 	/**
-	 * Returns all the diagonal and rank-file moves that the queen can capture/move
+	 * Adds all the diagonal and rank-file moves that the queen can capture/move
 	 */
 	@Override
-	public ArrayList<ChessMove> getPossibleMoves() {
-		ArrayList<ChessMove> moves = getRankFileMoves(true, true);
-		moves.addAll(getDiagonalMoves(true, true));
-		return moves;
+	public void addPossibleMoves(MoveList moves) {
+		addRankFileMoves(moves, true, true);
+		addDiagonalMoves(moves, true, true);
+	}
+
+	@Override
+	public ChessPiece copy(Board _board, Player _player) {
+		return new Queen(location.x, location.y, _board, _player);
 	}
 
 	@Override
-	public String getType() {
-		return "Queen";
+	public PieceType getPieceType() {
+		return PieceType.QUEEN;
 	}
 
 }
@@ -1,9 +1,8 @@
 package model.pieces;
 
-import java.util.ArrayList;
-
-import model.ChessMove;
 import model.ChessPiece;
+import model.MoveList;
+import model.PieceType;
 import model.board.Board;
 import controller.Player;
 
@@ -21,16 +20,21 @@ public class Rook extends ChessPiece {
 	}
 
 	/**
-	 * Returns all the rank-file moves that the bishop can capture/move
+	 * Adds all the rank-file moves that the rook can capture/move
 	 */
 	@Override
-	public ArrayList<ChessMove> getPossibleMoves() {
-		return getRankFileMoves(true, true);
+	public void addPossibleMoves(MoveList moves) {
+		addRankFileMoves(moves, true, true);
+	}
+
+	@Override
+	public ChessPiece copy(Board _board, Player _player) {
+		return new Rook(location.x, location.y, _board, _player);
 	}
 
 	@Override
-	public String getType() {
-		return "Rook";
+	public PieceType getPieceType() {
+		return PieceType.ROOK;
 	}
 
 }
@@ -1,10 +1,9 @@
 package tests;
 
-import java.awt.Point;
-
 import com.jogamp.opengl.awt.GLCanvas;
 
-import model.ChessMove;
+import model.Move;
+import model.board.Board;
 import model.game_modes.StandardGame;
 import view.GameFrame;
 import controller.GameLoop;
@@ -21,10 +20,11 @@ public class StandardGameSimulationTest {
 	//Convenience method for doing a simulated move, (startPoint, endPoint, game, cancas, timeafter)
 	private static void doMove(int xs, int ys, int xe, int ye, GameLoop game, GLCanvas canvas, int seconds) {
 		try {
+			Board board = game.getBoard();
+			int move = Move.create(board, board.getTile(xs, ys), xe, ye);
+			//the game thread executes the move and displays it, before the board is read again
+			game.postMove(game.getCurrentPlayer(), board, board.positionKey(), move);
 			Thread.sleep(1000 * seconds);
-			ChessMove move = new ChessMove(new Point(xe, ye), game.getBoard().getTile(xs, ys));
-			game.executeMove(move);
-			canvas.display();
 		} catch (InterruptedException e) {
 			e.printStackTrace();
 		}
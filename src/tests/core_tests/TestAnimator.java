@@ -0,0 +1,100 @@
+package tests.core_tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import controller.util.Animator;
+import controller.util.Easing;
+import controller.util.FloatProperty;
+
+/**
+ * Checks the animator steps the properties along their curves, and
+ * removes the finished animations
+ *
+ */
+public class TestAnimator {
+
+	/**
+	 * A float field with a handle to it
+	 */
+	private static class Value implements FloatProperty {
+		
+		float value;
+		
+		@Override
+		public float get() {
+			return value;
+		}
+		
+		@Override
+		public void set(float _value) {
+			value = _value;
+		}
+		
+	}
+	
+	@Test
+	public void testStep() {
+		Animator animator = new Animator();
+		Value linear = new Value();
+		Value eased = new Value();
+		animator.animate(linear, 0, 10, 1, Easing.LINEAR);
+		animator.animate(eased, 0, 10, 2, Easing.EASE_IN_OUT);
+		assertEquals(2, animator.size());
+		
+		animator.step(0.5f);
+		assertEquals(5, linear.value, 1e-5);
+		assertEquals(10 * Easing.EASE_IN_OUT.apply(0.25f), eased.value, 1e-5);
+		
+		//the linear animation finishes on its end value and is removed
+		animator.step(0.75f);
+		assertEquals(10, linear.value, 0);
+		assertEquals(1, animator.size());
+		
+		animator.step(1);
+		assertEquals(10, eased.value, 0);
+		assertTrue(animator.isEmpty());
+	}
+	
+	@Test
+	public void testReplaceAndGrow() {
+		Animator animator = new Animator();
+		Value[] values = new Value[20];
+		for (int i = 0;i < values.length;i ++) {
+			values[i] = new Value();
+			animator.animate(values[i], 0, i, i + 1, Easing.LINEAR);
+		}
+		assertEquals(values.length, animator.size());
+		
+		//a second animation of a property replaces the first
+		values[0].value = 4;
+		animator.animateTo(values[0], 8, 1, Easing.EASE_OUT);
+		assertEquals(values.length, animator.size());
+		animator.step(0.5f);
+		assertEquals(4 + 4 * Easing.EASE_OUT.apply(0.5f), values[0].value, 1e-5);
+		
+		//finished animations are compacted out, the rest keep running
+		animator.step(4.5f);
+		assertEquals(values.length - 5, animator.size());
+		for (int i = 0;i < 5;i ++)
+			assertEquals((i == 0) ? 8 : i, values[i].value, 0);
+		assertEquals(5 * 5 / 6.0f, values[5].value, 1e-4);
+		
+		animator.clear();
+		assertTrue(animator.isEmpty());
+	}
+	
+	@Test
+	public void testEasing() {
+		for (Easing easing : Easing.values()) {
+			assertEquals(0, easing.apply(0), 0);
+			assertEquals(1, easing.apply(1), 1e-6);
+		}
+		assertEquals(0.5f, Easing.EASE_IN_OUT.apply(0.5f), 1e-6);
+		assertTrue(Easing.EASE_IN.apply(0.5f) < 0.5f);
+		assertTrue(Easing.EASE_OUT.apply(0.5f) > 0.5f);
+	}
+	
+}
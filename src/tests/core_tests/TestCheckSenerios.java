@@ -8,12 +8,16 @@ import static org.junit.Assert.assertTrue;
 import java.awt.Point;
 
 import model.ChessMove;
+import model.Move;
+import model.PositionStatus;
 import model.board.Board;
 import model.board.RectangularBoard;
 import model.game_modes.StandardGame;
 import model.pieces.Bishop;
+import model.pieces.Chancellor;
 import model.pieces.King;
 import model.pieces.Knight;
+import model.pieces.LameQueen;
 import model.pieces.Pawn;
 import model.pieces.Queen;
 import model.pieces.Rook;
@@ -156,4 +160,153 @@ public class TestCheckSenerios {
         */
 	}
 	
+	/**
+	 * Tests that a piece pinned to its king can only move along the pin,
+	 * and that a pinned piece can't block a check from another piece
+	 */
+	@Test
+	public void testPinnedPiece() {
+		setup();
+        chessBoard = new RectangularBoard(new StandardGame());
+        King K = new King(2, 2, chessBoard, player2);
+        Rook R = new Rook(2, 4, chessBoard, player2);
+        Rook r = new Rook(2, 6, chessBoard, player1);
+        
+        /*  
+        6 . . r . .
+        5 . . . . .
+        4 . . R . .
+        3 . . . . .
+        2 . . K . .
+          0 1 2 3 4
+        */
+        assertEquals(3, R.getValidMoves().size());
+        assertTrue(R.getValidMoves().contains(new ChessMove(new Point(2, 6), R)));
+        assertFalse(R.getValidMoves().contains(new ChessMove(new Point(3, 4), R)));
+        
+        //checking the king with a bishop leaves the pinned rook no moves
+        Bishop b = new Bishop(5, 5, chessBoard, player1);
+        assertTrue(chessBoard.locationPressured(K.getLocation(), player2));
+        assertEquals(0, R.getValidMoves().size());
+	}
+	
+	/**
+	 * Tests the reverse attack query on empty squares, including the
+	 * LameQueen (which can't capture on the rank-file) and the Chancellor
+	 */
+	@Test
+	public void testSquareAttacked() {
+		setup();
+        chessBoard = new RectangularBoard(new StandardGame());
+        LameQueen L = new LameQueen(1, 1, chessBoard, player1);
+        Chancellor C = new Chancellor(6, 6, chessBoard, player1);
+        Pawn p = new Pawn(4, 4, chessBoard, player2);
+        
+        assertTrue(chessBoard.isSquareAttacked(chessBoard.getSquare(3, 3), player1)); //LameQueen diagonal
+        assertFalse(chessBoard.isSquareAttacked(chessBoard.getSquare(1, 5), player1)); //LameQueen rank-file
+        assertTrue(chessBoard.isSquareAttacked(chessBoard.getSquare(6, 0), player1)); //Chancellor rank-file
+        assertTrue(chessBoard.isSquareAttacked(chessBoard.getSquare(4, 5), player1)); //Chancellor jump
+        assertFalse(chessBoard.isSquareAttacked(chessBoard.getSquare(5, 5), player1)); //blocked by the pawn
+        assertTrue(chessBoard.isSquareAttacked(chessBoard.getSquare(3, 3), player2)); //pawn moving down
+        assertFalse(chessBoard.isSquareAttacked(chessBoard.getSquare(3, 5), player2));
+	}
+	
+	/**
+	 * Tests the cached status of a position: the moves of a pinned piece,
+	 * check, and the results of positions without moves
+	 */
+	@Test
+	public void testPositionStatus() {
+		setup();
+        chessBoard = new RectangularBoard(new StandardGame());
+        King K = new King(2, 2, chessBoard, player2);
+        Rook R = new Rook(2, 4, chessBoard, player2);
+        Rook r = new Rook(2, 6, chessBoard, player1);
+        PositionStatus status = new PositionStatus();
+        status.update(chessBoard, player2);
+        assertEquals(chessBoard.getAllMoves(player2).size(), status.getMoveCount());
+        assertFalse(status.isInCheck());
+        assertEquals(PositionStatus.PLAYING, status.getResult());
+        int[] targets = new int[chessBoard.getSquareCount()];
+        assertEquals(3, status.getTargets(R, targets));
+        int capture = status.findMove(R.getSquare(), chessBoard.getSquare(2, 6));
+        assertTrue(Move.isCapture(capture));
+        assertEquals(new ChessMove(new Point(2, 6), R), new ChessMove(chessBoard, capture));
+        assertEquals(PositionStatus.NO_MOVE, status.findMove(R.getSquare(), chessBoard.getSquare(3, 4)));
+        assertFalse(status.hasMoves(r.getSquare())); //not player1's turn
+        
+        //the pinned rook can't move out of check
+        new Bishop(5, 5, chessBoard, player1);
+        status.update(chessBoard, player2);
+        assertTrue(status.isInCheck());
+        assertFalse(status.hasMoves(R.getSquare()));
+        assertEquals(PositionStatus.NO_MOVE, status.findMove(R.getSquare(), chessBoard.getSquare(2, 5)));
+        assertTrue(status.hasMoves(K.getSquare()));
+        
+        //stalemate
+        setup();
+        chessBoard = new RectangularBoard(new StandardGame());
+        K = new King(0, 0, chessBoard, player2);
+        new Queen(1, 2, chessBoard, player1);
+        status.update(chessBoard, player2);
+        assertEquals(0, status.getMoveCount());
+        assertEquals(PositionStatus.DRAWN, status.getResult());
+        
+        //checkmate
+        setup();
+        chessBoard = new RectangularBoard(new StandardGame());
+        K = new King(0, 0, chessBoard, player2);
+        new Rook(0, 7, chessBoard, player1);
+        new Rook(1, 7, chessBoard, player1);
+        status.update(chessBoard, player2);
+        assertTrue(status.isGameOver());
+        assertEquals(PositionStatus.LOST, status.getResult());
+        assertEquals(0, status.getTargets(K, targets));
+        
+        status.invalidate();
+        assertEquals(null, status.getBoard());
+        assertFalse(status.isInCheck());
+	}
+	
+	/**
+	 * Tests that the early exit search for a valid move agrees with
+	 * generating all the moves, including a double check where only the
+	 * king can move and positions without any moves
+	 */
+	@Test
+	public void testHasAnyLegalMove() {
+		setup();
+        chessBoard = new StandardGame().initPieces(player1, player2);
+        assertTrue(chessBoard.hasAnyLegalMove(player1));
+        assertTrue(chessBoard.hasAnyLegalMove(player2));
+        
+        //double check, the queen can't capture either checker
+        setup();
+        chessBoard = new RectangularBoard(new StandardGame());
+        King K = new King(4, 0, chessBoard, player2);
+        new Queen(0, 1, chessBoard, player2);
+        new Rook(4, 7, chessBoard, player1);
+        new Knight(3, 2, chessBoard, player1);
+        assertTrue(chessBoard.hasAnyLegalMove(player2));
+        assertEquals(K.getValidMoves().size(), chessBoard.getAllMoves(player2).size());
+        
+        //out of check the queen can move again
+        chessBoard.getTile(3, 2).movePieceToTile(new Point(1, 4), false);
+        chessBoard.getTile(4, 7).movePieceToTile(new Point(7, 7), false);
+        assertTrue(chessBoard.hasAnyLegalMove(player2));
+        assertTrue(chessBoard.getAllMoves(player2).size() > K.getValidMoves().size());
+        
+        //stalemate and checkmate
+        setup();
+        chessBoard = new RectangularBoard(new StandardGame());
+        new King(0, 0, chessBoard, player2);
+        Queen q = new Queen(1, 2, chessBoard, player1);
+        assertFalse(chessBoard.hasAnyLegalMove(player2));
+        assertTrue(chessBoard.noPossibleMoves(player2));
+        q.movePieceToTile(new Point(1, 1), false);
+        assertTrue(chessBoard.hasAnyLegalMove(player2)); //the king captures the queen
+        new Rook(1, 7, chessBoard, player1);
+        assertFalse(chessBoard.hasAnyLegalMove(player2));
+	}
+	
 }
@@ -0,0 +1,73 @@
+package tests.core_tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import controller.util.CommandQueue;
+
+/**
+ * Checks the command queue runs every producer's commands in order
+ *
+ */
+public class TestCommandQueue {
+
+	@Test
+	public void testCommandQueue() throws InterruptedException {
+		final CommandQueue queue = new CommandQueue();
+		assertTrue(queue.isEmpty());
+		assertEquals(0, queue.drain());
+		
+		//each producer counts up, its commands must run in order
+		final int producers = 4;
+		final int commands = 20000;
+		final int[] last = new int[producers];
+		final AtomicInteger failures = new AtomicInteger();
+		Thread[] threads = new Thread[producers];
+		for (int p = 0;p < producers;p ++) {
+			final int producer = p;
+			threads[p] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					for (int i = 1;i <= commands;i ++) {
+						final int count = i;
+						queue.offer(new Runnable() {
+							@Override
+							public void run() {
+								if (last[producer] != count - 1)
+									failures.incrementAndGet();
+								last[producer] = count;
+							}
+						});
+					}
+				}
+			});
+			threads[p].start();
+		}
+		
+		int run = 0;
+		while (run < producers * commands)
+			run += queue.drain();
+		for (int p = 0;p < producers;p ++) {
+			threads[p].join();
+			assertEquals(commands, last[p]);
+		}
+		assertEquals(0, failures.get());
+		assertTrue(queue.isEmpty());
+		
+		queue.offer(new Runnable() {
+			@Override
+			public void run() {
+				failures.incrementAndGet();
+			}
+		});
+		assertTrue(!queue.isEmpty());
+		queue.clear();
+		assertEquals(0, queue.drain());
+		assertEquals(0, failures.get());
+	}
+	
+}
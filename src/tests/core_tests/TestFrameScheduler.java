@@ -0,0 +1,50 @@
+package tests.core_tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import controller.util.FrameScheduler;
+
+/**
+ * Checks the frame scheduler wakes for requested frames and keeps
+ * to its cap
+ *
+ */
+public class TestFrameScheduler {
+
+	@Test
+	public void testFrameScheduler() {
+		final FrameScheduler scheduler = new FrameScheduler(0.005f, 50);
+		Thread requester = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(20);
+				} catch (InterruptedException e) { }
+				scheduler.requestFrame();
+			}
+		});
+		
+		//the idle loop is woken by the request, well before its idle timeout
+		long start = System.nanoTime();
+		requester.start();
+		while (scheduler.awaitFrame(false) < 0)
+			;
+		assertTrue(System.nanoTime() - start < 200000000L);
+		assertTrue(!scheduler.isFrameRequested());
+		scheduler.frameRendered();
+		
+		//the next frame waits for the 20ms cap, and steps the time passed
+		start = System.nanoTime();
+		int steps = scheduler.awaitFrame(true);
+		assertTrue(System.nanoTime() - start >= 19000000L);
+		assertTrue(steps >= 3);
+		scheduler.frameRendered();
+		assertEquals(2, scheduler.getFrames());
+		assertTrue(scheduler.getAverageFrameMillis() >= 19);
+		assertTrue(scheduler.getWorstFrameMillis() >= scheduler.getAverageFrameMillis());
+	}
+
+}
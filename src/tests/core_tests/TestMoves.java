@@ -8,7 +8,12 @@ import java.awt.Point;
 import java.util.ArrayList;
 
 import model.ChessMove;
+import model.ChessPiece;
+import model.Move;
+import model.MoveList;
+import model.PieceType;
 import model.board.Board;
+import model.board.MoveTables;
 import model.board.RectangularBoard;
 import model.game_modes.StandardGame;
 import model.pieces.Bishop;
@@ -252,4 +257,85 @@ public class TestMoves {
 		assertFalse(C.getPossibleMoves().contains(new ChessMove(new Point(3, 3), C)));//test bad spot
 	}
 	
-}
+	@Test
+	public void testPackedMoves() {
+		setup();
+		chessBoard = new StandardGame().initPieces(player1, player2);
+		MoveList moves = new MoveList();
+		chessBoard.getAllMoves(player1, moves);
+		assertEquals(chessBoard.getAllMoves(player1).size(), moves.size());
+		
+		//knight at (1, 0) jumping to (2, 2)
+		int move = Move.create(chessBoard, chessBoard.getTile(1, 0), 2, 2);
+		assertTrue(moves.contains(move));
+		assertEquals(chessBoard.getSquare(1, 0), Move.getFrom(move));
+		assertEquals(chessBoard.getSquare(2, 2), Move.getTo(move));
+		assertEquals(Move.KNIGHT, Move.getPiece(move));
+		assertFalse(Move.isCapture(move));
+		assertTrue(Move.isFirstMove(move));
+		assertEquals(new ChessMove(new Point(2, 2), chessBoard.getTile(1, 0)), new ChessMove(chessBoard, move));
+	}
+	
+	@Test
+	public void testPieceTypes() {
+		setup();
+		chessBoard = new RectangularBoard(new StandardGame());
+		ChessPiece[] pieces = {
+				new Pawn(0, 0, chessBoard, player1), new Knight(1, 0, chessBoard, player1),
+				new Bishop(2, 0, chessBoard, player1), new Rook(3, 0, chessBoard, player1),
+				new Queen(4, 0, chessBoard, player1), new King(5, 0, chessBoard, player1),
+				new Chancellor(6, 0, chessBoard, player1), new LameQueen(7, 0, chessBoard, player1)
+			};
+		for (int i = 0;i < pieces.length;i ++) {
+			PieceType type = PieceType.values()[i];
+			assertTrue(pieces[i].getPieceType() == type);
+			assertEquals(i + 1, Move.pieceCode(pieces[i]));
+			assertTrue(PieceType.fromCode(type.getCode()) == type);
+			assertEquals(pieces[i].getClass().getSimpleName(), pieces[i].getType());
+		}
+		
+		assertTrue(PieceType.KING.capturesAlongLine(true, 1));
+		assertFalse(PieceType.KING.capturesAlongLine(false, 2));
+		assertTrue(PieceType.LAME_QUEEN.capturesAlongLine(false, 7));
+		assertFalse(PieceType.LAME_QUEEN.capturesAlongLine(true, 1));
+		assertFalse(PieceType.PAWN.capturesAlongLine(false, 1));
+		assertTrue(PieceType.CHANCELLOR.capturesByKnightJump());
+		assertFalse(PieceType.QUEEN.capturesByKnightJump());
+		assertEquals(1, player1.getPawns().size());
+		assertEquals(1, player1.getLeapers().size());
+		assertEquals(5, player1.getSliders().size());
+	}
+	
+	@Test
+	public void testMoveTables() {
+		setup();
+		chessBoard = new StandardGame().initPieces(player1, player2);
+		MoveTables tables = chessBoard.getMoveTables();
+		assertTrue(tables == new RectangularBoard(new StandardGame()).getMoveTables());
+		
+		//rook rays from the corner cover its rank and file
+		int square = chessBoard.getSquare(0, 0);
+		int count = 0;
+		for (int dir = 0;dir < tables.getRankFileDirections();dir ++) {
+			for (int i = tables.getRankFileStart(square, dir);tables.getRankFileSquare(i) >= 0;i ++)
+				count ++;
+		}
+		assertEquals(14, count);
+		
+		//knight in the corner only has 2 jumps in bounds
+		count = 0;
+		for (int i = tables.getKnightStart(square);tables.getKnightSquare(i) >= 0;i ++)
+			count ++;
+		assertEquals(2, count);
+		
+		//an unmoved pawn has 2 pushes, a moved pawn 1
+		square = chessBoard.getSquare(3, 1);
+		int i = tables.getPawnPushStart(square, 1, false);
+		assertEquals(chessBoard.getSquare(3, 2), tables.getPawnPushSquare(i));
+		assertEquals(chessBoard.getSquare(3, 3), tables.getPawnPushSquare(i + 1));
+		assertEquals(-1, tables.getPawnPushSquare(i + 2));
+		i = tables.getPawnPushStart(square, 1, true);
+		assertEquals(-1, tables.getPawnPushSquare(i + 1));
+	}
+	
+}
\ No newline at end of file
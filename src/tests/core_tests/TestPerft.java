@@ -0,0 +1,96 @@
+package tests.core_tests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import model.Perft;
+import model.board.Board;
+import model.game_modes.GameMode;
+import model.game_modes.LosersGameMode;
+import model.game_modes.StandardGame;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import controller.Player;
+
+/**
+ * Checks the move generator against the known perft node counts
+ * of each game mode
+ *
+ */
+public class TestPerft {
+
+	private Player player1;
+	private Player player2;
+	
+	@Before
+	public void setup() {
+		player1 = new Player(1, false, null);
+		player2 = new Player(-1, false, null);
+		player1.setOtherPlayer(player2);
+		player2.setOtherPlayer(player1);
+	}
+	
+	private void checkNodes(GameMode gameMode, int maxDepth) {
+		long[] known = Perft.knownNodes(gameMode);
+		for (int depth = 1;depth <= maxDepth;depth ++) {
+			setup();
+			Board board = gameMode.initPieces(player1, player2);
+			long key = board.positionKey();
+			assertEquals(known[depth - 1], new Perft(board, player1).perft(depth));
+			assertEquals(key, board.positionKey());
+		}
+	}
+	
+	@Test
+	public void testStandardPerft() {
+		checkNodes(new StandardGame(), 4);
+		checkNodes(new StandardGame(false), 3);
+	}
+	
+	@Test
+	public void testLosersPerft() {
+		checkNodes(new LosersGameMode(), 3);
+		checkNodes(new LosersGameMode(false), 3);
+	}
+	
+	@Test
+	public void testDivide() {
+		setup();
+		Board board = new StandardGame().initPieces(player1, player2);
+		Map<String, Long> divide = new Perft(board, player1).divide(3);
+		assertEquals(20, divide.size());
+		
+		long nodes = 0;
+		for (long count : divide.values())
+			nodes += count;
+		assertEquals(Perft.STANDARD_NODES[2], nodes);
+		assertEquals(Long.valueOf(440), divide.get("(1, 0) -> (2, 2)"));
+	}
+	
+	@Test
+	public void testParallelPerft() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		setup();
+		Board board = new StandardGame().initPieces(player1, player2);
+		assertEquals(Perft.STANDARD_NODES[3], new Perft(board, player1).perftParallel(4, pool));
+		
+		//the copies searched by the tasks are in the same position
+		Player copy1 = new Player(1, false, null);
+		Player copy2 = new Player(-1, false, null);
+		copy1.setOtherPlayer(copy2);
+		copy2.setOtherPlayer(copy1);
+		Board copy = board.copy(copy1, copy2);
+		assertEquals(board.positionKey(), copy.positionKey());
+		assertEquals(player1.getPieces().size(), copy1.getPieces().size());
+		
+		setup();
+		board = new LosersGameMode().initPieces(player1, player2);
+		assertEquals(Perft.LOSERS_NODES[2], new Perft(board, player1).perftParallel(3, pool));
+		pool.shutdown();
+	}
+	
+}
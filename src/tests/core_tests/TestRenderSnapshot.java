@@ -0,0 +1,95 @@
+package tests.core_tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Point;
+
+import model.ChessMove;
+import model.ChessPiece;
+import model.PieceType;
+import model.PositionStatus;
+import model.RenderSnapshot;
+import model.SnapshotExchange;
+import model.board.Board;
+import model.game_modes.StandardGame;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import controller.Player;
+
+/**
+ * Checks the render snapshots handed from the game thread to the renderer
+ *
+ */
+public class TestRenderSnapshot {
+
+	private Board chessBoard;
+	private Player player1;
+	private Player player2;
+	
+	@Before
+	public void setup() {
+		player1 = new Player(1, false, null);
+		player2 = new Player(-1, false, null);
+		player1.setOtherPlayer(player2);
+		player2.setOtherPlayer(player1);
+	}
+	
+	/**
+	 * Checks a published snapshot isn't changed by moves made, or simulated,
+	 * on the board, and that the renderer takes the newest snapshot
+	 */
+	@Test
+	public void testRenderSnapshots() {
+		setup();
+		chessBoard = new StandardGame().initPieces(player1, player2);
+		PositionStatus status = new PositionStatus();
+		status.update(chessBoard, player1);
+		SnapshotExchange exchange = new SnapshotExchange();
+		assertEquals(0, exchange.acquire().getPieceCount());
+		
+		exchange.publish(chessBoard, status);
+		RenderSnapshot first = exchange.acquire();
+		assertEquals(1, first.getVersion());
+		assertEquals(32, first.getPieceCount());
+		assertTrue(exchange.acquire() == first); //nothing newer
+		int knight = -1;
+		for (int i = 0;i < first.getPieceCount();i ++)
+			if (first.getSquare(i) == chessBoard.getSquare(1, 0))
+				knight = i;
+		assertTrue(first.getPieceType(knight) == PieceType.KNIGHT);
+		assertEquals(2, first.getTargetCount(knight));
+		float drawX = first.getDrawX(knight);
+		
+		//simulating every move, and making one, doesn't change the snapshot
+		assertTrue(chessBoard.hasAnyLegalMove(player1));
+		ChessPiece piece = chessBoard.getTile(1, 0);
+		ChessMove move = new ChessMove(new Point(2, 2), piece);
+		move.executeMove(true);
+		status.update(chessBoard, player2);
+		assertEquals(drawX, first.getDrawX(knight), 0);
+		assertEquals(chessBoard.getSquare(1, 0), first.getSquare(knight));
+		
+		//the game thread publishes twice before the renderer takes the newest
+		exchange.publish(chessBoard, status);
+		exchange.publish(chessBoard, status);
+		RenderSnapshot latest = exchange.acquire();
+		assertFalse(latest == first);
+		assertEquals(3, latest.getVersion());
+		assertEquals(32, latest.getPieceCount());
+		for (int i = 0;i < latest.getPieceCount();i ++) {
+			assertFalse(latest.getSquare(i) == chessBoard.getSquare(1, 0));
+			if (latest.getSquare(i) == chessBoard.getSquare(2, 2))
+				assertEquals(0, latest.getTargetCount(i)); //not player2's piece
+		}
+		
+		//the snapshot handed back is reused, never the one being read
+		exchange.publish(chessBoard, status);
+		assertTrue(exchange.acquire() != latest);
+		assertEquals(4, exchange.acquire().getVersion());
+	}
+	
+}
@@ -0,0 +1,372 @@
+package tests.core_tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import model.ChessMove;
+import model.Move;
+import model.MoveList;
+import model.board.Board;
+import model.board.RectangularBoard;
+import model.game_modes.LosersGameMode;
+import model.game_modes.StandardGame;
+import model.pieces.King;
+import model.pieces.Knight;
+import model.pieces.Pawn;
+import model.pieces.Queen;
+import model.pieces.Rook;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import controller.Player;
+import controller.engine.MoveOrdering;
+import controller.engine.OpeningBook;
+import controller.engine.OpeningBookBuilder;
+import controller.engine.PawnCache;
+import controller.engine.ParallelSearch;
+import controller.engine.Search;
+import controller.engine.SearchLimits;
+import controller.engine.StaticExchange;
+import controller.engine.TablebaseGenerator;
+import controller.engine.Tablebases;
+import controller.engine.TranspositionTable;
+
+/**
+ * Checks the alpha-beta search finds forced wins, plays by the game
+ * mode's rules and keeps to its limits
+ *
+ */
+public class TestSearch {
+
+	private Player player1;
+	private Player player2;
+	
+	@Before
+	public void setup() {
+		player1 = new Player(1, false, null);
+		player2 = new Player(-1, false, null);
+		player1.setOtherPlayer(player2);
+		player2.setOtherPlayer(player1);
+	}
+	
+	/**
+	 * A back rank mate, the rook must move to 0,7
+	 */
+	@Test
+	public void testMateInOne() {
+		setup();
+		Board board = new RectangularBoard(new StandardGame());
+		new King(6, 0, board, player1);
+		new Rook(0, 0, board, player1);
+		new King(6, 7, board, player2);
+		new Pawn(5, 6, board, player2);
+		new Pawn(6, 6, board, player2);
+		new Pawn(7, 6, board, player2);
+		long key = board.positionKey();
+		
+		Search search = new Search(board);
+		int move = search.search(player1, SearchLimits.depth(3));
+		assertEquals(board.getSquare(0, 0), Move.getFrom(move));
+		assertEquals(board.getSquare(0, 7), Move.getTo(move));
+		assertTrue(search.getBestScore() >= Search.MATE - Search.MAX_PLY);
+		assertEquals(key, board.positionKey());
+	}
+	
+	/**
+	 * Captures are compulsory in losers, so the search must capture
+	 * the knight
+	 */
+	@Test
+	public void testLosersCapture() {
+		setup();
+		Board board = new LosersGameMode().initPieces(player1, player2);
+		new ChessMove(board, Move.create(board, board.getSquare(4, 1), board.getSquare(4, 3))).executeMove(false);
+		new Knight(3, 4, board, player2);
+		
+		int move = new Search(board).search(player1, SearchLimits.depth(2));
+		assertEquals(board.getSquare(3, 4), Move.getTo(move));
+	}
+	
+	@Test
+	public void testTranspositionTable() {
+		TranspositionTable table = new TranspositionTable(1);
+		assertEquals(1 << 16, table.getCapacity());
+		assertEquals(0, table.probe(12345L));
+		
+		table.store(12345L, 0x1234, -Search.MATE + 3, 7, TranspositionTable.LOWER);
+		long entry = table.probe(12345L);
+		assertEquals(0x1234, TranspositionTable.getMove(entry));
+		assertEquals(-Search.MATE + 3, TranspositionTable.getScore(entry));
+		assertEquals(7, TranspositionTable.getDepth(entry));
+		assertEquals(TranspositionTable.LOWER, TranspositionTable.getBound(entry));
+		
+		//a shallower result of another position in the same bucket doesn't replace it
+		long other = 12345L ^ (1L << 40) ^ (1L << 8);
+		table.store(other, 0, 50, 2, TranspositionTable.EXACT);
+		assertEquals(7, TranspositionTable.getDepth(table.probe(12345L)));
+		assertEquals(50, TranspositionTable.getScore(table.probe(other)));
+		assertEquals(0, table.probe(12345L ^ (1L << 41) ^ (1L << 9)));
+		assertEquals(1, table.getCollisions());
+		assertEquals(3, table.getHits());
+		
+		//transpositions are found by a search from the start
+		setup();
+		Board board = new StandardGame().initPieces(player1, player2);
+		long key = board.positionKey();
+		Search search = new Search(board, new TranspositionTable(1));
+		search.search(player1, SearchLimits.depth(4));
+		assertTrue(search.getTable().getHits() > 0);
+		assertEquals(key, board.positionKey());
+	}
+	
+	/**
+	 * The workers search copies, so the board is never changed, and they
+	 * all find the mate
+	 */
+	@Test
+	public void testParallelSearch() {
+		setup();
+		Board board = new RectangularBoard(new StandardGame());
+		new King(6, 0, board, player1);
+		new Rook(0, 0, board, player1);
+		new King(6, 7, board, player2);
+		new Pawn(5, 6, board, player2);
+		new Pawn(6, 6, board, player2);
+		new Pawn(7, 6, board, player2);
+		long key = board.positionKey();
+		
+		ParallelSearch search = new ParallelSearch(board, player1, 3, new TranspositionTable(1));
+		int move = search.search(SearchLimits.depth(4));
+		assertEquals(board.getSquare(0, 7), Move.getTo(move));
+		assertTrue(search.getNodes() > 0);
+		assertEquals(key, board.positionKey());
+		assertEquals(2, player1.getPieces().size());
+	}
+	
+	/**
+	 * The table move is first, then captures by MVV-LVA, then killers
+	 * and the remaining quiet moves
+	 */
+	@Test
+	public void testMoveOrdering() {
+		int pawnTakesQueen = Move.encode(1, 2, Move.PAWN, Move.QUEEN, Move.FLAG_CAPTURE);
+		int queenTakesQueen = Move.encode(3, 2, Move.QUEEN, Move.QUEEN, Move.FLAG_CAPTURE);
+		int pawnTakesPawn = Move.encode(4, 5, Move.PAWN, Move.PAWN, Move.FLAG_CAPTURE);
+		int killer = Move.encode(6, 7, Move.KNIGHT, Move.NONE, 0);
+		int quiet = Move.encode(8, 9, Move.ROOK, Move.NONE, 0);
+		int tableMove = Move.encode(10, 11, Move.ROOK, Move.NONE, 0);
+		
+		MoveList moves = new MoveList();
+		moves.add(quiet);
+		moves.add(pawnTakesPawn);
+		moves.add(killer);
+		moves.add(queenTakesQueen);
+		moves.add(tableMove);
+		moves.add(pawnTakesQueen);
+		
+		MoveOrdering ordering = new MoveOrdering(64, Search.MAX_PLY);
+		ordering.cutoff(killer, 3, 1, 2, 0, 1);
+		ordering.score(moves, 3, 1, tableMove, 0);
+		int[] expected = { tableMove, pawnTakesQueen, queenTakesQueen, pawnTakesPawn, killer, quiet };
+		for (int i = 0;i < expected.length;i ++)
+			assertEquals(expected[i], ordering.next(moves, 3, i));
+		assertEquals(0.0, ordering.getFirstMoveCutoffRate(), 0);
+		
+		//nearly every cutoff of a search from the start is caused by the first move
+		setup();
+		Search search = new Search(new StandardGame().initPieces(player1, player2));
+		search.search(player1, SearchLimits.depth(4));
+		assertTrue(search.getOrdering().getFirstMoveCutoffRate() > 0.8);
+	}
+	
+	@Test
+	public void testStaticExchange() {
+		setup();
+		Board board = new RectangularBoard(new StandardGame());
+		new King(0, 0, board, player1);
+		new King(7, 7, board, player2);
+		Rook rook = new Rook(3, 0, board, player1);
+		new Queen(3, 7, board, player1);
+		new Knight(3, 4, board, player2);
+		Pawn pawn = new Pawn(2, 5, board, player2);
+		StaticExchange exchange = new StaticExchange(board);
+		
+		//RxN PxR QxP loses a rook for a knight and a pawn
+		assertEquals(300 - 500 + 100, exchange.evaluate(Move.create(board, rook, 3, 4)));
+		
+		//undefended, the knight is won
+		new ChessMove(board, Move.create(board, pawn, 2, 4)).executeMove(false);
+		assertEquals(300, exchange.evaluate(Move.create(board, rook, 3, 4)));
+		
+		//a rook defends the knight, the queen behind it recaptures once it has left
+		new Rook(3, 6, board, player2);
+		assertEquals(300, exchange.evaluate(Move.create(board, rook, 3, 4)));
+	}
+	
+	/**
+	 * At depth 1 the queen could take a defended pawn, the quiescence 
+	 * search sees the recapture and keeps the queen
+	 */
+	@Test
+	public void testQuiescence() {
+		setup();
+		Board board = new RectangularBoard(new StandardGame());
+		new King(0, 0, board, player1);
+		new King(7, 7, board, player2);
+		new Queen(3, 0, board, player1);
+		new Pawn(3, 5, board, player2);
+		new Pawn(2, 6, board, player2);
+		long key = board.positionKey();
+		
+		Search search = new Search(board);
+		int move = search.search(player1, SearchLimits.depth(1));
+		assertTrue(board.getSquare(3, 5) != Move.getTo(move));
+		assertEquals(key, board.positionKey());
+		
+		//losers captures are compulsory, so the search resolves every capture
+		setup();
+		board = new LosersGameMode().initPieces(player1, player2);
+		new ChessMove(board, Move.create(board, board.getSquare(4, 1), board.getSquare(4, 3))).executeMove(false);
+		new ChessMove(board, Move.create(board, board.getSquare(3, 6), board.getSquare(3, 4))).executeMove(false);
+		search = new Search(board);
+		move = search.search(player1, SearchLimits.depth(1));
+		assertEquals(board.getSquare(3, 4), Move.getTo(move));
+	}
+	
+	@Test
+	public void testPawnCache() {
+		setup();
+		Board board = new RectangularBoard(new StandardGame());
+		new King(0, 0, board, player1);
+		new King(7, 7, board, player2);
+		//doubled and isolated pawns on file 0, a passed pawn on file 4
+		new Pawn(0, 1, board, player1);
+		new Pawn(0, 2, board, player1);
+		Pawn passed = new Pawn(4, 3, board, player1);
+		new Pawn(7, 6, board, player2);
+		
+		PawnCache cache = new PawnCache(16);
+		int score = cache.probe(board);
+		assertEquals(-15 - 24 - 12 + 10 * 2 + 10 * 3 - (-12 + 10 * 1), score);
+		assertEquals((1L << 0) | (1L << 4), cache.getPassedFiles(0));
+		assertEquals(1L << 7, cache.getPassedFiles(1));
+		assertEquals(score, cache.probe(board));
+		assertEquals(1, cache.getHits());
+		
+		//only a pawn move changes the pawn key
+		long pawnKey = board.pawnKey();
+		new ChessMove(board, Move.create(board, board.getSquare(0, 0), board.getSquare(1, 0))).executeMove(false);
+		assertEquals(pawnKey, board.pawnKey());
+		new ChessMove(board, Move.create(board, passed, 4, 4)).executeMove(false);
+		assertTrue(pawnKey != board.pawnKey());
+		assertEquals(score + 10, cache.probe(board));
+		assertEquals(1 / 3.0, cache.getHitRate(), 1e-9);
+	}
+	
+	@Test
+	public void testOpeningBook() throws IOException {
+		OpeningBookBuilder builder = new OpeningBookBuilder(4);
+		assertEquals(4, builder.addGame("e2e4 e7e5 g1f3 b8c6 f1c4 1-0"));
+		assertEquals(2, builder.addGame("e2e4 c7c5 0-1"));
+		assertEquals(1, builder.addGame("d2d4 d7d4"));
+		assertEquals(0, builder.addGame("# comment"));
+		Path file = Files.createTempFile("book", ".bin");
+		file.toFile().deleteOnExit();
+		assertEquals(6, builder.write(file));
+		
+		OpeningBook book = OpeningBook.open(file);
+		assertEquals(6, book.getRecords());
+		setup();
+		Board board = new StandardGame().initPieces(player1, player2);
+		int e4 = Move.create(board, board.getSquare(4, 1), board.getSquare(4, 3));
+		int d4 = Move.create(board, board.getSquare(3, 1), board.getSquare(3, 3));
+		assertEquals(2, book.getMoveCount(board.positionKey()));
+		int record = book.findRecord(board.positionKey(), e4);
+		assertEquals(2, book.getWeight(record));
+		assertEquals(1 - 1, book.getLearn(record));
+		assertEquals(1, book.getWeight(book.findRecord(board.positionKey(), d4)));
+		
+		int move = book.probe(board, player1);
+		assertTrue(move == e4 || move == d4);
+		new ChessMove(board, e4).executeMove(false);
+		assertEquals(2, book.getMoveCount(board.positionKey()));
+		int e5 = Move.create(board, board.getSquare(4, 6), board.getSquare(4, 4));
+		assertEquals(-1, book.getLearn(book.findRecord(board.positionKey(), e5)));
+		
+		//positions that aren't in the book
+		new ChessMove(board, e5).executeMove(false);
+		new ChessMove(board, Move.create(board, board.getSquare(3, 1), board.getSquare(3, 2))).executeMove(false);
+		assertEquals(Search.NO_MOVE, book.probe(board, player2));
+		assertEquals(Search.NO_MOVE, book.probe(12345L));
+	}
+	
+	/**
+	 * Generates the KRK tables, and probes them with the rook's side moving
+	 * down the board, so the probe mirrors the position
+	 */
+	@Test
+	public void testTablebases() throws IOException {
+		TablebaseGenerator generator = new TablebaseGenerator(Move.ROOK, ForkJoinPool.commonPool());
+		generator.generate();
+		//the longest KRK mate is 16 moves
+		int longest = 0;
+		for (int i = 0;i < TablebaseGenerator.POSITIONS;i ++)
+			longest = Math.max(longest, generator.getDtm(i));
+		assertEquals(32, longest);
+		//weak king on a1 takes the rook on b2
+		assertEquals(Tablebases.DRAW, generator.getWdl(TablebaseGenerator.index(1, 7, 9, 0)));
+		assertEquals(Tablebases.INVALID, generator.getWdl(TablebaseGenerator.index(0, 7, 7, 0)));
+		
+		Path directory = Files.createTempDirectory("tablebases");
+		directory.toFile().deleteOnExit();
+		generator.write(directory);
+		for (String suffix : new String[] { Tablebases.WDL_SUFFIX, Tablebases.DTM_SUFFIX })
+			directory.resolve("KRK" + suffix).toFile().deleteOnExit();
+		Tablebases tablebases = Tablebases.open(directory);
+		assertEquals(1, tablebases.getLoaded());
+		
+		setup();
+		Board board = new RectangularBoard(new StandardGame(false));
+		new King(1, 5, board, player2);
+		new Rook(7, 6, board, player2);
+		new King(0, 7, board, player1);
+		int result = tablebases.probe(board, player2);
+		assertEquals(Tablebases.WIN, Tablebases.getWdl(result));
+		assertEquals(1, Tablebases.getDtm(result));
+		
+		Search search = new Search(board);
+		search.setTablebases(tablebases);
+		int move = search.search(player2, SearchLimits.depth(4));
+		assertEquals(board.getSquare(7, 7), Move.getTo(move));
+		assertEquals(Search.MATE - 1, search.getBestScore());
+		
+		new ChessMove(board, move).executeMove(false);
+		result = tablebases.probe(board, player1);
+		assertEquals(Tablebases.LOSS, Tablebases.getWdl(result));
+		assertEquals(0, Tablebases.getDtm(result));
+		
+		//no longer a lone king
+		new Queen(4, 4, board, player1);
+		assertEquals(Tablebases.UNKNOWN, tablebases.probe(board, player1));
+	}
+	
+	@Test
+	public void testNodeLimit() {
+		setup();
+		Board board = new StandardGame().initPieces(player1, player2);
+		long key = board.positionKey();
+		
+		Search search = new Search(board);
+		int move = search.search(player1, new SearchLimits(0, 5000, 0));
+		assertTrue(move != Search.NO_MOVE);
+		assertTrue(search.getNodes() < 5000 + 1024);
+		assertEquals(key, board.positionKey());
+	}
+	
+}
@@ -4,8 +4,14 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
+   TestAnimator.class,
    TestCheckSenerios.class,
+   TestCommandQueue.class,
+   TestFrameScheduler.class,
    TestMoves.class,
+   TestPerft.class,
+   TestRenderSnapshot.class,
+   TestSearch.class,
    TestUndo.class
 })
 public class TestSuite {   
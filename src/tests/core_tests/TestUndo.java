@@ -1,14 +1,21 @@
 package tests.core_tests;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.awt.Point;
 
 import model.ChessMove;
+import model.ChessPiece;
+import model.MoveList;
+import model.PieceList;
 import model.board.Board;
+import model.game_modes.GameMode;
+import model.game_modes.LosersGameMode;
 import model.game_modes.StandardGame;
 import model.pieces.Bishop;
 import model.pieces.Pawn;
+import model.pieces.Queen;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -39,6 +46,12 @@ public class TestUndo {
 		assertTrue(p.getLocation().equals(new Point(4, 3)));
 		move.undoMove();
 		assertTrue(p.getLocation().equals(new Point(4, 1)));
+		
+		//a simulated move isn't drawn
+		float drawY = p.getDrawLocationY();
+		move.executeMove(false);
+		assertEquals(drawY, p.getDrawLocationY(), 0);
+		move.undoMove();
 	}
 	
 	@Test
@@ -56,4 +69,122 @@ public class TestUndo {
 		assertTrue(b.getLocation().equals(new Point(5, 2)));
 	}
 	
+	/**
+	 * Captures made and undone in reverse order leave the piece lists
+	 * in their original order
+	 */
+	@Test
+	public void testPieceList() {
+		setup();
+		chessBoard = new StandardGame(false).initPieces(player1, player2);
+		PieceList pieces = player2.getPieces();
+		assertEquals(16, pieces.size());
+		assertEquals(8, player2.getPawns().size());
+		assertEquals(2, player2.getLeapers().size());
+		assertEquals(5, player2.getSliders().size());
+		ChessPiece[] order = new ChessPiece[pieces.size()];
+		ChessPiece[] pawnOrder = new ChessPiece[player2.getPawns().size()];
+		for (int i = 0;i < order.length;i ++)
+			order[i] = pieces.get(i);
+		for (int i = 0;i < pawnOrder.length;i ++)
+			pawnOrder[i] = player2.getPawns().get(i);
+		
+		//a queen takes pawns along the 7th rank
+		Queen queen = new Queen(0, 5, chessBoard, player1);
+		ChessMove[] captures = new ChessMove[4];
+		for (int i = 0;i < captures.length;i ++) {
+			ChessPiece pawn = chessBoard.getTile(i, 6);
+			captures[i] = new ChessMove(new Point(i, 6), queen);
+			captures[i].executeMove(false);
+			assertTrue(!pieces.contains(pawn));
+			assertTrue(!player2.getPawns().contains(pawn));
+			assertEquals(15 - i, pieces.size());
+			assertEquals(7 - i, player2.getPawns().size());
+			for (int j = 0;j < pieces.size();j ++)
+				assertTrue(pieces.get(j) != pawn);
+		}
+		
+		for (int i = captures.length - 1;i >= 0;i --)
+			captures[i].undoMove();
+		assertEquals(order.length, pieces.size());
+		for (int i = 0;i < order.length;i ++)
+			assertTrue(order[i] == pieces.get(i));
+		for (int i = 0;i < pawnOrder.length;i ++)
+			assertTrue(pawnOrder[i] == player2.getPawns().get(i));
+	}
+	
+	@Test
+	public void testPositionKey() {
+		setup();
+		Board.setVerifyKeys(true);
+		chessBoard = new StandardGame().initPieces(player1, player2);
+		long start = chessBoard.positionKey();
+		assertEquals(chessBoard.computePositionKey(), start);
+		
+		//knights out and back, the key only differs by the moved state
+		ChessMove out = new ChessMove(new Point(2, 2), chessBoard.getTile(1, 0));
+		out.executeMove(true);
+		assertTrue(chessBoard.positionKey() != start);
+		ChessMove back = new ChessMove(new Point(1, 0), chessBoard.getTile(2, 2));
+		back.executeMove(true);
+		assertTrue(chessBoard.positionKey() != start);
+		assertEquals(chessBoard.computePositionKey(), chessBoard.positionKey());
+		back.undoMove();
+		out.undoMove();
+		assertEquals(start, chessBoard.positionKey());
+		
+		//captures are removed from and restored to the key
+		Pawn p = new Pawn(4, 2, chessBoard, player2);
+		long before = chessBoard.positionKey();
+		ChessMove capture = new ChessMove(new Point(4, 2), chessBoard.getTile(3, 1));
+		capture.executeMove(false);
+		assertEquals(chessBoard.computePositionKey(), chessBoard.positionKey());
+		capture.undoMove();
+		assertEquals(before, chessBoard.positionKey());
+		
+		//the same position reached by two move orders has the same key
+		Board other = new StandardGame().initPieces(new Player(1, false, null), new Player(-1, false, null));
+		new ChessMove(new Point(4, 3), p).executeMove(false);
+		new ChessMove(new Point(3, 3), chessBoard.getTile(3, 1)).executeMove(false);
+		Pawn q = new Pawn(4, 2, other, other.getTile(3, 6).getPlayer());
+		new ChessMove(new Point(3, 3), other.getTile(3, 1)).executeMove(false);
+		new ChessMove(new Point(4, 3), q).executeMove(false);
+		assertEquals(chessBoard.positionKey(), other.positionKey());
+		Board.setVerifyKeys(false);
+	}
+	
+	@Test
+	public void testIncrementalEvaluation() {
+		GameMode[] modes = { new StandardGame(), new StandardGame(false), new LosersGameMode(), new LosersGameMode(false) };
+		for (GameMode mode : modes) {
+			setup();
+			chessBoard = mode.initPieces(player1, player2);
+			assertEquals(0, chessBoard.evaluate(player1));
+			checkEvaluation(player1, 3);
+			assertEquals(0, chessBoard.evaluate(player1));
+		}
+	}
+	
+	/**
+	 * Walks every line to the depth, comparing the incremental evaluation
+	 * to a full recompute after each move and undo
+	 */
+	private void checkEvaluation(Player mover, int depth) {
+		assertEquals(chessBoard.computeEvaluation(mover), chessBoard.evaluate(mover));
+		assertEquals(-chessBoard.evaluate(mover), chessBoard.evaluate(mover.getOtherPlayer()));
+		assertEquals(chessBoard.computePawnKey(), chessBoard.pawnKey());
+		if (depth == 0)
+			return;
+		
+		MoveList moves = new MoveList();
+		chessBoard.getAllMoves(mover, moves);
+		for (int i = 0;i < moves.size();i ++) {
+			ChessMove move = new ChessMove(chessBoard, moves.get(i));
+			move.executeMove(false);
+			checkEvaluation(mover.getOtherPlayer(), depth - 1);
+			move.undoMove();
+			assertEquals(chessBoard.computeEvaluation(mover), chessBoard.evaluate(mover));
+		}
+	}
+	
 }
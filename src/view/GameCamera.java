@@ -6,7 +6,7 @@ import javax.vecmath.Vector3f;
 
 import com.jogamp.opengl.glu.GLU;
 
-import controller.util.Animation.Animatable;
+import controller.util.FloatProperty;
 
 /**
  * This class represents a camera (or eye) in 3D space. The eye
@@ -17,7 +17,7 @@ import controller.util.Animation.Animatable;
  * @author Nicholas
  *
  */
-public class GameCamera implements Animatable {
+public class GameCamera {
 
 	private GLU glu;
 	
@@ -28,11 +28,27 @@ public class GameCamera implements Animatable {
 	private float horizontalRotation;
 	private float verticalRotation;
 	
+	/**
+	 * Handle to the horizontal rotation, used to animate the camera
+	 */
+	private FloatProperty horizontalRotationProperty;
+	
 	public GameCamera(int _screenLength) {
 		screenLength = _screenLength;
 		viewDistance = 130;
 		verticalRotation = (float) (Math.PI / 4);
 		glu = new GLU();
+		horizontalRotationProperty = new FloatProperty() {
+			@Override
+			public float get() {
+				return horizontalRotation;
+			}
+			
+			@Override
+			public void set(float value) {
+				horizontalRotation = value;
+			}
+		};
 	}
 	
 	/**
@@ -96,13 +112,12 @@ public class GameCamera implements Animatable {
 	}
 	
 	/**
-	 * Method that is called during animation, the camera allows
-	 * animation around it's horizontal rotation
+	 * The camera allows animation around it's horizontal rotation
+	 * 
+	 * @return the handle to the horizontal rotation, see {@link controller.util.Animator}
 	 */
-	@Override
-	public void setValue(String fieldName, float value) {
-		if (fieldName.equals("horizontalRotation"))
-			horizontalRotation = value;
+	public FloatProperty getHorizontalRotationProperty() {
+		return horizontalRotationProperty;
 	}
 	
 	/*
@@ -3,18 +3,22 @@ package view;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 
+import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JMenu;
 import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 
+import controller.ComputerPlayer;
 import controller.GameLoop;
 import controller.Player;
+import controller.engine.SearchLimits;
 
 /**
  * Menu bar for the Chess game. Contains one drop down menu
  * with 3 options: restart, forfeit black, forfeit white.
- * All options trigger a confirm dialog as well.
+ * All options trigger a confirm dialog as well. A check box
+ * lets the computer play black, starting a new game.
  * 
  * @author Nicholas
  *
@@ -33,6 +37,12 @@ public class GameMainMenu extends JMenuBar implements ActionListener {
 	private JMenuItem restart;
 	private JMenuItem forfietBlack;
 	private JMenuItem forfietWhite;
+	private JCheckBoxMenuItem computerBlack;
+	
+	/**
+	 * Time the computer searches each move
+	 */
+	private final static int COMPUTER_MOVE_TIME = 2000;
 	
 	public GameMainMenu(GameFrame frame, GameLoop controller) {
 		gameFrame = frame;
@@ -44,6 +54,8 @@ public class GameMainMenu extends JMenuBar implements ActionListener {
 		forfietBlack.addActionListener(this);
 		mainMenu.add(forfietWhite = new JMenuItem("Forfiet White"));
 		forfietWhite.addActionListener(this);
+		mainMenu.add(computerBlack = new JCheckBoxMenuItem("Computer Plays Black"));
+		computerBlack.addActionListener(this);
 		add(mainMenu);
 	}
 
@@ -62,7 +74,7 @@ public class GameMainMenu extends JMenuBar implements ActionListener {
 					"Restart?",
 					JOptionPane.YES_NO_OPTION);
 				if (result == JOptionPane.YES_OPTION) //player 2 agreed
-					gameController.cancelGame(null);
+					gameController.postCancelGame(null);
 			}		
 		} else if (arg0.getSource() == forfietWhite || arg0.getSource() == forfietBlack) {
 			int result = JOptionPane.showConfirmDialog(gameFrame, 
@@ -72,10 +84,18 @@ public class GameMainMenu extends JMenuBar implements ActionListener {
 			
 			if (result == JOptionPane.OK_OPTION) {
 				if (arg0.getSource() == forfietBlack)
-					gameController.cancelGame(gameController.getPlayer1());
+					gameController.postCancelGame(gameController.getPlayer1());
 				else 
-					gameController.cancelGame(gameController.getPlayer2());
+					gameController.postCancelGame(gameController.getPlayer2());
 			}
+		} else if (arg0.getSource() == computerBlack) {
+			Player p1 = gameController.getPlayer1();
+			Player p2 = computerBlack.isSelected() 
+					? new ComputerPlayer(-1, SearchLimits.time(COMPUTER_MOVE_TIME)) 
+					: new Player(-1, true, gameFrame);
+			//the new players are used from the next game
+			gameController.postPlayers(p1, p2);
+			gameController.postCancelGame(null);
 		}
 	}
 	
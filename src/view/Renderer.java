@@ -8,7 +8,7 @@ import com.jogamp.opengl.GLEventListener;
 import com.jogamp.opengl.GLException;
 import com.jogamp.opengl.glu.GLU;
 
-import model.ChessPiece;
+import model.RenderSnapshot;
 import view.loaders.AssetLoader;
 import controller.GameLoop;
 
@@ -30,7 +30,11 @@ public class Renderer implements GLEventListener {
 	private GameLoop gameController;
 	private boolean isInitilized;
 	
-	private ChessPiece selectedPiece;
+	/**
+	 * Square of the selected piece, which the snapshot's highlights are found by,
+	 * -1 if no piece is selected
+	 */
+	private volatile int selectedSquare = -1;
 	
 	private int[] viewportDimensions;
 	private float[] projectionMatrix;
@@ -62,8 +66,9 @@ public class Renderer implements GLEventListener {
         camera.lookat();
         gl.glGetFloatv(GL2.GL_MODELVIEW_MATRIX, modelviewMatrix, 0);
         
-        //render the current board
-        gameController.getBoard().render(gl, selectedPiece);
+        //render the last snapshot of the board, the board itself may be changing
+        RenderSnapshot snapshot = gameController.getSnapshots().acquire();
+        snapshot.render(gl, selectedSquare);
         
         gl.glFlush();
 	}
@@ -158,12 +163,18 @@ public class Renderer implements GLEventListener {
         gl.glGetIntegerv(GL2.GL_VIEWPORT, viewportDimensions, 0);
     }
 
-    public void setSelectedPiece(ChessPiece piece) {
-    	selectedPiece = piece;
+    /**
+     * Selects the piece on the square, its moves are highlighted
+     * 
+     * @param square the square of the piece, -1 to select no piece
+     */
+    public void setSelectedSquare(int square) {
+    	selectedSquare = square;
+    	gameController.requestFrame();
     }
     
-    public ChessPiece getSelectedPiece() {
-    	return selectedPiece;
+    public int getSelectedSquare() {
+    	return selectedSquare;
     }
     
 	public GameCamera getCamera() {
@@ -10,6 +10,8 @@ import java.nio.FloatBuffer;
 import java.util.Map;
 import java.util.TreeMap;
 
+import model.PieceType;
+import controller.Player;
 import view.loaders.structures.Model;
 import view.loaders.structures.Shader;
 
@@ -46,15 +48,29 @@ public class AssetLoader {
 	 */
 	private Map<String, Model> models;
 	
+	/**
+	 * The chess piece models by the ordinal of their PieceType, so rendering 
+	 * a piece doesn't look its model up by name
+	 */
+	private Model[] pieceModels;
+	
+	/**
+	 * The piece textures by the colour of their player, so rendering a 
+	 * piece doesn't look its texture up by name
+	 */
+	private Texture[] colorTextures;
+	
 	/**
 	 * The current texture that is bound
 	 */
-	private String currentTexture;
+	private Texture currentTexture;
 	
 	private AssetLoader() {
 		textures = new TreeMap<String, Texture>();
 		shaders = new TreeMap<String, Shader>();
 		models = new TreeMap<String, Model>();
+		pieceModels = new Model[PieceType.values().length];
+		colorTextures = new Texture[2];
 	}
 	
 	/**
@@ -72,44 +88,54 @@ public class AssetLoader {
 	
 	
 	/**
-	 * Loads a basic model file, with the format (vertex, normal, textureCoord)\n"
+	 * Loads the model of every piece type, each a basic model file named after
+	 * the type (ie Pawn.mdl), with the format (vertex, normal, textureCoord)
 	 * 
 	 * @param gl
-	 * @param file the directory of all the models
 	 */
 	public void loadChessModels(GL2 gl) {
 		try {
-			String[] modelNames = {
-					"Bishop.mdl", "Chancellor.mdl", "King.mdl", "Knight.mdl",
-					"LameQueen.mdl", "Pawn.mdl", "Queen.mdl", "Rook.mdl"
-				};
 			ClassLoader cl = getClass().getClassLoader();
-			for (String file : modelNames) { //Loop through all the files 
+			for (PieceType type : PieceType.values()) { //Loop through all the files 
 				
 				//create a file reader
 				BufferedReader reader = new BufferedReader(
-						new InputStreamReader(cl.getResourceAsStream("view/Models/" + file)));
+						new InputStreamReader(cl.getResourceAsStream("view/Models/" + type.getName() + ".mdl")));
 				
-				//the first line is the size
-				int size = Integer.parseInt(reader.readLine());
-				//create the buffer
-				FloatBuffer buffer = ByteBuffer.allocateDirect(size * 8 * (Float.SIZE / 4)).
-		                order(ByteOrder.nativeOrder()).asFloatBuffer();
-				
-				String currentLine;
-				while ((currentLine = reader.readLine()) != null) {//read each line
-					for (String val : currentLine.split(" ")) //load the line
-						buffer.put(Float.parseFloat(val)); //insert into the buffer
-				}
-			
-				buffer.rewind();
-				Model model = new Model(gl, GL2.GL_QUADS, buffer, size, null);
-				models.put(file.split("\\.")[0], model);
+				Model model = parseModel(gl, reader);
+				models.put(type.getName(), model);
+				pieceModels[type.ordinal()] = model;
 				reader.close();
 			}
 		} catch (IOException ex) { ex.printStackTrace(); }
 	}
 	
+	/**
+	 * Parses a model file, the first line is the number of vertices followed
+	 * by a line for each vertex (vertex, normal, textureCoord)
+	 * 
+	 * @param gl opengl context, if null the model is sent to the GPU when first rendered
+	 * @param reader reader of the model file
+	 * @return the parsed model
+	 * @throws IOException
+	 */
+	public static Model parseModel(GL2 gl, BufferedReader reader) throws IOException {
+		//the first line is the size
+		int size = Integer.parseInt(reader.readLine());
+		//create the buffer
+		FloatBuffer buffer = ByteBuffer.allocateDirect(size * 8 * (Float.SIZE / 4)).
+                order(ByteOrder.nativeOrder()).asFloatBuffer();
+		
+		String currentLine;
+		while ((currentLine = reader.readLine()) != null) {//read each line
+			for (String val : currentLine.split(" ")) //load the line
+				buffer.put(Float.parseFloat(val)); //insert into the buffer
+		}
+	
+		buffer.rewind();
+		return new Model(gl, GL2.GL_QUADS, buffer, size, null);
+	}
+	
 	/**
 	 * Adds an in application built model, which is used by the Board classes,
 	 * to add their dynamically created models 
@@ -132,6 +158,14 @@ public class AssetLoader {
 		return models.get(name);
 	}
 	
+	/**
+	 * @param type
+	 * @return the model of the piece type, null if the models aren't loaded
+	 */
+	public Model getModel(PieceType type) {
+		return pieceModels[type.ordinal()];
+	}
+	
 	/**
 	 * Load all the textures in the file supplied
 	 * 
@@ -151,21 +185,41 @@ public class AssetLoader {
 		    tex.bind(gl);
 			textures.put(file.split("\\.")[0], tex);
 		}
+		colorTextures[Player.WHITE] = textures.get("White");
+		colorTextures[Player.BLACK] = textures.get("Black");
+	}
+	
+	/**
+	 * @param name
+	 * @return the texture for the name, null if the textures aren't loaded
+	 */
+	public Texture getTexture(String name) {
+		return textures.get(name);
 	}
 	
 	/**
-	 * Bind the texture supplied by the name, if it is not the
+	 * Bind the texture supplied, if it is not the
 	 * current one bound.
 	 * 
 	 * @param gl
-	 * @param name
+	 * @param texture
 	 */
-	public void bindTexture(GL2 gl, String name) {
-		if (currentTexture != null && currentTexture.equals(name))
+	public void bindTexture(GL2 gl, Texture texture) {
+		if (currentTexture == texture)
 			return;
 		
-		textures.get(name).bind(gl);
-		currentTexture = name;
+		texture.bind(gl);
+		currentTexture = texture;
+	}
+	
+	/**
+	 * Binds the texture of the pieces of a colour
+	 * 
+	 * @param gl
+	 * @param color Player.WHITE or Player.BLACK
+	 */
+	public void bindColorTexture(GL2 gl, int color) {
+		bindTexture(gl, colorTextures[color]);
 	}
 	
 	/**
@@ -3,6 +3,7 @@ package view.loaders.structures;
 import java.nio.FloatBuffer;
 
 import com.jogamp.opengl.GL2;
+import com.jogamp.opengl.util.texture.Texture;
 
 import view.loaders.AssetLoader;
 
@@ -34,6 +35,11 @@ public class Model {
 	
 	private String texture;
 	
+	/**
+	 * The texture found by its name, on the first render after the textures are loaded
+	 */
+	private Texture boundTexture;
+	
 	public Model(GL2 gl, int _type, FloatBuffer _buffer, int _size, String textureName) {
 		type = _type;
 		texture = textureName;
@@ -89,8 +95,10 @@ public class Model {
 		}
 		
 		bindData(gl);
-		if (texture != null)
-			AssetLoader.getInstance().bindTexture(gl, texture);
+		if (texture != null && boundTexture == null)
+			boundTexture = AssetLoader.getInstance().getTexture(texture);
+		if (boundTexture != null)
+			AssetLoader.getInstance().bindTexture(gl, boundTexture);
 		
 		gl.glDrawArrays(type, 0, size);
 	}